@@ -0,0 +1,110 @@
+package org.nikolait.crmsystem;
+
+import org.nikolait.crmsystem.dto.SellerCreateRequest;
+import org.nikolait.crmsystem.service.SellerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Ingestion throughput of {@code POST /api/transactions/batch} (JSON array and NDJSON) against the same number
+ * of single {@code POST /api/transactions} requests, over HTTP against the running application.
+ *
+ * <p>Every benchmark creates {@link #ITEMS} transactions per invocation and reports per transaction, so the
+ * scores of the three methods are directly comparable.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@OperationsPerInvocation(BatchIngestionBenchmark.ITEMS)
+@Threads(4)
+@Fork(1)
+public class BatchIngestionBenchmark {
+
+    static final int ITEMS = 100;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest singleRequest;
+    private HttpRequest jsonBatchRequest;
+    private HttpRequest ndjsonBatchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(CrmSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword()
+                )
+                .run();
+
+        Long sellerId = context.getBean(SellerService.class)
+                .create(new SellerCreateRequest("Batch Seller", "batch@example.com"))
+                .id();
+        String item = """
+                {"sellerId": %d, "amount": 10.00, "paymentType": "CARD"}""".formatted(sellerId);
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        singleRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(item))
+                .build();
+        jsonBatchRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(IntStream.range(0, ITEMS)
+                        .mapToObj(i -> item)
+                        .collect(Collectors.joining(",", "[", "]"))))
+                .build();
+        ndjsonBatchRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString((item + "\n").repeat(ITEMS)))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int singleRequests() throws IOException, InterruptedException {
+        int status = 0;
+        for (int i = 0; i < ITEMS; i++) {
+            status = client.send(singleRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+        return status;
+    }
+
+    @Benchmark
+    public int jsonBatch() throws IOException, InterruptedException {
+        return client.send(jsonBatchRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int ndjsonBatch() throws IOException, InterruptedException {
+        return client.send(ndjsonBatchRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,98 @@
+package org.nikolait.crmsystem;
+
+import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.model.Transaction;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.repository.SellerRepository;
+import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of inserting entities through JPA {@code saveAll} in one database transaction,
+ * which depends on whether Hibernate can allocate ids in advance and batch the inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EntityInsertBenchmark {
+
+    @Param({"1", "100"})
+    private int entities;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private SellerRepository sellerRepository;
+    private TransactionRepository transactionRepository;
+    private TransactionTemplate transactionTemplate;
+    private Seller seller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(CrmSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword()
+                )
+                .run();
+
+        sellerRepository = context.getBean(SellerRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        seller = sellerRepository.save(Seller.builder()
+                .name("Benchmark Seller")
+                .contactInfo("benchmark@example.com")
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<Seller> saveSellers() {
+        List<Seller> sellers = new ArrayList<>(entities);
+        for (int i = 0; i < entities; i++) {
+            sellers.add(Seller.builder()
+                    .name("Seller " + i)
+                    .contactInfo("seller" + i + "@example.com")
+                    .build());
+        }
+        return transactionTemplate.execute(status -> sellerRepository.saveAll(sellers));
+    }
+
+    @Benchmark
+    public List<Transaction> saveTransactions() {
+        List<Transaction> transactions = new ArrayList<>(entities);
+        for (int i = 0; i < entities; i++) {
+            transactions.add(Transaction.builder()
+                    .seller(seller)
+                    .amount(new BigDecimal("10.00"))
+                    .paymentType(PaymentType.CARD)
+                    .status(TransactionStatus.PENDING)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> transactionRepository.saveAll(transactions));
+    }
+}
@@ -0,0 +1,100 @@
+package org.nikolait.crmsystem;
+
+import org.nikolait.crmsystem.dto.SellerCreateRequest;
+import org.nikolait.crmsystem.dto.TransactionCreateRequest;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.service.SellerService;
+import org.nikolait.crmsystem.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test comparing the platform-thread and the virtual-thread execution mode of the web tier.
+ *
+ * <p>More concurrent clients than Tomcat has platform threads issue database-backed requests against
+ * the running application. In the virtual-thread mode the surplus queues on the database permit
+ * limiter instead of on the Tomcat accept queue.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(400)
+@Fork(1)
+public class ThreadingModeBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest pageRequest;
+    private HttpRequest transactionRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(CrmSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword()
+                )
+                .run();
+
+        Long sellerId = context.getBean(SellerService.class)
+                .create(new SellerCreateRequest("Load Test Seller", "load@example.com"))
+                .id();
+        TransactionService transactionService = context.getBean(TransactionService.class);
+        Long transactionId = null;
+        for (int i = 0; i < 100; i++) {
+            transactionId = transactionService
+                    .createPending(new TransactionCreateRequest(sellerId, new BigDecimal("10.00"), PaymentType.CARD))
+                    .id();
+        }
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        pageRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions?sellerId=" + sellerId + "&size=20"))
+                .GET()
+                .build();
+        transactionRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/" + transactionId))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int getTransactionPage() throws IOException, InterruptedException {
+        return client.send(pageRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int getTransactionById() throws IOException, InterruptedException {
+        return client.send(transactionRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
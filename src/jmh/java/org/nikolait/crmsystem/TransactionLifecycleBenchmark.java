@@ -0,0 +1,73 @@
+package org.nikolait.crmsystem;
+
+import org.nikolait.crmsystem.dto.SellerCreateRequest;
+import org.nikolait.crmsystem.dto.TransactionCreateRequest;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.service.SellerService;
+import org.nikolait.crmsystem.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of creating and completing a transaction through the service layer,
+ * including JPA, the rollup upsert and a real Postgres started with Testcontainers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionLifecycleBenchmark {
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionCreateRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(CrmSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword()
+                )
+                .run();
+
+        transactionService = context.getBean(TransactionService.class);
+        Long sellerId = context.getBean(SellerService.class)
+                .create(new SellerCreateRequest("Benchmark Seller", "benchmark@example.com"))
+                .id();
+        request = new TransactionCreateRequest(sellerId, new BigDecimal("99.99"), PaymentType.CARD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public TransactionResponse createPending() {
+        return transactionService.createPending(request);
+    }
+
+    @Benchmark
+    public TransactionResponse createPendingAndComplete() {
+        TransactionResponse pending = transactionService.createPending(request);
+        return transactionService.complete(pending.id());
+    }
+}
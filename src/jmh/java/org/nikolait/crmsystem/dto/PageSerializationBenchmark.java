@@ -0,0 +1,68 @@
+package org.nikolait.crmsystem.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing transaction listings with an object mapper configured like Spring MVC's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<TransactionResponse> page;
+    private CursorPageResponse<TransactionResponse> cursorPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<TransactionResponse> content = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new TransactionResponse(
+                    (long) i,
+                    (long) (i % 50),
+                    new BigDecimal("100.00").add(BigDecimal.valueOf(i)),
+                    i % 2 == 0 ? PaymentType.CARD : PaymentType.CASH,
+                    now.minusMinutes(i),
+                    TransactionStatus.COMPLETED,
+                    now.minusMinutes(i + 1)
+            ));
+        }
+
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize), 1_000_000);
+        cursorPage = new CursorPageResponse<>(content, "MTIzNDU2");
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeCursorPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cursorPage);
+    }
+}
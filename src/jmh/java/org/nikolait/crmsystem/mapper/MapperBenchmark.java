@@ -0,0 +1,71 @@
+package org.nikolait.crmsystem.mapper;
+
+import org.nikolait.crmsystem.dto.SellerCreateRequest;
+import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.model.Transaction;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generated MapStruct mappers on the request and response paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final TransactionMapper transactionMapper = new TransactionMapperImpl();
+    private final SellerMapper sellerMapper = new SellerMapperImpl();
+
+    private Transaction transaction;
+    private Seller seller;
+    private SellerCreateRequest sellerCreateRequest;
+
+    @Setup
+    public void setUp() {
+        seller = Seller.builder()
+                .id(42L)
+                .name("Benchmark Seller")
+                .contactInfo("benchmark@example.com")
+                .registrationDate(LocalDateTime.now())
+                .deleted(false)
+                .build();
+
+        transaction = Transaction.builder()
+                .id(1_000_000L)
+                .seller(seller)
+                .amount(new BigDecimal("1234.56"))
+                .paymentType(PaymentType.CARD)
+                .status(TransactionStatus.COMPLETED)
+                .createdAt(LocalDateTime.now())
+                .transactionDate(LocalDateTime.now())
+                .build();
+
+        sellerCreateRequest = new SellerCreateRequest("Benchmark Seller", "benchmark@example.com");
+    }
+
+    @Benchmark
+    public TransactionResponse transactionToResponse() {
+        return transactionMapper.toResponse(transaction);
+    }
+
+    @Benchmark
+    public SellerResponse sellerToResponse() {
+        return sellerMapper.toResponse(seller);
+    }
+
+    @Benchmark
+    public Seller sellerToEntity() {
+        return sellerMapper.toEntity(sellerCreateRequest);
+    }
+}
@@ -0,0 +1,47 @@
+package org.nikolait.crmsystem.service.impl;
+
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the period boundary calculations done on every analytics request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PeriodBoundariesBenchmark {
+
+    @Param({"DAY", "WEEK", "MONTH", "QUARTER", "YEAR"})
+    private PeriodType periodType;
+
+    private LocalDate baseDate;
+    private LocalDateTime periodStart;
+
+    @Setup
+    public void setUp() {
+        baseDate = LocalDate.of(2025, 5, 21);
+        periodStart = baseDate.atStartOfDay();
+    }
+
+    @Benchmark
+    public LocalDateTime start() {
+        return PeriodBoundaries.start(periodType, baseDate);
+    }
+
+    @Benchmark
+    public LocalDateTime end() {
+        return PeriodBoundaries.end(periodType, baseDate);
+    }
+
+    @Benchmark
+    public LocalDateTime add() {
+        return PeriodBoundaries.add(periodStart, periodType);
+    }
+}
@@ -0,0 +1,34 @@
+package org.nikolait.crmsystem.actuator;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.analytics.SalesRollupMismatchResponse;
+import org.nikolait.crmsystem.service.SalesRollupService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the sales rollup consistency check ({@code GET}) and the rebuild ({@code POST})
+ * as the {@code salesrollups} actuator endpoint.
+ */
+@Component
+@Endpoint(id = "salesrollups")
+@RequiredArgsConstructor
+public class SalesRollupsEndpoint {
+
+    private final SalesRollupService salesRollupService;
+
+    @ReadOperation
+    public List<SalesRollupMismatchResponse> mismatches() {
+        return salesRollupService.findMismatches();
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("dailyRows", salesRollupService.rebuild());
+    }
+}
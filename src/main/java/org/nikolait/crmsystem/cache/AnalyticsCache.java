@@ -0,0 +1,85 @@
+package org.nikolait.crmsystem.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.nikolait.crmsystem.config.AnalyticsCacheProperties;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerStatsResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache of analytics results keyed by period.
+ *
+ * <p>Results of periods that have ended are kept for a long time, since completions only ever land
+ * in the current period. Results covering the current moment are evicted as soon as a completed
+ * transaction is committed inside them, and everything is dropped after a rollup rebuild. Hit ratio
+ * is published as {@code cache.gets} and the age of served results as
+ * {@code analytics.cache.staleness}.</p>
+ */
+@Component
+public class AnalyticsCache {
+
+    private final PeriodResultCache<TopSellersKey, List<SellerRankResponse>> topSellers;
+    private final PeriodResultCache<SellersBelowKey, List<SellerStatsResponse>> sellersBelow;
+
+    public AnalyticsCache(AnalyticsCacheProperties properties, MeterRegistry meterRegistry) {
+        this.topSellers = new PeriodResultCache<>("analytics.topSellers", properties, meterRegistry);
+        this.sellersBelow = new PeriodResultCache<>("analytics.sellersBelow", properties, meterRegistry);
+    }
+
+    public List<SellerRankResponse> getTopSellers(
+            PeriodType periodType,
+            LocalDateTime from,
+            LocalDateTime to,
+            int limit,
+            Supplier<List<SellerRankResponse>> loader
+    ) {
+        return topSellers.get(new TopSellersKey(periodType, from, limit), from, to, loader);
+    }
+
+    public List<SellerStatsResponse> getSellersBelow(
+            LocalDateTime from,
+            LocalDateTime to,
+            BigDecimal maxTotal,
+            Supplier<List<SellerStatsResponse>> loader
+    ) {
+        return sellersBelow.get(new SellersBelowKey(from, to, maxTotal.stripTrailingZeros()), from, to, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionCompleted(TransactionCompletedEvent event) {
+        topSellers.evictContaining(event.transactionDate());
+        sellersBelow.evictContaining(event.transactionDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionBatchCompleted(TransactionBatchCompletedEvent event) {
+        topSellers.evictContaining(event.transactionDate());
+        sellersBelow.evictContaining(event.transactionDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesRollupsRebuilt(SalesRollupsRebuiltEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        topSellers.invalidateAll();
+        sellersBelow.invalidateAll();
+    }
+
+    private record TopSellersKey(PeriodType periodType, LocalDateTime periodStart, int limit) {
+    }
+
+    private record SellersBelowKey(LocalDateTime from, LocalDateTime to, BigDecimal maxTotal) {
+    }
+}
@@ -0,0 +1,97 @@
+package org.nikolait.crmsystem.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.nikolait.crmsystem.config.AnalyticsCacheProperties;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of query results computed over a datetime range.
+ *
+ * <p>Results for ranges that have already ended are kept for {@code closedPeriodTtl}, results for
+ * ranges that are still running for {@code openPeriodTtl}. The age of every entry served from the
+ * cache is recorded in the {@code analytics.cache.staleness} timer.</p>
+ */
+class PeriodResultCache<K, V> {
+
+    private final Cache<K, Entry<V>> cache;
+    private final Timer openStaleness;
+    private final Timer closedStaleness;
+
+    PeriodResultCache(String name, AnalyticsCacheProperties properties, MeterRegistry meterRegistry) {
+        long closedTtl = properties.closedPeriodTtl().toNanos();
+        long openTtl = properties.openPeriodTtl().toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .expireAfter(new Expiry<K, Entry<V>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+                        return entry.closed() ? closedTtl : openTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        this.openStaleness = stalenessTimer(name, "open", meterRegistry);
+        this.closedStaleness = stalenessTimer(name, "closed", meterRegistry);
+    }
+
+    V get(K key, LocalDateTime from, LocalDateTime to, Supplier<V> loader) {
+        long requestedAt = System.nanoTime();
+        Entry<V> entry = cache.get(key, k -> new Entry<>(
+                loader.get(),
+                from,
+                to,
+                !to.isAfter(LocalDateTime.now()),
+                requestedAt
+        ));
+
+        if (entry.createdAt() != requestedAt) {
+            long age = requestedAt - entry.createdAt();
+            (entry.closed() ? closedStaleness : openStaleness).record(age, TimeUnit.NANOSECONDS);
+        }
+        return entry.value();
+    }
+
+    void evictContaining(LocalDateTime dateTime) {
+        cache.asMap().values().removeIf(entry -> entry.contains(dateTime));
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static Timer stalenessTimer(String name, String period, MeterRegistry meterRegistry) {
+        return Timer.builder("analytics.cache.staleness")
+                .description("Age of cached analytics results when served")
+                .tag("cache", name)
+                .tag("period", period)
+                .register(meterRegistry);
+    }
+
+    private record Entry<V>(V value, LocalDateTime from, LocalDateTime to, boolean closed, long createdAt) {
+
+        boolean contains(LocalDateTime dateTime) {
+            return !dateTime.isBefore(from) && !dateTime.isAfter(to);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.nikolait.crmsystem.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.mapper.SellerMapper;
+import org.nikolait.crmsystem.repository.SellerRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache of active (not deleted) sellers.
+ *
+ * <p>Entries are bounded in number and expire after a fixed time (see {@code spring.cache.caffeine.spec}).
+ * Writers of a seller must evict its entry, e.g. with
+ * {@code @CacheEvict(cacheNames = SellerCache.CACHE_NAME, key = "#id")}. Missing or deleted sellers
+ * are not cached.</p>
+ *
+ * <p>Call {@link #findActive(Long)} before opening a transaction, never inside one. A miss then reads
+ * the seller from the primary in a transaction of its own and holds a single connection. Inside a
+ * read-only caller transaction, which is served by the read replica, the miss would join it and fill
+ * the cache with a possibly lagging copy.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class SellerCache {
+
+    public static final String CACHE_NAME = "sellers";
+
+    private final SellerRepository sellerRepository;
+    private final SellerMapper sellerMapper;
+
+    @Cacheable(cacheNames = CACHE_NAME, key = "#id", unless = "#result == null")
+    @Transactional
+    public Optional<SellerResponse> findActive(Long id) {
+        return sellerRepository.findByIdAndDeletedFalse(id)
+                .map(sellerMapper::toResponse);
+    }
+}
@@ -0,0 +1,33 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings of the analytics result cache.
+ *
+ * @param maxEntries      maximum number of cached results per analytics query
+ * @param closedPeriodTtl lifetime of results for periods that have already ended
+ * @param openPeriodTtl   lifetime of results for periods that are still running
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.analytics.cache")
+public record AnalyticsCacheProperties(
+        @DefaultValue("1000")
+        @Positive
+        int maxEntries,
+
+        @DefaultValue("24h")
+        @NotNull
+        Duration closedPeriodTtl,
+
+        @DefaultValue("1m")
+        @NotNull
+        Duration openPeriodTtl
+) {
+}
@@ -0,0 +1,32 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the in-memory columnar copy of recent completed transactions.
+ *
+ * @param enabled   whether the copy is kept at all
+ * @param months    number of calendar months held, including the current one
+ * @param chunkRows number of rows per chunk, the unit of parallel scans
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.analytics.columnar")
+public record ColumnarSalesProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("3")
+        @Min(1)
+        @Max(120)
+        int months,
+
+        @DefaultValue("65536")
+        @Min(1024)
+        @Max(16777216)
+        int chunkRows
+) {
+}
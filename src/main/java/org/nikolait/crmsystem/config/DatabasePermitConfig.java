@@ -0,0 +1,54 @@
+package org.nikolait.crmsystem.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.nikolait.crmsystem.jdbc.PermitLimitedDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the Hikari pool behind a {@link PermitLimitedDataSource} when the application runs on virtual threads
+ * ({@code spring.threads.virtual.enabled=true}), so that a burst of requests waits in a bounded queue
+ * instead of piling up inside the pool. The pool may already be wrapped, for example by the slow query log.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabasePermitConfig {
+
+    @Bean
+    static BeanPostProcessor permitLimitedDataSourcePostProcessor(ObjectProvider<DatabasePermitProperties> properties,
+                                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof PermitLimitedDataSource) {
+                    return bean;
+                }
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(
+                        dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+                if (hikari == null) {
+                    return bean;
+                }
+                DatabasePermitProperties permits = properties.getObject();
+                int maxConcurrent = permits.maxConcurrent() != null
+                        ? permits.maxConcurrent()
+                        : hikari.getMaximumPoolSize();
+                return new PermitLimitedDataSource(
+                        dataSource,
+                        maxConcurrent,
+                        permits.maxWaiting(),
+                        permits.acquireTimeout(),
+                        meterRegistry.getObject()
+                );
+            }
+        };
+    }
+}
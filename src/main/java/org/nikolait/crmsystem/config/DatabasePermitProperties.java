@@ -0,0 +1,32 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings of the database permit limiter used in the virtual-thread execution mode.
+ *
+ * @param maxConcurrent  number of connections that may be checked out at once, defaults to the Hikari pool size
+ * @param maxWaiting     maximum number of callers waiting for a permit, further callers are rejected immediately
+ * @param acquireTimeout maximum time a caller waits for a permit before it is rejected
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.db.permits")
+public record DatabasePermitProperties(
+        @Positive
+        Integer maxConcurrent,
+
+        @DefaultValue("1000")
+        @Positive
+        int maxWaiting,
+
+        @DefaultValue("5s")
+        @NotNull
+        Duration acquireTimeout
+) {
+}
@@ -0,0 +1,27 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching of read responses.
+ *
+ * @param closedPeriodMaxAge          how long clients may reuse analytics of periods that have already ended
+ * @param completedTransactionMaxAge  how long clients may reuse a completed transaction, which never changes
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.http.cache")
+public record HttpCacheProperties(
+        @DefaultValue("24h")
+        @NotNull
+        Duration closedPeriodMaxAge,
+
+        @DefaultValue("365d")
+        @NotNull
+        Duration completedTransactionMaxAge
+) {
+}
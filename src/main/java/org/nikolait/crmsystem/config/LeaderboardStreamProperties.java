@@ -0,0 +1,48 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings of the live leaderboard stream.
+ *
+ * @param pushInterval      minimum delay between two leaderboard updates; completions in between are coalesced
+ * @param heartbeatInterval delay between comments sent to detect disconnected subscribers
+ * @param emitterTimeout    lifetime of a subscription, after which the client is expected to reconnect
+ * @param sendThreads       threads writing updates and heartbeats to subscribers
+ * @param sendQueueCapacity subscribers that may wait for a free send thread; beyond it a subscriber is dropped
+ * @param sendTimeout       time one write to a subscriber may take before the subscriber is dropped
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.analytics.leaderboard")
+public record LeaderboardStreamProperties(
+        @DefaultValue("1s")
+        @NotNull
+        Duration pushInterval,
+
+        @DefaultValue("15s")
+        @NotNull
+        Duration heartbeatInterval,
+
+        @DefaultValue("30m")
+        @NotNull
+        Duration emitterTimeout,
+
+        @DefaultValue("4")
+        @Positive
+        int sendThreads,
+
+        @DefaultValue("1000")
+        @Positive
+        int sendQueueCapacity,
+
+        @DefaultValue("10s")
+        @NotNull
+        Duration sendTimeout
+) {
+}
@@ -0,0 +1,69 @@
+package org.nikolait.crmsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.nikolait.crmsystem.jdbc.ReadReplica;
+import org.nikolait.crmsystem.jdbc.ReadReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes read-only transactions to a read replica when {@code app.db.replica.enabled=true}.
+ *
+ * <p>The replica gets its own Hikari pool, which is deliberately not a {@link DataSource} bean, so the primary
+ * stays auto-configured and the other data source wrappers are applied once, around the routing data source.
+ * For that the routing wrapper is applied first.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.db.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    ReadReplica readReplica(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.url())
+                .username(properties.username())
+                .password(properties.password())
+                .build();
+        pool.setPoolName("replica");
+        pool.setMaximumPoolSize(properties.maximumPoolSize());
+        pool.setReadOnly(true);
+        pool.setMetricRegistry(meterRegistry);
+
+        ReadReplica replica = new ReadReplica(pool, properties.maxLag(), meterRegistry);
+        replica.checkLag();
+        return replica;
+    }
+
+    /**
+     * Declared with its own type so that the bean factory sees it is {@link Ordered} before creating it.
+     */
+    @Bean
+    static RoutingPostProcessor readReplicaRoutingDataSourcePostProcessor(ObjectProvider<ReadReplica> replica) {
+        return new RoutingPostProcessor(replica);
+    }
+
+    record RoutingPostProcessor(ObjectProvider<ReadReplica> replica) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ReadReplicaRoutingDataSource) {
+                return bean;
+            }
+            return new ReadReplicaRoutingDataSource(dataSource, replica.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
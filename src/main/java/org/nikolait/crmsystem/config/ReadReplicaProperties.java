@@ -0,0 +1,45 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings of the read replica that serves read-only transactions.
+ *
+ * @param enabled          whether read-only transactions are routed to the replica at all
+ * @param url              JDBC URL of the replica
+ * @param username         user of the replica
+ * @param password         password of the replica
+ * @param maximumPoolSize  size of the replica connection pool
+ * @param maxLag           replication lag above which read-only transactions go to the primary;
+ *                         {@code null} to fall back only while the replica is unreachable
+ * @param lagCheckInterval how often the replication lag is measured
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.db.replica")
+public record ReadReplicaProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        String url,
+
+        String username,
+
+        String password,
+
+        @DefaultValue("10")
+        @Positive
+        int maximumPoolSize,
+
+        Duration maxLag,
+
+        @DefaultValue("5s")
+        @NotNull
+        Duration lagCheckInterval
+) {
+}
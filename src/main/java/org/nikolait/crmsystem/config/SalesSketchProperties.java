@@ -0,0 +1,36 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the per-period sales sketches behind approximate analytics.
+ *
+ * @param epsilon      relative error of per-seller totals, as a share of the total sales in the requested range
+ * @param confidence   probability that a per-seller total stays within {@code epsilon}
+ * @param hllPrecision number of bits addressing the registers of the active seller estimate
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.analytics.sketches")
+public record SalesSketchProperties(
+        @DefaultValue("0.01")
+        @DecimalMin(value = "0.0001")
+        @DecimalMax(value = "0.5")
+        double epsilon,
+
+        @DefaultValue("0.99")
+        @DecimalMin(value = "0.5")
+        @DecimalMax(value = "0.999999")
+        double confidence,
+
+        @DefaultValue("11")
+        @Min(4)
+        @Max(18)
+        int hllPrecision
+) {
+}
@@ -0,0 +1,38 @@
+package org.nikolait.crmsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.nikolait.crmsystem.jdbc.SlowQueryLoggingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the application data source behind a {@link SlowQueryLoggingDataSource}
+ * unless {@code app.db.slow-query.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.db.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    @Bean
+    static BeanPostProcessor slowQueryLoggingDataSourcePostProcessor(ObjectProvider<SlowQueryLogProperties> properties,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof SlowQueryLoggingDataSource) {
+                    return bean;
+                }
+                return new SlowQueryLoggingDataSource(
+                        dataSource,
+                        properties.getObject().threshold(),
+                        meterRegistry.getObject()
+                );
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Settings of the slow query log.
+ *
+ * @param enabled   whether statements are timed at all
+ * @param threshold minimum execution time of a statement that is logged and counted as slow
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.db.slow-query")
+public record SlowQueryLogProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("500ms")
+        @NotNull
+        Duration threshold
+) {
+}
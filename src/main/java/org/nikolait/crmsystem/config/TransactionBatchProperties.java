@@ -0,0 +1,25 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the bulk transaction ingestion path.
+ *
+ * @param maxItems     maximum number of items accepted in a single batch request
+ * @param jdbcBatchSize number of rows sent to the database in one JDBC batch
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.transactions.batch")
+public record TransactionBatchProperties(
+        @DefaultValue("10000")
+        @Positive
+        int maxItems,
+
+        @DefaultValue("500")
+        @Positive
+        int jdbcBatchSize
+) {
+}
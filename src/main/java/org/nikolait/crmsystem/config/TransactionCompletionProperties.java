@@ -0,0 +1,25 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of bulk transaction completion.
+ *
+ * @param maxIds    maximum number of transaction ids accepted in a single request
+ * @param chunkSize number of transactions completed per statement and database transaction
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.transactions.completion")
+public record TransactionCompletionProperties(
+        @DefaultValue("100000")
+        @Positive
+        int maxIds,
+
+        @DefaultValue("1000")
+        @Positive
+        int chunkSize
+) {
+}
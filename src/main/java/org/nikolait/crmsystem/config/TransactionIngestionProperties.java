@@ -0,0 +1,63 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of write-behind transaction ingestion.
+ *
+ * @param writeBehind      whether new transactions are queued and written to the database asynchronously
+ * @param queueCapacity    maximum number of accepted transactions not yet written to the database
+ * @param idBlockSize      number of identifiers allocated from the sequence at once
+ * @param flushBatchSize   number of transactions written per database transaction
+ * @param flushInterval    delay between two drains of the queue
+ * @param maxFlushAttempts failed writes of one batch, not counting database outages, after which its
+ *                         transactions are written one by one and those still failing are dead-lettered
+ * @param journal          append-only file that keeps accepted transactions until they are written
+ * @param journalFsync     whether every journal append is forced to disk before the request is answered
+ * @param deadLetter       append-only file that keeps transactions that could not be written
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.transactions.ingestion")
+public record TransactionIngestionProperties(
+        @DefaultValue("false")
+        boolean writeBehind,
+
+        @DefaultValue("10000")
+        @Positive
+        int queueCapacity,
+
+        @DefaultValue("1000")
+        @Positive
+        int idBlockSize,
+
+        @DefaultValue("1000")
+        @Positive
+        int flushBatchSize,
+
+        @DefaultValue("200ms")
+        @NotNull
+        Duration flushInterval,
+
+        @DefaultValue("5")
+        @Positive
+        int maxFlushAttempts,
+
+        @DefaultValue("data/transactions.journal")
+        @NotNull
+        Path journal,
+
+        @DefaultValue("true")
+        boolean journalFsync,
+
+        @DefaultValue("data/transactions.dead-letter")
+        @NotNull
+        Path deadLetter
+) {
+}
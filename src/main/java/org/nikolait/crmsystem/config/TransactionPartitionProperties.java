@@ -0,0 +1,20 @@
+package org.nikolait.crmsystem.config;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the monthly partitioning of transactions.
+ *
+ * @param monthsAhead number of months after the current one that must always have a partition
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.transactions.partitions")
+public record TransactionPartitionProperties(
+        @DefaultValue("3")
+        @PositiveOrZero
+        int monthsAhead
+) {
+}
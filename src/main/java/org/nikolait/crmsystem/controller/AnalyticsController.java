@@ -1,11 +1,26 @@
 package org.nikolait.crmsystem.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
+import org.nikolait.crmsystem.dto.analytics.ApproximateSellersResponse;
 import org.nikolait.crmsystem.dto.analytics.BestPeriodResponse;
+import org.nikolait.crmsystem.dto.analytics.LiveSalesResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
 import org.nikolait.crmsystem.dto.analytics.SellerStatsResponse;
 import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.service.ApproximateAnalyticsService;
+import org.nikolait.crmsystem.service.LeaderboardStreamService;
+import org.nikolait.crmsystem.service.LiveSalesService;
 import org.nikolait.crmsystem.service.SellerAnalyticsService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -18,30 +33,111 @@ import java.util.List;
 public class AnalyticsController {
 
     private final SellerAnalyticsService analyticsService;
+    private final ApproximateAnalyticsService approximateAnalyticsService;
+    private final LiveSalesService liveSalesService;
+    private final LeaderboardStreamService leaderboardStreamService;
+    private final ConditionalResponses conditionalResponses;
 
     @GetMapping("/top-seller")
-    public SellerStatsResponse getTopSeller(
+    public ResponseEntity<SellerStatsResponse> getTopSeller(
             @RequestParam PeriodType periodType,
-            @RequestParam LocalDate date
+            @RequestParam LocalDate date,
+            WebRequest request
     ) {
-        return analyticsService.getTopSeller(periodType, date);
+        return conditionalResponses.ofContent(
+                request,
+                analyticsService.getTopSeller(periodType, date),
+                conditionalResponses.forPeriodEndingAt(analyticsService.getPeriodEnd(periodType, date))
+        );
+    }
+
+    @GetMapping("/top-sellers")
+    public ResponseEntity<List<SellerRankResponse>> getTopSellers(
+            @RequestParam PeriodType periodType,
+            @RequestParam LocalDate date,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit,
+            WebRequest request
+    ) {
+        return conditionalResponses.ofContent(
+                request,
+                analyticsService.getTopSellers(periodType, date, limit),
+                conditionalResponses.forPeriodEndingAt(analyticsService.getPeriodEnd(periodType, date))
+        );
+    }
+
+    @GetMapping(value = "/top-sellers/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTopSellers(
+            @RequestParam PeriodType periodType,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit
+    ) {
+        return leaderboardStreamService.subscribe(periodType, limit);
     }
 
     @GetMapping("/sellers-below")
-    public List<SellerStatsResponse> getSellersBelow(
+    public ResponseEntity<List<SellerStatsResponse>> getSellersBelow(
+            @RequestParam LocalDateTime from,
+            @RequestParam LocalDateTime to,
+            @RequestParam BigDecimal maxTotal,
+            WebRequest request
+    ) {
+        return conditionalResponses.ofContent(
+                request,
+                analyticsService.getSellersWithTotalLessThan(from, to, maxTotal),
+                conditionalResponses.forPeriodEndingAt(to)
+        );
+    }
+
+    @GetMapping(value = "/sellers-below", params = "approximate=true")
+    public ResponseEntity<ApproximateSellersResponse> getSellersBelowApproximately(
             @RequestParam LocalDateTime from,
             @RequestParam LocalDateTime to,
-            @RequestParam BigDecimal maxTotal
+            @RequestParam BigDecimal maxTotal,
+            WebRequest request
     ) {
-        return analyticsService.getSellersWithTotalLessThan(from, to, maxTotal);
+        ApproximateSellersResponse response =
+                approximateAnalyticsService.getSellersWithTotalLessThan(from, to, maxTotal);
+        return conditionalResponses.ofContent(
+                request,
+                response,
+                conditionalResponses.forPeriodEndingAt(response.toDay().atStartOfDay())
+        );
     }
 
     @GetMapping("/sellers/{sellerId}/best-period")
-    public BestPeriodResponse getBestPeriod(
+    public ResponseEntity<BestPeriodResponse> getBestPeriod(
             @PathVariable Long sellerId,
-            @RequestParam PeriodType periodType
+            @RequestParam PeriodType periodType,
+            WebRequest request
+    ) {
+        return conditionalResponses.ofContent(
+                request,
+                analyticsService.getBestPeriodForSeller(sellerId, periodType),
+                CacheControl.noCache()
+        );
+    }
+
+    @GetMapping("/best-periods")
+    public ResponseEntity<CursorPageResponse<BestPeriodResponse>> getBestPeriods(
+            @RequestParam PeriodType periodType,
+            @RequestParam(required = false) @Size(max = 1000) List<Long> sellerIds,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+            WebRequest request
     ) {
-        return analyticsService.getBestPeriodForSeller(sellerId, periodType);
+        return conditionalResponses.ofContent(
+                request,
+                analyticsService.getBestPeriods(periodType, sellerIds, after, size),
+                CacheControl.noCache()
+        );
+    }
+
+    @GetMapping("/sellers/{sellerId}/live")
+    public ResponseEntity<LiveSalesResponse> getLiveSales(@PathVariable Long sellerId, WebRequest request) {
+        return conditionalResponses.ofContent(
+                request,
+                liveSalesService.getCurrentTotals(sellerId),
+                CacheControl.noCache()
+        );
     }
 
 }
@@ -0,0 +1,93 @@
+package org.nikolait.crmsystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.config.HttpCacheProperties;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Builds read responses with an {@code ETag} and {@code Cache-Control}, answering {@code 304 Not Modified}
+ * when the request's {@code If-None-Match} matches.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalResponses {
+
+    private final ObjectMapper objectMapper;
+    private final HttpCacheProperties properties;
+
+    /**
+     * Responds with {@code body}, tagged with a hash of its JSON; the body is hashed without being buffered,
+     * and is only written if the client's copy differs.
+     */
+    public <T> ResponseEntity<T> ofContent(WebRequest request, T body, CacheControl cacheControl) {
+        return respond(request, contentHash(body), cacheControl, () -> body);
+    }
+
+    /**
+     * Responds with the body loaded by {@code loader}, tagged with {@code version}; nothing is loaded
+     * if the client already has that version.
+     */
+    public <T> ResponseEntity<T> ofVersion(WebRequest request,
+                                           String version,
+                                           CacheControl cacheControl,
+                                           Supplier<T> loader) {
+        return respond(request, version, cacheControl, loader);
+    }
+
+    /**
+     * Results of a period ending at {@code end}, exclusive: once the period is over completions no longer land
+     * in it, so clients may reuse them; until then they must revalidate.
+     */
+    public CacheControl forPeriodEndingAt(LocalDateTime end) {
+        return end.isAfter(LocalDateTime.now())
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(properties.closedPeriodMaxAge());
+    }
+
+    /**
+     * A completed transaction never changes again; a transaction in any other status must be revalidated.
+     */
+    public CacheControl forTransaction(TransactionStatus status) {
+        return status == TransactionStatus.COMPLETED
+                ? CacheControl.maxAge(properties.completedTransactionMaxAge()).immutable()
+                : CacheControl.noCache();
+    }
+
+    private static <T> ResponseEntity<T> respond(WebRequest request,
+                                                 String etag,
+                                                 CacheControl cacheControl,
+                                                 Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+
+    private String contentHash(Object body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            objectMapper.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package org.nikolait.crmsystem.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
 import org.nikolait.crmsystem.dto.SellerCreateRequest;
 import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.SellerSummaryResponse;
 import org.nikolait.crmsystem.dto.SellerUpdateRequest;
 import org.nikolait.crmsystem.service.SellerService;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/sellers")
@@ -18,15 +25,34 @@ import org.springframework.web.bind.annotation.*;
 public class SellerController {
 
     private final SellerService sellerService;
+    private final ConditionalResponses conditionalResponses;
 
     @GetMapping
     public Page<SellerResponse> getAll(@ParameterObject Pageable pageable) {
         return sellerService.getAll(pageable);
     }
 
+    @GetMapping("/cursor")
+    public CursorPageResponse<SellerResponse> getAllByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size
+    ) {
+        return sellerService.getAllAfter(after, size);
+    }
+
     @GetMapping("/{id}")
-    public SellerResponse getById(@PathVariable Long id) {
-        return sellerService.getById(id);
+    public ResponseEntity<SellerResponse> getById(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.ofContent(request, sellerService.getById(id), CacheControl.noCache());
+    }
+
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<SellerSummaryResponse> getSummary(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.ofVersion(
+                request,
+                sellerService.getSummaryVersion(id),
+                CacheControl.noCache(),
+                () -> sellerService.getSummary(id)
+        );
     }
 
     @PostMapping
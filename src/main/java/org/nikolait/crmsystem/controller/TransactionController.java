@@ -1,15 +1,44 @@
 package org.nikolait.crmsystem.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.config.TransactionBatchProperties;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
+import org.nikolait.crmsystem.dto.TransactionBatchResponse;
+import org.nikolait.crmsystem.dto.TransactionCompletionResponse;
 import org.nikolait.crmsystem.dto.TransactionCreateRequest;
+import org.nikolait.crmsystem.dto.TransactionExportFilter;
 import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
+import org.nikolait.crmsystem.dto.enums.ExportFormat;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.service.TransactionExportService;
+import org.nikolait.crmsystem.service.TransactionIngestionService;
 import org.nikolait.crmsystem.service.TransactionService;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -17,6 +46,11 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final ObjectProvider<TransactionIngestionService> transactionIngestionService;
+    private final ObjectMapper objectMapper;
+    private final ConditionalResponses conditionalResponses;
+    private final TransactionBatchProperties batchProperties;
 
     @GetMapping
     public Page<TransactionResponse> getAll(
@@ -29,19 +63,97 @@ public class TransactionController {
         return transactionService.getAll(pageable);
     }
 
+    @GetMapping("/cursor")
+    public CursorPageResponse<TransactionResponse> getAllByCursor(
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size,
+            @RequestParam(defaultValue = "ID") CursorOrder order
+    ) {
+        return transactionService.getAllAfter(sellerId, after, size, order);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Long sellerId,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format
+    ) {
+        TransactionExportFilter filter = new TransactionExportFilter(sellerId, status, from, to);
+        StreamingResponseBody body = out -> transactionExportService.export(filter, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public TransactionResponse getById(@PathVariable Long id) {
-        return transactionService.getById(id);
+    public ResponseEntity<TransactionResponse> getById(@PathVariable Long id, WebRequest request) {
+        TransactionStatus status = transactionService.getStatus(id);
+        return conditionalResponses.ofVersion(
+                request,
+                id + "-" + status,
+                conditionalResponses.forTransaction(status),
+                () -> transactionService.getById(id)
+        );
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public TransactionResponse create(@Valid @RequestBody TransactionCreateRequest request) {
-        return transactionService.createPending(request);
+    public ResponseEntity<TransactionResponse> create(@Valid @RequestBody TransactionCreateRequest request) {
+        TransactionIngestionService writeBehind = transactionIngestionService.getIfAvailable();
+        if (writeBehind != null) {
+            return ResponseEntity.accepted().body(writeBehind.enqueuePending(request));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.createPending(request));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public TransactionBatchResponse createBatch(@RequestBody List<TransactionCreateRequest> requests) {
+        return transactionService.createPendingBatch(requests);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public TransactionBatchResponse createBatchFromNdjson(InputStream body) throws IOException {
+        int maxItems = batchProperties.maxItems();
+        List<TransactionCreateRequest> requests = new ArrayList<>();
+
+        try (MappingIterator<TransactionCreateRequest> items =
+                     objectMapper.readerFor(TransactionCreateRequest.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                if (requests.size() == maxItems) {
+                    throw new ValidationException("Batch size must not exceed " + maxItems + " items");
+                }
+                requests.add(items.nextValue());
+            }
+        } catch (JsonProcessingException ex) {
+            throw new ValidationException("Malformed NDJSON body: " + ex.getOriginalMessage());
+        }
+
+        return transactionService.createPendingBatch(requests);
     }
 
     @PostMapping("/{id}/complete")
     public TransactionResponse complete(@PathVariable Long id) {
         return transactionService.complete(id);
     }
+
+    @PostMapping("/complete")
+    public TransactionCompletionResponse completeAll(@RequestBody List<Long> ids) {
+        return transactionService.completeAll(ids);
+    }
+
+    @PostMapping("/complete/by-seller")
+    public TransactionCompletionResponse completeAllBySeller(
+            @RequestParam Long sellerId,
+            @RequestParam LocalDateTime createdFrom,
+            @RequestParam LocalDateTime createdTo
+    ) {
+        return transactionService.completeAllBySeller(sellerId, createdFrom, createdTo);
+    }
 }
@@ -0,0 +1,9 @@
+package org.nikolait.crmsystem.dto;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        List<T> content,
+        String nextCursor
+) {
+}
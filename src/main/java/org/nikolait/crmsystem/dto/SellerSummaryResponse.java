@@ -0,0 +1,14 @@
+package org.nikolait.crmsystem.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SellerSummaryResponse(
+        Long id,
+        String name,
+        long completedCount,
+        BigDecimal completedAmount,
+        LocalDateTime firstTransactionDate,
+        LocalDateTime lastTransactionDate
+) {
+}
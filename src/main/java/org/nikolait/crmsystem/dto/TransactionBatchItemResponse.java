@@ -0,0 +1,11 @@
+package org.nikolait.crmsystem.dto;
+
+import org.nikolait.crmsystem.dto.enums.BatchItemStatus;
+
+public record TransactionBatchItemResponse(
+        int index,
+        BatchItemStatus status,
+        TransactionResponse transaction,
+        String error
+) {
+}
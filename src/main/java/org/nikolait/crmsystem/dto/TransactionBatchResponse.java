@@ -0,0 +1,10 @@
+package org.nikolait.crmsystem.dto;
+
+import java.util.List;
+
+public record TransactionBatchResponse(
+        int created,
+        int rejected,
+        List<TransactionBatchItemResponse> items
+) {
+}
@@ -0,0 +1,10 @@
+package org.nikolait.crmsystem.dto;
+
+import org.nikolait.crmsystem.dto.enums.CompletionOutcome;
+
+public record TransactionCompletionItemResponse(
+        Long id,
+        CompletionOutcome outcome,
+        String error
+) {
+}
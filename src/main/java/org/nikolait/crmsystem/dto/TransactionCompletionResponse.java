@@ -0,0 +1,12 @@
+package org.nikolait.crmsystem.dto;
+
+import java.util.List;
+
+public record TransactionCompletionResponse(
+        int completed,
+        int alreadyCompleted,
+        int rejected,
+        int notFound,
+        List<TransactionCompletionItemResponse> items
+) {
+}
@@ -1,6 +1,7 @@
 package org.nikolait.crmsystem.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.nikolait.crmsystem.model.enums.PaymentType;
@@ -14,6 +15,7 @@ public record TransactionCreateRequest(
 
         @NotNull
         @DecimalMin(value = "0.01")
+        @Digits(integer = 16, fraction = 2)
         BigDecimal amount,
 
         @NotNull
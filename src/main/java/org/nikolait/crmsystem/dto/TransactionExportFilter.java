@@ -0,0 +1,13 @@
+package org.nikolait.crmsystem.dto;
+
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+
+import java.time.LocalDateTime;
+
+public record TransactionExportFilter(
+        Long sellerId,
+        TransactionStatus status,
+        LocalDateTime from,
+        LocalDateTime to
+) {
+}
@@ -0,0 +1,25 @@
+package org.nikolait.crmsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.money.CentsSerializer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exported transaction; serialized like {@link TransactionResponse}, with the amount held in cents.
+ */
+public record TransactionExportRow(
+        Long id,
+        Long sellerId,
+        @JsonProperty("amount")
+        @JsonSerialize(using = CentsSerializer.class)
+        long amountCents,
+        PaymentType paymentType,
+        LocalDateTime transactionDate,
+        TransactionStatus status,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,27 @@
+package org.nikolait.crmsystem.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sellers whose estimated total is below the threshold.
+ *
+ * @param fromDay            first day of the estimated range
+ * @param toDay              day after the last day of the estimated range
+ * @param errorBound         amount by which an estimated total may exceed the true total
+ * @param confidence         probability that each estimated total stays within {@code errorBound}
+ * @param activeSellers      estimated number of sellers with sales in the range
+ * @param activeSellersError relative standard error of {@code activeSellers}
+ * @param sellers            matching sellers with their estimated totals, ascending
+ */
+public record ApproximateSellersResponse(
+        LocalDate fromDay,
+        LocalDate toDay,
+        BigDecimal errorBound,
+        double confidence,
+        long activeSellers,
+        double activeSellersError,
+        List<SellerStatsResponse> sellers
+) {
+}
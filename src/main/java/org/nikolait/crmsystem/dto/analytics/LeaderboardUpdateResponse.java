@@ -0,0 +1,13 @@
+package org.nikolait.crmsystem.dto.analytics;
+
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record LeaderboardUpdateResponse(
+        PeriodType periodType,
+        LocalDateTime periodStart,
+        List<SellerRankResponse> sellers
+) {
+}
@@ -0,0 +1,9 @@
+package org.nikolait.crmsystem.dto.analytics;
+
+public record LiveSalesResponse(
+        Long sellerId,
+        PeriodTotalsResponse day,
+        PeriodTotalsResponse week,
+        PeriodTotalsResponse month
+) {
+}
@@ -0,0 +1,11 @@
+package org.nikolait.crmsystem.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record PeriodTotalsResponse(
+        LocalDate periodStart,
+        long transactionCount,
+        BigDecimal totalAmount
+) {
+}
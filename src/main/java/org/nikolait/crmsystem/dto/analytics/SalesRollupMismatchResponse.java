@@ -0,0 +1,17 @@
+package org.nikolait.crmsystem.dto.analytics;
+
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SalesRollupMismatchResponse(
+        PeriodType granularity,
+        Long sellerId,
+        LocalDate periodStart,
+        long rollupCount,
+        BigDecimal rollupAmount,
+        long actualCount,
+        BigDecimal actualAmount
+) {
+}
@@ -0,0 +1,11 @@
+package org.nikolait.crmsystem.dto.analytics;
+
+import java.math.BigDecimal;
+
+public record SellerRankResponse(
+        int rank,
+        Long sellerId,
+        String sellerName,
+        BigDecimal totalAmount
+) {
+}
@@ -0,0 +1,6 @@
+package org.nikolait.crmsystem.dto.enums;
+
+public enum BatchItemStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,8 @@
+package org.nikolait.crmsystem.dto.enums;
+
+public enum CompletionOutcome {
+    COMPLETED,
+    ALREADY_COMPLETED,
+    REJECTED,
+    NOT_FOUND
+}
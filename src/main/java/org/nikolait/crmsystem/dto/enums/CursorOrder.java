@@ -0,0 +1,6 @@
+package org.nikolait.crmsystem.dto.enums;
+
+public enum CursorOrder {
+    ID,
+    TRANSACTION_DATE
+}
@@ -0,0 +1,9 @@
+package org.nikolait.crmsystem.event;
+
+/**
+ * Published when the seller sales rollups have been rebuilt from raw transactions.
+ *
+ * @param dailyRows number of daily rollup rows written
+ */
+public record SalesRollupsRebuiltEvent(int dailyRows) {
+}
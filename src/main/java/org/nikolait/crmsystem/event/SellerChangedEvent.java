@@ -0,0 +1,9 @@
+package org.nikolait.crmsystem.event;
+
+/**
+ * Published when a seller has been created, updated or deleted.
+ *
+ * @param sellerId identifier of the seller
+ */
+public record SellerChangedEvent(Long sellerId) {
+}
@@ -0,0 +1,16 @@
+package org.nikolait.crmsystem.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when a chunk of transactions has been completed in one database transaction.
+ *
+ * @param transactionDate completion date shared by all transactions of the chunk
+ * @param completions     the completed transactions
+ */
+public record TransactionBatchCompletedEvent(
+        LocalDateTime transactionDate,
+        List<TransactionCompletedEvent> completions
+) {
+}
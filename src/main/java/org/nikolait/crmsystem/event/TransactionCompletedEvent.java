@@ -0,0 +1,18 @@
+package org.nikolait.crmsystem.event;
+
+import org.nikolait.crmsystem.model.enums.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published when a transaction moves from PENDING to COMPLETED.
+ */
+public record TransactionCompletedEvent(
+        Long transactionId,
+        Long sellerId,
+        BigDecimal amount,
+        LocalDateTime transactionDate,
+        PaymentType paymentType
+) {
+}
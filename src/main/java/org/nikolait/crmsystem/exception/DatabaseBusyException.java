@@ -0,0 +1,13 @@
+package org.nikolait.crmsystem.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+public class DatabaseBusyException extends SQLTransientConnectionException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+
+    public DatabaseBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
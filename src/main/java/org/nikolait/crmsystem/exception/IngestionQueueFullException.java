@@ -0,0 +1,7 @@
+package org.nikolait.crmsystem.exception;
+
+public class IngestionQueueFullException extends RuntimeException {
+    public IngestionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -2,12 +2,18 @@ package org.nikolait.crmsystem.exception.handler;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.nikolait.crmsystem.exception.DatabaseBusyException;
+import org.nikolait.crmsystem.exception.IngestionQueueFullException;
 import org.nikolait.crmsystem.exception.InvalidTransactionException;
 import org.nikolait.crmsystem.exception.InvalidSellerException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.ErrorResponse;
@@ -79,6 +85,27 @@ public class ControllerExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ErrorResponse handleDatabaseUnavailableException(RuntimeException ex) {
+        DatabaseBusyException busy = ExceptionUtils.throwableOfType(ex, DatabaseBusyException.class);
+        ErrorResponse.Builder builder = ErrorResponse.builder(ex, HttpStatus.SERVICE_UNAVAILABLE, "Database is unavailable")
+                .type(URI.create(ex.getClass().getSimpleName()));
+        if (busy != null) {
+            builder.type(URI.create(busy.getClass().getSimpleName()))
+                    .detail(busy.getMessage())
+                    .header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return builder.build();
+    }
+
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ErrorResponse handleIngestionQueueFullException(IngestionQueueFullException ex) {
+        return ErrorResponse.builder(ex, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage())
+                .type(URI.create(ex.getClass().getSimpleName()))
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
     private Map<String, String> extractFieldErrors(BindException ex) {
         return ex.getBindingResult().getFieldErrors().stream()
                 .collect(Collectors.toUnmodifiableMap(
@@ -0,0 +1,155 @@
+package org.nikolait.crmsystem.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.nikolait.crmsystem.exception.DatabaseBusyException;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source that lets at most {@code maxConcurrent} connections be checked out at once.
+ *
+ * <p>Callers over the limit wait in a fair queue of at most {@code maxWaiting} entries for up to
+ * {@code acquireTimeout}; callers that do not fit into the queue or do not get a permit in time fail
+ * with {@link DatabaseBusyException}. A permit is returned when the connection is closed. Permits
+ * in use, queued callers, wait times and rejections are published as {@code db.permits.*} metrics.</p>
+ */
+public class PermitLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final Timer acquireTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public PermitLimitedDataSource(DataSource target,
+                                   int maxConcurrent,
+                                   int maxWaiting,
+                                   Duration acquireTimeout,
+                                   MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        Gauge.builder("db.permits.active", this, ds -> ds.maxConcurrent - ds.permits.availablePermits())
+                .description("Connections currently checked out through the permit limiter")
+                .register(meterRegistry);
+        Gauge.builder("db.permits.waiting", waiting, AtomicInteger::get)
+                .description("Callers waiting for a database permit")
+                .register(meterRegistry);
+        this.acquireTimer = Timer.builder("db.permits.acquire")
+                .description("Time spent waiting for a database permit")
+                .register(meterRegistry);
+        this.queueFullRejections = rejections("queue_full", meterRegistry);
+        this.timeoutRejections = rejections("timeout", meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        return releasingOnClose(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        return releasingOnClose(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    int waitingCallers() {
+        return waiting.get();
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            queueFullRejections.increment();
+            throw new DatabaseBusyException("Too many callers waiting for a database connection");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeoutRejections.increment();
+                throw new DatabaseBusyException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+            acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection releasingOnClose(ConnectionSupplier supplier) throws SQLException {
+        Connection target;
+        try {
+            target = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> target;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    private static Counter rejections(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("db.permits.rejected")
+                .description("Callers rejected by the database permit limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
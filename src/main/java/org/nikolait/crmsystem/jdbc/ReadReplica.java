@@ -0,0 +1,100 @@
+package org.nikolait.crmsystem.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Connection pool of a read replica together with its measured replication lag.
+ *
+ * <p>The replica is usable while it is reachable and, if {@code maxLag} is set, no further behind the
+ * primary than that. The state is refreshed by {@link #checkLag()} and published as the
+ * {@code db.replica.lag} and {@code db.replica.usable} gauges.</p>
+ */
+@Slf4j
+public class ReadReplica implements Closeable {
+
+    /**
+     * Replay delay of a standby; zero when it has replayed everything it received, so that an idle primary
+     * does not look like lag, and on a server that is not a standby at all.
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END
+            """;
+
+    private final DataSource dataSource;
+    private final Duration maxLag;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReadReplica(DataSource dataSource, Duration maxLag, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.maxLag = maxLag;
+        Gauge.builder("db.replica.lag", this, replica -> replica.lagSeconds)
+                .description("Replication lag of the read replica, NaN if unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, replica -> replica.usable ? 1 : 0)
+                .description("Whether read-only transactions are currently served by the read replica")
+                .register(meterRegistry);
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Measures the replication lag and decides whether the replica may serve reads until the next check.
+     */
+    public void checkLag() {
+        boolean wasUsable = usable;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+            resultSet.next();
+            double lag = resultSet.getDouble(1);
+            boolean known = !resultSet.wasNull();
+
+            lagSeconds = known ? lag : Double.NaN;
+            usable = maxLag == null || known && lag * 1000 <= maxLag.toMillis();
+        } catch (SQLException ex) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Read replica is unreachable, reading from the primary", ex);
+            }
+            return;
+        }
+
+        if (wasUsable && !usable) {
+            log.warn("Read replica lags {} s behind the primary, reading from the primary", lagSeconds);
+        } else if (!wasUsable && usable) {
+            log.info("Read replica is serving read-only transactions");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
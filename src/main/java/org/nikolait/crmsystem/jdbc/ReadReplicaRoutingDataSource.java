@@ -0,0 +1,49 @@
+package org.nikolait.crmsystem.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Data source that serves read-only transactions from a {@link ReadReplica} and everything else from the primary.
+ *
+ * <p>The physical connection is only fetched by the first statement, after the transaction manager has marked
+ * the connection read-only, which decides where it comes from. Read-only transactions fall back to the primary
+ * while the replica is not {@linkplain ReadReplica#isUsable() usable}. Reads outside a read-only transaction
+ * always go to the primary, so callers that must see their own writes simply do not declare
+ * {@code readOnly = true}.</p>
+ */
+public class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    public ReadReplicaRoutingDataSource(DataSource primary, ReadReplica replica) {
+        super(primary);
+        setReadOnlyDataSource(new ReplicaOrPrimary(primary, replica));
+    }
+
+    private static final class ReplicaOrPrimary extends DelegatingDataSource {
+
+        private final DataSource primary;
+        private final ReadReplica replica;
+
+        ReplicaOrPrimary(DataSource primary, ReadReplica replica) {
+            super(replica.dataSource());
+            this.primary = primary;
+            this.replica = replica;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return replica.isUsable() ? super.getConnection() : primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return replica.isUsable()
+                    ? super.getConnection(username, password)
+                    : primary.getConnection(username, password);
+        }
+    }
+}
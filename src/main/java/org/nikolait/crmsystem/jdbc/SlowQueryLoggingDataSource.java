@@ -0,0 +1,194 @@
+package org.nikolait.crmsystem.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Data source that reports statements running for at least {@code threshold}.
+ *
+ * <p>A slow statement is logged with its SQL, the Java types of its bind parameters (never their values),
+ * the number of batched rows and its duration, and is recorded in the {@code db.queries.slow} timer.
+ * Statements of every caller are covered, including the JDBC batches that bypass Hibernate.</p>
+ */
+@Slf4j
+public class SlowQueryLoggingDataSource extends DelegatingDataSource {
+
+    private final long thresholdNanos;
+    private final Timer slowQueries;
+    private final Consumer<SlowQuery> listener;
+
+    public SlowQueryLoggingDataSource(DataSource target, Duration threshold, MeterRegistry meterRegistry) {
+        this(target, threshold, meterRegistry, SlowQueryLoggingDataSource::logSlowQuery);
+    }
+
+    SlowQueryLoggingDataSource(DataSource target,
+                               Duration threshold,
+                               MeterRegistry meterRegistry,
+                               Consumer<SlowQuery> listener) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.listener = listener;
+        this.slowQueries = Timer.builder("db.queries.slow")
+                .description("Statements that ran for at least the slow query threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timingStatements(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timingStatements(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * A statement that exceeded the threshold.
+     *
+     * @param sql            statement text; for a plain batch, the last statement added
+     * @param parameterTypes Java types of the bind parameters of the last bound row, by position
+     * @param batchSize      number of rows or statements executed as one batch; {@code 0} if not batched
+     * @param duration       execution time
+     */
+    public record SlowQuery(String sql, List<String> parameterTypes, int batchSize, Duration duration) {
+    }
+
+    private Connection timingStatements(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> target;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "prepareStatement", "prepareCall" ->
+                            timing((Statement) invoke(target, method, args), (String) args[0], (Connection) proxy);
+                    case "createStatement" -> timing((Statement) invoke(target, method, args), null, (Connection) proxy);
+                    default -> invoke(target, method, args);
+                });
+    }
+
+    private Statement timing(Statement target, String sql, Connection connection) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                SlowQueryLoggingDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                new TimingHandler(target, sql, connection));
+    }
+
+    private void report(SlowQuery query) {
+        slowQueries.record(query.duration().toNanos(), TimeUnit.NANOSECONDS);
+        listener.accept(query);
+    }
+
+    private static void logSlowQuery(SlowQuery query) {
+        log.warn("Slow query took {} ms, batch of {}, parameters {}: {}",
+                query.duration().toMillis(),
+                query.batchSize(),
+                query.parameterTypes(),
+                query.sql() == null ? null : query.sql().replaceAll("\\s+", " ").strip());
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Records bind parameter types and batch size of one statement and times its executions.
+     * Like the statement itself, it is used by one thread at a time.
+     */
+    private final class TimingHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final Connection connection;
+        private final Map<Integer, String> parameterTypes = new TreeMap<>();
+        private String sql;
+        private int batchSize;
+
+        TimingHandler(Statement target, String sql, Connection connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "clearParameters" -> parameterTypes.clear();
+                case "addBatch" -> {
+                    batchSize++;
+                    if (args != null && args[0] instanceof String batchSql) {
+                        sql = batchSql;
+                    }
+                }
+                case "clearBatch" -> batchSize = 0;
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        parameterTypes.put(index, name.equals("setNull") || args[1] == null
+                                ? "null"
+                                : args[1].getClass().getSimpleName());
+                    }
+                }
+            }
+
+            if (!name.startsWith("execute")) {
+                return SlowQueryLoggingDataSource.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return SlowQueryLoggingDataSource.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= thresholdNanos) {
+                    report(new SlowQuery(
+                            args != null && args.length > 0 && args[0] instanceof String executed ? executed : sql,
+                            List.copyOf(parameterTypes.values()),
+                            name.equals("executeBatch") || name.equals("executeLargeBatch") ? batchSize : 0,
+                            Duration.ofNanos(elapsed)
+                    ));
+                }
+                if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                    batchSize = 0;
+                }
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.nikolait.crmsystem.mapper;
 import org.mapstruct.*;
 import org.nikolait.crmsystem.dto.SellerCreateRequest;
 import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.SellerSummaryResponse;
 import org.nikolait.crmsystem.dto.SellerUpdateRequest;
 import org.nikolait.crmsystem.model.Seller;
 
@@ -15,6 +16,8 @@ public interface SellerMapper {
 
     SellerResponse toResponse(Seller seller);
 
+    SellerSummaryResponse toSummaryResponse(Seller seller);
+
     Seller toEntity(SellerCreateRequest request);
 
     void patchFromRequest(SellerUpdateRequest request, @MappingTarget Seller seller);
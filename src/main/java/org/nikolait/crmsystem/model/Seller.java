@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -16,8 +17,15 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "id")
 public class Seller {
 
+    /**
+     * Number of ids reserved by one call of {@code sellers_id_seq}; must match its {@code INCREMENT BY}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sellers_id_seq")
+    @SequenceGenerator(name = "sellers_id_seq", sequenceName = "sellers_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -33,4 +41,22 @@ public class Seller {
     @Column(nullable = false)
     private boolean deleted;
 
+    /**
+     * Number of completed transactions. This and the following summary fields are maintained in SQL
+     * together with the sales rollups and are never written through the entity, so saving a seller
+     * cannot overwrite them.
+     */
+    @Column(name = "completed_count", insertable = false, updatable = false)
+    private long completedCount;
+
+    @Builder.Default
+    @Column(name = "completed_amount", insertable = false, updatable = false)
+    private BigDecimal completedAmount = BigDecimal.ZERO;
+
+    @Column(name = "first_transaction_date", insertable = false, updatable = false)
+    private LocalDateTime firstTransactionDate;
+
+    @Column(name = "last_transaction_date", insertable = false, updatable = false)
+    private LocalDateTime lastTransactionDate;
+
 }
@@ -19,8 +19,15 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "id")
 public class Transaction {
 
+    /**
+     * Number of ids reserved by one call of {@code transactions_id_seq}; must match its {@code INCREMENT BY}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_seq")
+    @SequenceGenerator(name = "transactions_id_seq", sequenceName = "transactions_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,7 +46,7 @@ public class Transaction {
     private TransactionStatus status;
 
     @CreationTimestamp
-    @Column(name = "created_at", nullable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "transaction_date", nullable = false)
@@ -0,0 +1,20 @@
+package org.nikolait.crmsystem.model.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface SalesRollupMismatchProjection {
+    String getGranularity();
+
+    Long getSellerId();
+
+    LocalDate getPeriodStart();
+
+    Long getRollupCount();
+
+    BigDecimal getRollupAmount();
+
+    Long getActualCount();
+
+    BigDecimal getActualAmount();
+}
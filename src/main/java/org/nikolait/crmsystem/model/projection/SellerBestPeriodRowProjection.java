@@ -0,0 +1,5 @@
+package org.nikolait.crmsystem.model.projection;
+
+public interface SellerBestPeriodRowProjection extends SellerBestPeriodProjection {
+    Long getSellerId();
+}
@@ -0,0 +1,12 @@
+package org.nikolait.crmsystem.model.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface SellerDailySalesProjection {
+    Long getSellerId();
+
+    LocalDateTime getPeriodStart();
+
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,9 @@
+package org.nikolait.crmsystem.model.projection;
+
+public interface SellerNameProjection {
+    Long getId();
+
+    String getName();
+
+    Boolean getDeleted();
+}
@@ -0,0 +1,11 @@
+package org.nikolait.crmsystem.model.projection;
+
+import java.math.BigDecimal;
+
+public interface SellerTotalsProjection {
+    Long getSellerId();
+
+    Long getTxCount();
+
+    BigDecimal getTotalAmount();
+}
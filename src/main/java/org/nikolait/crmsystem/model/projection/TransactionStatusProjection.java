@@ -0,0 +1,9 @@
+package org.nikolait.crmsystem.model.projection;
+
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+
+public interface TransactionStatusProjection {
+    Long getId();
+
+    TransactionStatus getStatus();
+}
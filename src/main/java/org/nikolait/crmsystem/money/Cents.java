@@ -0,0 +1,81 @@
+package org.nikolait.crmsystem.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money amounts as a {@code long} number of cents, for paths that add or write many amounts.
+ *
+ * <p>Amounts are stored as {@code NUMERIC(19,2)} and enter and leave the application as {@link BigDecimal};
+ * conversion at that boundary is exact and fails instead of rounding or wrapping around. A {@code long} holds
+ * every amount of up to 16 integer digits; the larger ones the column allows are reported as an overflow.
+ * Sums of cents are to be computed with {@link Math#addExact(long, long)}.</p>
+ */
+public final class Cents {
+
+    /**
+     * Maximum number of characters written by {@link #format(long, char[], int)}: a sign, 19 digits and a point.
+     */
+    public static final int MAX_LENGTH = 21;
+
+    private Cents() {
+    }
+
+    /**
+     * Converts an amount to cents.
+     *
+     * @param amount amount with at most two significant fraction digits; must not be {@code null}
+     * @return the amount in cents
+     * @throws ArithmeticException if the amount has a nonzero fraction of a cent or does not fit into a {@code long}
+     */
+    public static long of(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts cents to an amount of scale 2.
+     */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Writes cents as a plain decimal with two fraction digits, e.g. {@code -0.05} or {@code 1234.50},
+     * without allocating.
+     *
+     * @param buffer target with at least {@link #MAX_LENGTH} characters from {@code offset}
+     * @return the number of characters written
+     */
+    public static int format(long cents, char[] buffer, int offset) {
+        // works on the negative value, which also covers Long.MIN_VALUE
+        long remaining = cents < 0 ? cents : -cents;
+
+        int end = offset + MAX_LENGTH;
+        int position = end;
+        for (int i = 0; i < 2; i++) {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (cents < 0) {
+            buffer[--position] = '-';
+        }
+
+        int length = end - position;
+        System.arraycopy(buffer, position, buffer, offset, length);
+        return length;
+    }
+
+    /**
+     * Returns cents as a plain decimal with two fraction digits, like {@link BigDecimal#toPlainString()}
+     * of {@link #toAmount(long)}.
+     */
+    public static String toString(long cents) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(cents, buffer, 0));
+    }
+}
@@ -0,0 +1,26 @@
+package org.nikolait.crmsystem.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@code long} number of cents as a JSON number with two fraction digits, the same text Jackson writes
+ * for the equivalent {@link java.math.BigDecimal}, without creating one or an intermediate string.
+ *
+ * <p>Used with {@code @JsonSerialize(using = CentsSerializer.class)} on amounts held in cents.</p>
+ */
+public class CentsSerializer extends StdSerializer<Long> {
+
+    public CentsSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long cents, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[Cents.MAX_LENGTH];
+        generator.writeNumber(buffer, 0, Cents.format(cents, buffer, 0));
+    }
+}
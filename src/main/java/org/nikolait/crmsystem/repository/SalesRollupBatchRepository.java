@@ -0,0 +1,23 @@
+package org.nikolait.crmsystem.repository;
+
+import org.nikolait.crmsystem.dto.TransactionResponse;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Set-based rollup maintenance for transactions completed in bulk.
+ */
+public interface SalesRollupBatchRepository {
+
+    /**
+     * Adds the given completed transactions to the daily, monthly and yearly rollups and to the lifetime
+     * summaries of their sellers in one statement.
+     *
+     * <p>Amounts are summed per seller before the upsert, so each rollup and seller row is touched once.</p>
+     *
+     * @param transactionDate completion date shared by all transactions; must not be {@code null}
+     * @param completed       completed transactions; must not be {@code null}
+     */
+    void addCompletedTransactions(LocalDateTime transactionDate, Collection<TransactionResponse> completed);
+}
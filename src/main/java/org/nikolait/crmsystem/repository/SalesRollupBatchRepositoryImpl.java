@@ -0,0 +1,85 @@
+package org.nikolait.crmsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.money.Cents;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class SalesRollupBatchRepositoryImpl implements SalesRollupBatchRepository {
+
+    private static final String ADD_COMPLETED_SQL = """
+            WITH totals AS (
+                SELECT t.seller_id, t.tx_count, t.total_amount
+                FROM unnest(?, ?, ?) AS t (seller_id, tx_count, total_amount)
+            ),
+            daily AS (
+                INSERT INTO seller_sales_daily AS r (seller_id, period_start, tx_count, total_amount)
+                SELECT seller_id, ?, tx_count, total_amount FROM totals
+                ON CONFLICT (seller_id, period_start) DO UPDATE
+                    SET tx_count     = r.tx_count + EXCLUDED.tx_count,
+                        total_amount = r.total_amount + EXCLUDED.total_amount
+            ),
+            monthly AS (
+                INSERT INTO seller_sales_monthly AS r (seller_id, period_start, tx_count, total_amount)
+                SELECT seller_id, ?, tx_count, total_amount FROM totals
+                ON CONFLICT (seller_id, period_start) DO UPDATE
+                    SET tx_count     = r.tx_count + EXCLUDED.tx_count,
+                        total_amount = r.total_amount + EXCLUDED.total_amount
+            ),
+            seller AS (
+                UPDATE sellers s
+                SET completed_count        = s.completed_count + t.tx_count,
+                    completed_amount       = s.completed_amount + t.total_amount,
+                    first_transaction_date = LEAST(s.first_transaction_date, CAST(? AS TIMESTAMP)),
+                    last_transaction_date  = GREATEST(s.last_transaction_date, CAST(? AS TIMESTAMP))
+                FROM totals t
+                WHERE s.id = t.seller_id
+            )
+            INSERT INTO seller_sales_yearly AS r (seller_id, period_start, tx_count, total_amount)
+            SELECT seller_id, ?, tx_count, total_amount FROM totals
+            ON CONFLICT (seller_id, period_start) DO UPDATE
+                SET tx_count     = r.tx_count + EXCLUDED.tx_count,
+                    total_amount = r.total_amount + EXCLUDED.total_amount
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addCompletedTransactions(LocalDateTime transactionDate, Collection<TransactionResponse> completed) {
+        if (completed.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        Map<Long, Long> cents = new LinkedHashMap<>();
+        for (TransactionResponse transaction : completed) {
+            counts.merge(transaction.sellerId(), 1L, Long::sum);
+            cents.merge(transaction.sellerId(), Cents.of(transaction.amount()), Math::addExact);
+        }
+        BigDecimal[] amounts = cents.values().stream().map(Cents::toAmount).toArray(BigDecimal[]::new);
+
+        LocalDate day = transactionDate.toLocalDate();
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ADD_COMPLETED_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", counts.keySet().toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", counts.values().toArray()));
+            ps.setArray(3, con.createArrayOf("numeric", amounts));
+            ps.setObject(4, day);
+            ps.setObject(5, day.withDayOfMonth(1));
+            ps.setObject(6, transactionDate);
+            ps.setObject(7, transactionDate);
+            ps.setObject(8, day.withDayOfYear(1));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,520 @@
+package org.nikolait.crmsystem.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.nikolait.crmsystem.model.Transaction;
+import org.nikolait.crmsystem.model.projection.SalesRollupMismatchProjection;
+import org.nikolait.crmsystem.model.projection.SellerBestPeriodProjection;
+import org.nikolait.crmsystem.model.projection.SellerBestPeriodRowProjection;
+import org.nikolait.crmsystem.model.projection.SellerDailySalesProjection;
+import org.nikolait.crmsystem.model.projection.SellerSalesProjection;
+import org.nikolait.crmsystem.model.projection.SellerTotalsProjection;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Queries over the daily, monthly and yearly per-seller rollups of completed transactions.
+ */
+public interface SalesRollupRepository extends Repository<Transaction, Long>, SalesRollupBatchRepository {
+
+    /**
+     * Adds one completed transaction to the daily, monthly and yearly rollups and to the lifetime
+     * summary of its seller in one statement.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH daily AS (
+                INSERT INTO seller_sales_daily AS r (seller_id, period_start, tx_count, total_amount)
+                VALUES (:sellerId, CAST(:transactionDate AS DATE), 1, :amount)
+                ON CONFLICT (seller_id, period_start) DO UPDATE
+                    SET tx_count     = r.tx_count + 1,
+                        total_amount = r.total_amount + EXCLUDED.total_amount
+            ),
+            monthly AS (
+                INSERT INTO seller_sales_monthly AS r (seller_id, period_start, tx_count, total_amount)
+                VALUES (:sellerId, CAST(date_trunc('month', CAST(:transactionDate AS TIMESTAMP)) AS DATE), 1, :amount)
+                ON CONFLICT (seller_id, period_start) DO UPDATE
+                    SET tx_count     = r.tx_count + 1,
+                        total_amount = r.total_amount + EXCLUDED.total_amount
+            ),
+            seller AS (
+                UPDATE sellers s
+                SET completed_count        = s.completed_count + 1,
+                    completed_amount       = s.completed_amount + :amount,
+                    first_transaction_date = LEAST(s.first_transaction_date, CAST(:transactionDate AS TIMESTAMP)),
+                    last_transaction_date  = GREATEST(s.last_transaction_date, CAST(:transactionDate AS TIMESTAMP))
+                WHERE s.id = :sellerId
+            )
+            INSERT INTO seller_sales_yearly AS r (seller_id, period_start, tx_count, total_amount)
+            VALUES (:sellerId, CAST(date_trunc('year', CAST(:transactionDate AS TIMESTAMP)) AS DATE), 1, :amount)
+            ON CONFLICT (seller_id, period_start) DO UPDATE
+                SET tx_count     = r.tx_count + 1,
+                    total_amount = r.total_amount + EXCLUDED.total_amount
+            """,
+            nativeQuery = true)
+    int addCompletedTransaction(
+            Long sellerId,
+            LocalDateTime transactionDate,
+            BigDecimal amount
+    );
+
+    /**
+     * Returns the {@code limit} sellers with the highest totals for {@code [from, to)}, plus any
+     * sellers tied with the last of them, ordered by total descending and then by seller id.
+     * Only the selected rows are joined with {@code sellers}.
+     */
+    @Query(value = """
+            SELECT s.id             AS sellerId,
+                   s.name           AS sellerName,
+                   top.total_amount AS totalAmount
+            FROM (
+                SELECT r.seller_id,
+                       SUM(r.total_amount) AS total_amount
+                FROM seller_sales_daily r
+                WHERE r.period_start >= :from
+                  AND r.period_start < :to
+                GROUP BY r.seller_id
+                ORDER BY total_amount DESC
+                FETCH FIRST (:limit) ROWS WITH TIES
+            ) top
+            JOIN sellers s ON s.id = top.seller_id
+            ORDER BY top.total_amount DESC, s.id
+            """,
+            nativeQuery = true)
+    List<SellerSalesProjection> findTopSellersFromDaily(LocalDate from, LocalDate to, int limit);
+
+    @Query(value = """
+            SELECT s.id             AS sellerId,
+                   s.name           AS sellerName,
+                   top.total_amount AS totalAmount
+            FROM (
+                SELECT r.seller_id,
+                       SUM(r.total_amount) AS total_amount
+                FROM seller_sales_monthly r
+                WHERE r.period_start >= :from
+                  AND r.period_start < :to
+                GROUP BY r.seller_id
+                ORDER BY total_amount DESC
+                FETCH FIRST (:limit) ROWS WITH TIES
+            ) top
+            JOIN sellers s ON s.id = top.seller_id
+            ORDER BY top.total_amount DESC, s.id
+            """,
+            nativeQuery = true)
+    List<SellerSalesProjection> findTopSellersFromMonthly(LocalDate from, LocalDate to, int limit);
+
+    @Query(value = """
+            SELECT s.id             AS sellerId,
+                   s.name           AS sellerName,
+                   top.total_amount AS totalAmount
+            FROM (
+                SELECT r.seller_id,
+                       SUM(r.total_amount) AS total_amount
+                FROM seller_sales_yearly r
+                WHERE r.period_start >= :from
+                  AND r.period_start < :to
+                GROUP BY r.seller_id
+                ORDER BY total_amount DESC
+                FETCH FIRST (:limit) ROWS WITH TIES
+            ) top
+            JOIN sellers s ON s.id = top.seller_id
+            ORDER BY top.total_amount DESC, s.id
+            """,
+            nativeQuery = true)
+    List<SellerSalesProjection> findTopSellersFromYearly(LocalDate from, LocalDate to, int limit);
+
+    /**
+     * Sums whole days {@code [firstDay, lastDay)} from the daily rollup and the partial days
+     * {@code [from, firstDay)} and {@code [lastDay, to]} from raw transactions.
+     */
+    @Query(value = """
+            SELECT s.id          AS sellerId,
+                   s.name        AS sellerName,
+                   SUM(x.amount) AS totalAmount
+            FROM (
+                SELECT r.seller_id, r.total_amount AS amount
+                FROM seller_sales_daily r
+                WHERE r.period_start >= :firstDay
+                  AND r.period_start < :lastDay
+                UNION ALL
+                SELECT t.seller_id, t.amount
+                FROM transactions t
+                WHERE t.status = 'COMPLETED'
+                  AND ((t.transaction_date >= :from AND t.transaction_date < :firstDay)
+                    OR (t.transaction_date >= :lastDay AND t.transaction_date <= :to))
+            ) x
+            JOIN sellers s ON s.id = x.seller_id
+            GROUP BY s.id, s.name
+            HAVING SUM(x.amount) < :maxTotal
+            ORDER BY totalAmount ASC
+            """,
+            nativeQuery = true)
+    List<SellerSalesProjection> findSellersWithTotalAmountLessThan(
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDate firstDay,
+            LocalDate lastDay,
+            BigDecimal maxTotal
+    );
+
+    @Query(value = """
+            SELECT date_trunc(:unit, CAST(r.period_start AS TIMESTAMP)) AS periodStart,
+                   CAST(SUM(r.tx_count) AS BIGINT)                      AS txCount,
+                   SUM(r.total_amount)                                  AS totalAmount
+            FROM seller_sales_daily r
+            WHERE r.seller_id = :sellerId
+            GROUP BY periodStart
+            ORDER BY totalAmount DESC, periodStart
+            LIMIT 1
+            """,
+            nativeQuery = true)
+    SellerBestPeriodProjection findBestPeriodFromDaily(Long sellerId, String unit);
+
+    @Query(value = """
+            SELECT date_trunc(:unit, CAST(r.period_start AS TIMESTAMP)) AS periodStart,
+                   CAST(SUM(r.tx_count) AS BIGINT)                      AS txCount,
+                   SUM(r.total_amount)                                  AS totalAmount
+            FROM seller_sales_monthly r
+            WHERE r.seller_id = :sellerId
+            GROUP BY periodStart
+            ORDER BY totalAmount DESC, periodStart
+            LIMIT 1
+            """,
+            nativeQuery = true)
+    SellerBestPeriodProjection findBestPeriodFromMonthly(Long sellerId, String unit);
+
+    @Query(value = """
+            SELECT CAST(r.period_start AS TIMESTAMP) AS periodStart,
+                   r.tx_count                        AS txCount,
+                   r.total_amount                    AS totalAmount
+            FROM seller_sales_yearly r
+            WHERE r.seller_id = :sellerId
+            ORDER BY r.total_amount DESC, r.period_start
+            LIMIT 1
+            """,
+            nativeQuery = true)
+    SellerBestPeriodProjection findBestPeriodFromYearly(Long sellerId);
+
+    /**
+     * Returns ids of up to {@code limit} active sellers with completed sales whose id is greater than
+     * {@code afterId}, in ascending order.
+     */
+    @Query(value = """
+            SELECT s.id
+            FROM sellers s
+            WHERE s.deleted = false
+              AND s.id > :afterId
+              AND EXISTS (SELECT 1 FROM seller_sales_yearly r WHERE r.seller_id = s.id)
+            ORDER BY s.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<Long> findSellerIdsWithSalesAfter(long afterId, int limit);
+
+    /**
+     * Same as {@link #findSellerIdsWithSalesAfter(long, int)}, restricted to the given sellers.
+     */
+    @Query(value = """
+            SELECT s.id
+            FROM sellers s
+            WHERE s.deleted = false
+              AND s.id IN (:sellerIds)
+              AND s.id > :afterId
+              AND EXISTS (SELECT 1 FROM seller_sales_yearly r WHERE r.seller_id = s.id)
+            ORDER BY s.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<Long> findSellerIdsWithSalesAfter(Collection<Long> sellerIds, long afterId, int limit);
+
+    /**
+     * Returns the best period of each of the given sellers in one pass over their daily rollup rows,
+     * ordered by seller id. Ties are resolved in favour of the earliest period, as in
+     * {@link #findBestPeriodFromDaily(Long, String)}.
+     */
+    @Query(value = """
+            SELECT b.sellerId, b.periodStart, b.txCount, b.totalAmount
+            FROM (SELECT p.*,
+                         ROW_NUMBER() OVER (PARTITION BY p.sellerId
+                                            ORDER BY p.totalAmount DESC, p.periodStart) AS rn
+                  FROM (SELECT r.seller_id                                          AS sellerId,
+                               date_trunc(:unit, CAST(r.period_start AS TIMESTAMP)) AS periodStart,
+                               CAST(SUM(r.tx_count) AS BIGINT)                      AS txCount,
+                               SUM(r.total_amount)                                  AS totalAmount
+                        FROM seller_sales_daily r
+                        WHERE r.seller_id IN (:sellerIds)
+                        GROUP BY r.seller_id, periodStart) p) b
+            WHERE b.rn = 1
+            ORDER BY b.sellerId
+            """,
+            nativeQuery = true)
+    List<SellerBestPeriodRowProjection> findBestPeriodsFromDaily(Collection<Long> sellerIds, String unit);
+
+    @Query(value = """
+            SELECT b.sellerId, b.periodStart, b.txCount, b.totalAmount
+            FROM (SELECT p.*,
+                         ROW_NUMBER() OVER (PARTITION BY p.sellerId
+                                            ORDER BY p.totalAmount DESC, p.periodStart) AS rn
+                  FROM (SELECT r.seller_id                                          AS sellerId,
+                               date_trunc(:unit, CAST(r.period_start AS TIMESTAMP)) AS periodStart,
+                               CAST(SUM(r.tx_count) AS BIGINT)                      AS txCount,
+                               SUM(r.total_amount)                                  AS totalAmount
+                        FROM seller_sales_monthly r
+                        WHERE r.seller_id IN (:sellerIds)
+                        GROUP BY r.seller_id, periodStart) p) b
+            WHERE b.rn = 1
+            ORDER BY b.sellerId
+            """,
+            nativeQuery = true)
+    List<SellerBestPeriodRowProjection> findBestPeriodsFromMonthly(Collection<Long> sellerIds, String unit);
+
+    @Query(value = """
+            SELECT b.sellerId, b.periodStart, b.txCount, b.totalAmount
+            FROM (SELECT r.seller_id                       AS sellerId,
+                         CAST(r.period_start AS TIMESTAMP) AS periodStart,
+                         r.tx_count                        AS txCount,
+                         r.total_amount                    AS totalAmount,
+                         ROW_NUMBER() OVER (PARTITION BY r.seller_id
+                                            ORDER BY r.total_amount DESC, r.period_start) AS rn
+                  FROM seller_sales_yearly r
+                  WHERE r.seller_id IN (:sellerIds)) b
+            WHERE b.rn = 1
+            ORDER BY b.sellerId
+            """,
+            nativeQuery = true)
+    List<SellerBestPeriodRowProjection> findBestPeriodsFromYearly(Collection<Long> sellerIds);
+
+    /**
+     * Returns the count and total of completed transactions of every seller with sales on days in {@code [from, to)}.
+     */
+    @Query(value = """
+            SELECT r.seller_id                     AS sellerId,
+                   CAST(SUM(r.tx_count) AS BIGINT) AS txCount,
+                   SUM(r.total_amount)             AS totalAmount
+            FROM seller_sales_daily r
+            WHERE r.period_start >= :from
+              AND r.period_start < :to
+            GROUP BY r.seller_id
+            """,
+            nativeQuery = true)
+    List<SellerTotalsProjection> sumDailyBySeller(LocalDate from, LocalDate to);
+
+    /**
+     * Returns the count and total of completed transactions of one seller on days in {@code [from, to)},
+     * or nothing if the seller has no sales in that range.
+     */
+    @Query(value = """
+            SELECT r.seller_id                     AS sellerId,
+                   CAST(SUM(r.tx_count) AS BIGINT) AS txCount,
+                   SUM(r.total_amount)             AS totalAmount
+            FROM seller_sales_daily r
+            WHERE r.seller_id = :sellerId
+              AND r.period_start >= :from
+              AND r.period_start < :to
+            GROUP BY r.seller_id
+            """,
+            nativeQuery = true)
+    Optional<SellerTotalsProjection> sumDailyForSeller(Long sellerId, LocalDate from, LocalDate to);
+
+    /**
+     * Streams every row of the daily rollup; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+            SELECT r.seller_id                       AS sellerId,
+                   CAST(r.period_start AS TIMESTAMP) AS periodStart,
+                   r.total_amount                    AS totalAmount
+            FROM seller_sales_daily r
+            """,
+            nativeQuery = true)
+    Stream<SellerDailySalesProjection> streamDaily();
+
+    /**
+     * Takes an exclusive lock on all rollup tables so that concurrent completions wait
+     * until a rebuild is committed.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            LOCK TABLE seller_sales_daily, seller_sales_monthly, seller_sales_yearly IN EXCLUSIVE MODE
+            """,
+            nativeQuery = true)
+    void lockRollups();
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM seller_sales_daily", nativeQuery = true)
+    int deleteDaily();
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM seller_sales_monthly", nativeQuery = true)
+    int deleteMonthly();
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM seller_sales_yearly", nativeQuery = true)
+    int deleteYearly();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO seller_sales_daily (seller_id, period_start, tx_count, total_amount)
+            SELECT t.seller_id,
+                   CAST(t.transaction_date AS DATE),
+                   COUNT(*),
+                   SUM(t.amount)
+            FROM transactions t
+            WHERE t.status = 'COMPLETED'
+              AND t.transaction_date IS NOT NULL
+            GROUP BY t.seller_id, CAST(t.transaction_date AS DATE)
+            """,
+            nativeQuery = true)
+    int rebuildDaily();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO seller_sales_monthly (seller_id, period_start, tx_count, total_amount)
+            SELECT d.seller_id,
+                   CAST(date_trunc('month', d.period_start) AS DATE),
+                   SUM(d.tx_count),
+                   SUM(d.total_amount)
+            FROM seller_sales_daily d
+            GROUP BY d.seller_id, CAST(date_trunc('month', d.period_start) AS DATE)
+            """,
+            nativeQuery = true)
+    int rebuildMonthly();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO seller_sales_yearly (seller_id, period_start, tx_count, total_amount)
+            SELECT m.seller_id,
+                   CAST(date_trunc('year', m.period_start) AS DATE),
+                   SUM(m.tx_count),
+                   SUM(m.total_amount)
+            FROM seller_sales_monthly m
+            GROUP BY m.seller_id, CAST(date_trunc('year', m.period_start) AS DATE)
+            """,
+            nativeQuery = true)
+    int rebuildYearly();
+
+    /**
+     * Recalculates the lifetime summary of every seller from completed transactions.
+     *
+     * @return number of sellers whose summary differed and was corrected
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE sellers s
+            SET completed_count        = COALESCE(a.tx_count, 0),
+                completed_amount       = COALESCE(a.total_amount, 0),
+                first_transaction_date = a.first_date,
+                last_transaction_date  = a.last_date
+            FROM sellers x
+            LEFT JOIN (
+                SELECT t.seller_id,
+                       COUNT(*)                AS tx_count,
+                       SUM(t.amount)           AS total_amount,
+                       MIN(t.transaction_date) AS first_date,
+                       MAX(t.transaction_date) AS last_date
+                FROM transactions t
+                WHERE t.status = 'COMPLETED'
+                  AND t.transaction_date IS NOT NULL
+                GROUP BY t.seller_id
+            ) a ON a.seller_id = x.id
+            WHERE x.id = s.id
+              AND (s.completed_count, s.completed_amount, s.first_transaction_date, s.last_transaction_date)
+                  IS DISTINCT FROM
+                  (COALESCE(a.tx_count, 0), COALESCE(a.total_amount, 0), a.first_date, a.last_date)
+            """,
+            nativeQuery = true)
+    int rebuildSellerSummaries();
+
+    @Query(value = """
+            WITH actual AS (
+                SELECT t.seller_id,
+                       CAST(t.transaction_date AS DATE) AS day,
+                       COUNT(*)                         AS tx_count,
+                       SUM(t.amount)                    AS total_amount
+                FROM transactions t
+                WHERE t.status = 'COMPLETED'
+                  AND t.transaction_date IS NOT NULL
+                GROUP BY t.seller_id, CAST(t.transaction_date AS DATE)
+            ),
+            actual_monthly AS (
+                SELECT a.seller_id,
+                       CAST(date_trunc('month', a.day) AS DATE) AS period_start,
+                       SUM(a.tx_count)                          AS tx_count,
+                       SUM(a.total_amount)                      AS total_amount
+                FROM actual a
+                GROUP BY a.seller_id, CAST(date_trunc('month', a.day) AS DATE)
+            ),
+            actual_yearly AS (
+                SELECT a.seller_id,
+                       CAST(date_trunc('year', a.day) AS DATE) AS period_start,
+                       SUM(a.tx_count)                         AS tx_count,
+                       SUM(a.total_amount)                     AS total_amount
+                FROM actual a
+                GROUP BY a.seller_id, CAST(date_trunc('year', a.day) AS DATE)
+            )
+            SELECT 'DAY'                                              AS granularity,
+                   COALESCE(r.seller_id, a.seller_id)                 AS sellerId,
+                   COALESCE(r.period_start, a.day)                    AS periodStart,
+                   CAST(COALESCE(r.tx_count, 0) AS BIGINT)            AS rollupCount,
+                   COALESCE(r.total_amount, 0)                        AS rollupAmount,
+                   CAST(COALESCE(a.tx_count, 0) AS BIGINT)            AS actualCount,
+                   COALESCE(a.total_amount, 0)                        AS actualAmount
+            FROM seller_sales_daily r
+            FULL JOIN actual a
+                ON a.seller_id = r.seller_id AND a.day = r.period_start
+            WHERE r.tx_count IS DISTINCT FROM a.tx_count
+               OR r.total_amount IS DISTINCT FROM a.total_amount
+            UNION ALL
+            SELECT 'MONTH',
+                   COALESCE(r.seller_id, a.seller_id),
+                   COALESCE(r.period_start, a.period_start),
+                   CAST(COALESCE(r.tx_count, 0) AS BIGINT),
+                   COALESCE(r.total_amount, 0),
+                   CAST(COALESCE(a.tx_count, 0) AS BIGINT),
+                   COALESCE(a.total_amount, 0)
+            FROM seller_sales_monthly r
+            FULL JOIN actual_monthly a
+                ON a.seller_id = r.seller_id AND a.period_start = r.period_start
+            WHERE r.tx_count IS DISTINCT FROM a.tx_count
+               OR r.total_amount IS DISTINCT FROM a.total_amount
+            UNION ALL
+            SELECT 'YEAR',
+                   COALESCE(r.seller_id, a.seller_id),
+                   COALESCE(r.period_start, a.period_start),
+                   CAST(COALESCE(r.tx_count, 0) AS BIGINT),
+                   COALESCE(r.total_amount, 0),
+                   CAST(COALESCE(a.tx_count, 0) AS BIGINT),
+                   COALESCE(a.total_amount, 0)
+            FROM seller_sales_yearly r
+            FULL JOIN actual_yearly a
+                ON a.seller_id = r.seller_id AND a.period_start = r.period_start
+            WHERE r.tx_count IS DISTINCT FROM a.tx_count
+               OR r.total_amount IS DISTINCT FROM a.total_amount
+            ORDER BY granularity, sellerId, periodStart
+            """,
+            nativeQuery = true)
+    List<SalesRollupMismatchProjection> findMismatches();
+}
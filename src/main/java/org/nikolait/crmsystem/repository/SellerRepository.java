@@ -1,16 +1,51 @@
 package org.nikolait.crmsystem.repository;
 
 import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.model.projection.SellerNameProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SellerRepository extends JpaRepository<Seller, Long> {
 
     Optional<Seller> findByIdAndDeletedFalse(Long id);
 
+    /**
+     * Hashes the columns shown in the seller summary; the name comes last so that its content cannot
+     * be mistaken for one of the other columns.
+     */
+    @Query(value = """
+            SELECT md5(concat_ws('|', s.completed_count, s.completed_amount, s.first_transaction_date,
+                                 s.last_transaction_date, s.name))
+            FROM sellers s
+            WHERE s.id = :id
+              AND s.deleted = false
+            """,
+            nativeQuery = true)
+    Optional<String> findSummaryVersionById(Long id);
+
     Page<Seller> findAllByDeletedFalse(Pageable pageable);
 
+    @Query("SELECT s.id AS id, s.name AS name, s.deleted AS deleted FROM Seller s")
+    List<SellerNameProjection> findAllNames();
+
+    @Query("SELECT s.id AS id, s.name AS name, s.deleted AS deleted FROM Seller s WHERE s.id IN (:ids)")
+    List<SellerNameProjection> findNamesByIdIn(Collection<Long> ids);
+
+    List<Seller> findAllByIdInAndDeletedFalse(Collection<Long> ids);
+
+    @Query("""
+            SELECT s FROM Seller s
+            WHERE s.deleted = false
+              AND s.id > :afterId
+            ORDER BY s.id
+            """)
+    List<Seller> findActiveAfter(long afterId, Limit limit);
+
 }
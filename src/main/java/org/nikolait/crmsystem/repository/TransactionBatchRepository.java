@@ -0,0 +1,45 @@
+package org.nikolait.crmsystem.repository;
+
+import org.nikolait.crmsystem.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Bulk write operations on transactions that bypass the per-entity persistence path.
+ */
+public interface TransactionBatchRepository {
+
+    /**
+     * Inserts new transactions using JDBC batches.
+     *
+     * <p>Identifiers are allocated from the {@code transactions} sequence in a single round trip
+     * before the insert (see {@link #allocateIds(int)}), so that every row can be sent in a batch. The allocated {@code id} and
+     * {@code createdAt} are written back into the given instances.</p>
+     *
+     * @param transactions transactions to insert, each with a seller set; must not be {@code null}
+     */
+    void insertPending(List<Transaction> transactions);
+
+    /**
+     * Allocates identifiers from the {@code transactions} sequence in a single round trip.
+     *
+     * <p>Identifiers are reserved in blocks of {@link Transaction#ID_ALLOCATION_SIZE}, so they never collide
+     * with those handed out by Hibernate; unused ids of the last block are skipped.</p>
+     *
+     * @param count number of identifiers to allocate; must be positive
+     * @return allocated identifiers in ascending order
+     */
+    List<Long> allocateIds(int count);
+
+    /**
+     * Inserts transactions whose {@code id} and {@code createdAt} were assigned in advance,
+     * skipping those whose {@code id} is already stored, so that a batch can be written more than once.
+     *
+     * <p>The ids must come from {@link #allocateIds(int)}: the partitioned table enforces id uniqueness
+     * only within a partition and relies on the sequence for the rest.</p>
+     *
+     * @param transactions transactions to insert, each with a seller set; must not be {@code null}
+     * @return number of inserted rows
+     */
+    int insertAllocated(List<Transaction> transactions);
+}
@@ -0,0 +1,103 @@
+package org.nikolait.crmsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.config.TransactionBatchProperties;
+import org.nikolait.crmsystem.model.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransactionBatchRepositoryImpl implements TransactionBatchRepository {
+
+    private static final String ALLOCATE_IDS_SQL = """
+            SELECT nextval('transactions_id_seq')
+            FROM generate_series(1, ?)
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO transactions (id, seller_id, amount, payment_type, status, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_IF_ABSENT_SQL = """
+            INSERT INTO transactions (id, seller_id, amount, payment_type, status, created_at)
+            SELECT CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS NUMERIC),
+                   CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS TIMESTAMP)
+            WHERE NOT EXISTS (SELECT 1 FROM transactions WHERE id = CAST(? AS BIGINT))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionBatchProperties batchProperties;
+
+    @Override
+    public void insertPending(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = allocateIds(transactions.size());
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            transaction.setId(ids.get(i));
+            transaction.setCreatedAt(createdAt);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, batchProperties.jdbcBatchSize(), (ps, transaction) -> {
+            ps.setLong(1, transaction.getId());
+            ps.setLong(2, transaction.getSeller().getId());
+            ps.setBigDecimal(3, transaction.getAmount());
+            ps.setString(4, transaction.getPaymentType().name());
+            ps.setString(5, transaction.getStatus().name());
+            ps.setTimestamp(6, Timestamp.valueOf(transaction.getCreatedAt()));
+        });
+    }
+
+    /**
+     * Every {@code nextval} reserves the {@link Transaction#ID_ALLOCATION_SIZE} ids ending at the returned
+     * value, the same way Hibernate's pooled optimizer does, so only one call per block is needed.
+     */
+    @Override
+    public List<Long> allocateIds(int count) {
+        int blocks = Math.ceilDiv(count, Transaction.ID_ALLOCATION_SIZE);
+        List<Long> blockEnds = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Long end : blockEnds) {
+            for (long id = end - Transaction.ID_ALLOCATION_SIZE + 1; id <= end && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public int insertAllocated(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(
+                INSERT_IF_ABSENT_SQL, transactions, batchProperties.jdbcBatchSize(), (ps, transaction) -> {
+                    ps.setLong(1, transaction.getId());
+                    ps.setLong(2, transaction.getSeller().getId());
+                    ps.setBigDecimal(3, transaction.getAmount());
+                    ps.setString(4, transaction.getPaymentType().name());
+                    ps.setString(5, transaction.getStatus().name());
+                    ps.setTimestamp(6, Timestamp.valueOf(transaction.getCreatedAt()));
+                    ps.setLong(7, transaction.getId());
+                });
+
+        return Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> count == Statement.SUCCESS_NO_INFO ? 1 : count)
+                .sum();
+    }
+}
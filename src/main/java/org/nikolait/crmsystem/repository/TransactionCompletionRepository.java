@@ -0,0 +1,59 @@
+package org.nikolait.crmsystem.repository;
+
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Status transitions of transactions performed as single conditional statements.
+ */
+public interface TransactionCompletionRepository {
+
+    /**
+     * Moves a transaction from PENDING to COMPLETED in one conditional {@code UPDATE ... RETURNING}.
+     *
+     * <p>Concurrent calls for the same transaction are serialized by the row lock: exactly one of
+     * them sees the PENDING row and updates it. The others either update nothing or, if the database
+     * reports the conflict as a serialization failure, throw a {@link PessimisticLockingFailureException}
+     * and leave the enclosing transaction rollback-only; callers must re-read the status in a new
+     * transaction and treat that the same as updating nothing.</p>
+     *
+     * @param id              identifier of the transaction; must not be {@code null}
+     * @param transactionDate completion date to set; must not be {@code null}
+     * @return the completed transaction, or an empty optional if no PENDING transaction with this id exists
+     */
+    Optional<TransactionResponse> completePending(Long id, LocalDateTime transactionDate);
+
+    /**
+     * Moves every PENDING transaction among {@code ids} to COMPLETED in one statement.
+     *
+     * @param ids             identifiers of the transactions; must not be {@code null}
+     * @param transactionDate completion date to set; must not be {@code null}
+     * @return the transactions that were completed by this call, in no particular order
+     */
+    List<TransactionResponse> completePending(Collection<Long> ids, LocalDateTime transactionDate);
+
+    /**
+     * Completes up to {@code limit} PENDING transactions of a seller created in {@code [createdFrom, createdTo)},
+     * lowest ids first. Rows locked by a concurrent completion are skipped rather than waited for,
+     * so a call may complete fewer than {@code limit} rows while matching PENDING rows remain.
+     *
+     * @param sellerId        identifier of the seller; must not be {@code null}
+     * @param createdFrom     inclusive lower bound of {@code createdAt}; must not be {@code null}
+     * @param createdTo       exclusive upper bound of {@code createdAt}; must not be {@code null}
+     * @param transactionDate completion date to set; must not be {@code null}
+     * @param limit           maximum number of transactions to complete
+     * @return the transactions that were completed by this call, in no particular order
+     */
+    List<TransactionResponse> completePendingBySeller(
+            Long sellerId,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            LocalDateTime transactionDate,
+            int limit
+    );
+}
@@ -0,0 +1,108 @@
+package org.nikolait.crmsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class TransactionCompletionRepositoryImpl implements TransactionCompletionRepository {
+
+    private static final String COMPLETE_PENDING_SQL = """
+            UPDATE transactions
+            SET status           = 'COMPLETED',
+                transaction_date = ?
+            WHERE id = ?
+              AND status = 'PENDING'
+            RETURNING id, seller_id, amount, payment_type, transaction_date, status, created_at
+            """;
+
+    private static final String COMPLETE_PENDING_BY_IDS_SQL = """
+            UPDATE transactions
+            SET status           = 'COMPLETED',
+                transaction_date = ?
+            WHERE id = ANY (?)
+              AND status = 'PENDING'
+            RETURNING id, seller_id, amount, payment_type, transaction_date, status, created_at
+            """;
+
+    private static final String COMPLETE_PENDING_BY_SELLER_SQL = """
+            UPDATE transactions
+            SET status           = 'COMPLETED',
+                transaction_date = ?
+            WHERE id IN (
+                SELECT p.id
+                FROM transactions p
+                WHERE p.seller_id = ?
+                  AND p.status = 'PENDING'
+                  AND p.created_at >= ?
+                  AND p.created_at < ?
+                ORDER BY p.id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+              AND status = 'PENDING'
+            RETURNING id, seller_id, amount, payment_type, transaction_date, status, created_at
+            """;
+
+    private static final RowMapper<TransactionResponse> RESPONSE_MAPPER = (rs, rowNum) -> new TransactionResponse(
+            rs.getLong("id"),
+            rs.getLong("seller_id"),
+            rs.getBigDecimal("amount"),
+            PaymentType.valueOf(rs.getString("payment_type")),
+            rs.getTimestamp("transaction_date").toLocalDateTime(),
+            TransactionStatus.valueOf(rs.getString("status")),
+            rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<TransactionResponse> completePending(Long id, LocalDateTime transactionDate) {
+        return jdbcTemplate.query(COMPLETE_PENDING_SQL, RESPONSE_MAPPER, Timestamp.valueOf(transactionDate), id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<TransactionResponse> completePending(Collection<Long> ids, LocalDateTime transactionDate) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(COMPLETE_PENDING_BY_IDS_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(transactionDate));
+            ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, RESPONSE_MAPPER);
+    }
+
+    @Override
+    public List<TransactionResponse> completePendingBySeller(
+            Long sellerId,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            LocalDateTime transactionDate,
+            int limit
+    ) {
+        return jdbcTemplate.query(
+                COMPLETE_PENDING_BY_SELLER_SQL,
+                RESPONSE_MAPPER,
+                Timestamp.valueOf(transactionDate),
+                sellerId,
+                Timestamp.valueOf(createdFrom),
+                Timestamp.valueOf(createdTo),
+                limit
+        );
+    }
+}
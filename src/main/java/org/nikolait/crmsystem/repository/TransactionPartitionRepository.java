@@ -0,0 +1,24 @@
+package org.nikolait.crmsystem.repository;
+
+import org.nikolait.crmsystem.model.Transaction;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Maintenance of the monthly partitions of the {@code transactions} table.
+ */
+public interface TransactionPartitionRepository extends Repository<Transaction, Long> {
+
+    /**
+     * Creates the partition for the month containing {@code month}, moving rows of that month
+     * out of the default partition.
+     *
+     * @return {@code true} if the partition was created, {@code false} if it already existed
+     */
+    @Transactional
+    @Query(value = "SELECT create_transactions_partition(:month)", nativeQuery = true)
+    boolean createMonthlyPartition(LocalDate month);
+}
@@ -1,36 +1,128 @@
 package org.nikolait.crmsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.nikolait.crmsystem.dto.TransactionExportRow;
+import org.nikolait.crmsystem.dto.TransactionResponse;
 import org.nikolait.crmsystem.model.Transaction;
-import org.nikolait.crmsystem.model.projection.SellerBestPeriodProjection;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
 import org.nikolait.crmsystem.model.projection.SellerSalesProjection;
+import org.nikolait.crmsystem.model.projection.TransactionStatusProjection;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>,
+        TransactionBatchRepository, TransactionCompletionRepository {
 
     Page<Transaction> findAllBySellerId(Long sellerId, Pageable pageable);
 
+    @Query("SELECT t.id AS id, t.status AS status FROM Transaction t WHERE t.id IN :ids")
+    List<TransactionStatusProjection> findStatusesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT t.status FROM Transaction t WHERE t.id = :id")
+    Optional<TransactionStatus> findStatusById(Long id);
+
     @Query("""
-            SELECT t.seller.id AS sellerId,
-                   t.seller.name AS sellerName,
-                   SUM(t.amount) AS totalAmount
+            SELECT t FROM Transaction t
+            WHERE t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<Transaction> findAllAfter(long afterId, Limit limit);
+
+    @Query("""
+            SELECT t FROM Transaction t
+            WHERE t.seller.id = :sellerId
+              AND t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<Transaction> findAllBySellerIdAfter(Long sellerId, long afterId, Limit limit);
+
+    @Query(value = """
+            SELECT t.*
+            FROM transactions t
+            WHERE (t.transaction_date, t.id) > (:afterDate, :afterId)
+            ORDER BY t.transaction_date, t.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<Transaction> findAllByTransactionDateAfter(LocalDateTime afterDate, long afterId, int limit);
+
+    @Query(value = """
+            SELECT t.*
+            FROM transactions t
+            WHERE t.seller_id = :sellerId
+              AND (t.transaction_date, t.id) > (:afterDate, :afterId)
+            ORDER BY t.transaction_date, t.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<Transaction> findAllBySellerIdAndTransactionDateAfter(
+            Long sellerId,
+            LocalDateTime afterDate,
+            long afterId,
+            int limit
+    );
+
+    /**
+     * Streams transactions for export with amounts in cents, converted by the database, which fails the query
+     * rather than truncate an amount that does not fit; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new org.nikolait.crmsystem.dto.TransactionExportRow(
+                       t.id, t.seller.id, CAST(t.amount * 100 AS Long), t.paymentType, t.transactionDate,
+                       t.status, t.createdAt)
             FROM Transaction t
-            WHERE t.status = 'COMPLETED'
-              AND t.transactionDate BETWEEN :from AND :to
-            GROUP BY t.seller.id, t.seller.name
-            ORDER BY totalAmount DESC
+            WHERE (:sellerId IS NULL OR t.seller.id = :sellerId)
+              AND (:status IS NULL OR t.status = :status)
+              AND (:from IS NULL OR t.transactionDate >= :from)
+              AND (:to IS NULL OR t.transactionDate < :to)
+            ORDER BY t.id
             """)
-    List<SellerSalesProjection> findTopSellersByPeriod(
+    Stream<TransactionExportRow> streamForExport(
+            Long sellerId,
+            TransactionStatus status,
             LocalDateTime from,
             LocalDateTime to
     );
 
+    /**
+     * Streams completed transactions dated at or after {@code from} in date order;
+     * must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new org.nikolait.crmsystem.dto.TransactionResponse(
+                       t.id, t.seller.id, t.amount, t.paymentType, t.transactionDate, t.status, t.createdAt)
+            FROM Transaction t
+            WHERE t.status = 'COMPLETED'
+              AND t.transactionDate >= :from
+            ORDER BY t.transactionDate
+            """)
+    Stream<TransactionResponse> streamCompletedSince(LocalDateTime from);
+
+    /**
+     * Sums completed transactions of {@code [from, to]} straight from the table; used by
+     * {@code SellerAnalyticsService.getSellersWithTotalLessThan} for ranges that contain no whole day,
+     * which the daily rollup cannot serve.
+     */
     @Query("""
             SELECT t.seller.id AS sellerId,
                    t.seller.name AS sellerName,
@@ -47,22 +139,4 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             LocalDateTime to,
             BigDecimal maxTotal
     );
-
-    @Query(value = """
-            SELECT
-                date_trunc(:unit, t.transaction_date) AS periodStart,
-                COUNT(*)                              AS txCount,
-                SUM(t.amount)                         AS totalAmount
-            FROM transactions t
-            WHERE t.seller_id = :sellerId
-              AND t.status = 'COMPLETED'
-            GROUP BY periodStart
-            ORDER BY totalAmount DESC
-            LIMIT 1
-            """,
-            nativeQuery = true)
-    SellerBestPeriodProjection findBestPeriodForSeller(
-            Long sellerId,
-            String unit
-    );
 }
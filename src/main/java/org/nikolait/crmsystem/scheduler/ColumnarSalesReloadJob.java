@@ -0,0 +1,32 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.service.ColumnarSalesService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Loads the columnar copy of recent completed transactions on startup and reloads it periodically and after
+ * the rollups have been rebuilt, so that periods closed since the last load are answered from it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ColumnarSalesReloadJob {
+
+    private final ColumnarSalesService columnarSalesService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.analytics.columnar.reload-cron}")
+    public void reload() {
+        columnarSalesService.reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesRollupsRebuilt(SalesRollupsRebuiltEvent event) {
+        columnarSalesService.reload();
+    }
+}
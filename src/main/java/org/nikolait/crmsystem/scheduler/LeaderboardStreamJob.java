@@ -0,0 +1,26 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.service.LeaderboardStreamService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes coalesced leaderboard updates to stream subscribers and keeps their connections checked.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardStreamJob {
+
+    private final LeaderboardStreamService leaderboardStreamService;
+
+    @Scheduled(fixedDelayString = "${app.analytics.leaderboard.push-interval}")
+    public void publishChanges() {
+        leaderboardStreamService.publishChanges();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.leaderboard.heartbeat-interval}")
+    public void sendHeartbeats() {
+        leaderboardStreamService.sendHeartbeats();
+    }
+}
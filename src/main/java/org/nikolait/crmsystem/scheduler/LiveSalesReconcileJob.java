@@ -0,0 +1,28 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.service.LiveSalesService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds the live sales counters on startup and then periodically replaces them with the rollup totals,
+ * so that completions committed by other instances show up within one interval.
+ */
+@Component
+@RequiredArgsConstructor
+public class LiveSalesReconcileJob {
+
+    private final LiveSalesService liveSalesService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${app.analytics.live.reconcile-interval}",
+            initialDelayString = "${app.analytics.live.reconcile-interval}"
+    )
+    public void reconcile() {
+        liveSalesService.reconcile();
+    }
+}
@@ -0,0 +1,27 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.jdbc.ReadReplica;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically measures the replication lag of the read replica, so that read-only transactions
+ * move to the primary while the replica is behind or unreachable, and back once it has caught up.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.db.replica", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaLagCheckJob {
+
+    private final ReadReplica readReplica;
+
+    @Scheduled(
+            fixedDelayString = "${app.db.replica.lag-check-interval}",
+            initialDelayString = "${app.db.replica.lag-check-interval}"
+    )
+    public void check() {
+        readReplica.checkLag();
+    }
+}
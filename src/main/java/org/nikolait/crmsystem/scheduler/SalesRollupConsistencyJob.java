@@ -0,0 +1,38 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.dto.analytics.SalesRollupMismatchResponse;
+import org.nikolait.crmsystem.service.SalesRollupService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically compares the sales rollups with raw transaction totals and reports drift.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRollupConsistencyJob {
+
+    private static final int MAX_LOGGED_MISMATCHES = 20;
+
+    private final SalesRollupService salesRollupService;
+
+    @Scheduled(cron = "${app.rollups.consistency-check.cron}")
+    public void checkConsistency() {
+        List<SalesRollupMismatchResponse> mismatches = salesRollupService.findMismatches();
+
+        if (mismatches.isEmpty()) {
+            log.info("Sales rollups are consistent with raw transactions");
+            return;
+        }
+
+        log.warn("Sales rollups differ from raw transactions in {} rows", mismatches.size());
+        mismatches.stream()
+                .limit(MAX_LOGGED_MISMATCHES)
+                .forEach(m -> log.warn("Rollup mismatch: {}", m));
+    }
+}
@@ -0,0 +1,32 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.service.ApproximateAnalyticsService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Builds the sales sketches on startup and rebuilds them from the daily rollup periodically and after
+ * the rollups themselves have been rebuilt, so that completions committed by other instances are included.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesSketchRebuildJob {
+
+    private final ApproximateAnalyticsService approximateAnalyticsService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.analytics.sketches.rebuild-cron}")
+    public void rebuild() {
+        approximateAnalyticsService.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesRollupsRebuilt(SalesRollupsRebuiltEvent event) {
+        approximateAnalyticsService.rebuild();
+    }
+}
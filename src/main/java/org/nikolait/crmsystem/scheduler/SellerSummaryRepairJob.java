@@ -0,0 +1,30 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.service.SalesRollupService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recalculates the lifetime sales summaries of sellers from raw transactions
+ * and reports how many of them had drifted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SellerSummaryRepairJob {
+
+    private final SalesRollupService salesRollupService;
+
+    @Scheduled(cron = "${app.rollups.seller-summary-repair.cron}")
+    public void repair() {
+        int repaired = salesRollupService.rebuildSellerSummaries();
+
+        if (repaired == 0) {
+            log.info("Seller sales summaries are consistent with raw transactions");
+        } else {
+            log.warn("Repaired sales summaries of {} sellers", repaired);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.service.TransactionIngestionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the write-behind queue into the database at a fixed delay. The journal left by a previous
+ * run has already been replayed by the time the first run starts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.transactions.ingestion.write-behind", havingValue = "true")
+public class TransactionIngestionFlushJob {
+
+    private final TransactionIngestionService transactionIngestionService;
+
+    @Scheduled(fixedDelayString = "${app.transactions.ingestion.flush-interval}")
+    public void flush() {
+        try {
+            transactionIngestionService.flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush queued transactions, retrying on the next run", e);
+        }
+    }
+}
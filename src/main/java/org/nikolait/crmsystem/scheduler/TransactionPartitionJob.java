@@ -0,0 +1,31 @@
+package org.nikolait.crmsystem.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.service.TransactionPartitionService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates transaction partitions ahead of time, on startup and then periodically, so that
+ * completed transactions never fall into the default partition.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionJob {
+
+    private final TransactionPartitionService transactionPartitionService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.transactions.partitions.cron}")
+    public void createUpcomingPartitions() {
+        int created = transactionPartitionService.createUpcomingPartitions();
+
+        if (created > 0) {
+            log.info("Created {} transaction partitions", created);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.nikolait.crmsystem.service;
+
+import org.nikolait.crmsystem.dto.analytics.ApproximateSellersResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Approximate seller analytics answered from in-memory sales sketches instead of the rollup tables.
+ *
+ * <p>One sketch is kept per day, month and year. A range is covered by whole years, whole months and the
+ * remaining days, so the work per query depends on the number of sellers and not on the length of the
+ * range. Sketches are updated when a completion commits in this instance; completions committed by other
+ * instances become visible after the next {@link #rebuild()}. Seller names are kept in memory as well and
+ * are read again after a seller changes in this instance and on every rebuild.</p>
+ */
+public interface ApproximateAnalyticsService {
+
+    /**
+     * Returns sellers whose estimated total completed transaction amount for the days touched by the
+     * interval is strictly less than {@code maxTotal}.
+     *
+     * <p>The interval is widened to whole days: from the start of the day of {@code from} to the end of
+     * the day of {@code to}. Estimated totals never fall below the true totals, so every returned seller
+     * qualifies; sellers whose true total lies within {@code errorBound} of {@code maxTotal} may be missing.
+     * Like the exact query, deleted sellers are included when they have sales in the range; unlike it,
+     * active sellers without sales in the range are returned with a zero total.</p>
+     *
+     * @param from     start of the interval; must not be {@code null}
+     * @param to       end of the interval; must not be {@code null}
+     * @param maxTotal exclusive upper bound for the estimated total; must not be {@code null}
+     * @return matching sellers together with the error bounds of the estimates
+     */
+    ApproximateSellersResponse getSellersWithTotalLessThan(
+            LocalDateTime from,
+            LocalDateTime to,
+            BigDecimal maxTotal
+    );
+
+    /**
+     * Replaces all sketches with sketches built from the daily sales rollup.
+     */
+    void rebuild();
+}
@@ -0,0 +1,36 @@
+package org.nikolait.crmsystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory columnar copy of the completed transactions of the last few months, scanned without the database.
+ *
+ * <p>The copy is loaded by {@link #reload()} and only answers for dates before the reload started, which it
+ * holds completely whichever instance committed them. Completions are not appended between reloads, so the
+ * current period is never answered from memory and is left to the rollups, as is any period still open at
+ * the last reload.</p>
+ */
+public interface ColumnarSalesService {
+
+    /**
+     * Sums completed transactions dated within {@code [from, to)} by seller.
+     *
+     * <p>Chunks of the copy are scanned in parallel. Both bounds must fall on whole minutes, the resolution
+     * of the stored dates.</p>
+     *
+     * @param from start of the interval, inclusive; must not be {@code null}
+     * @param to   end of the interval, exclusive; must not be {@code null}
+     * @return total amount by seller id for sellers with completions in the interval, or an empty optional
+     * if the copy is disabled, not loaded yet, does not reach back to {@code from} or was loaded before
+     * {@code to}
+     */
+    Optional<Map<Long, BigDecimal>> sumBySeller(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Replaces the copy with the completed transactions of the configured number of months read from the database.
+     */
+    void reload();
+}
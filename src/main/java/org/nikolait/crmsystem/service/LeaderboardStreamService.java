@@ -0,0 +1,43 @@
+package org.nikolait.crmsystem.service;
+
+import jakarta.validation.ValidationException;
+import org.nikolait.crmsystem.dto.analytics.LeaderboardUpdateResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the leaderboard of the current day, week or month to subscribers as Server-Sent Events.
+ *
+ * <p>Completions only discard the computed leaderboards; {@link #publishChanges()} recomputes each
+ * discarded leaderboard once for all of its subscribers and sends a {@code leaderboard} event with a
+ * {@link LeaderboardUpdateResponse} to every subscriber whose top places differ from what it last
+ * received. Subscriptions are held as asynchronous requests and do not occupy a thread.</p>
+ *
+ * <p>Events are written by a bounded pool of send threads, never by the caller. A subscriber gets only
+ * the latest update it has not received yet, and is dropped once a write to it takes longer than the
+ * send timeout or the pool's queue is full.</p>
+ */
+public interface LeaderboardStreamService {
+
+    /**
+     * Subscribes to the leaderboard of the current period and sends its current state right away.
+     *
+     * @param periodType {@link PeriodType#DAY}, {@link PeriodType#WEEK} or {@link PeriodType#MONTH}
+     * @param limit      number of top places to send, ties at the last place included; from 1 to 100
+     * @return emitter of the subscription
+     * @throws ValidationException if the period type is not supported
+     */
+    SseEmitter subscribe(PeriodType periodType, int limit);
+
+    /**
+     * Recomputes the leaderboards changed since the previous call or rolled over into a new period
+     * and hands them to the send threads for their subscribers.
+     */
+    void publishChanges();
+
+    /**
+     * Hands a comment for every subscriber to the send threads so that disconnected clients are
+     * detected and dropped.
+     */
+    void sendHeartbeats();
+}
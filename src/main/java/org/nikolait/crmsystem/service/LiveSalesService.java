@@ -0,0 +1,32 @@
+package org.nikolait.crmsystem.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.nikolait.crmsystem.dto.analytics.LiveSalesResponse;
+
+/**
+ * Per-seller sales counters for the current day, week and month, kept in memory for frequent polling.
+ *
+ * <p>Counters are incremented when a completion commits in this instance. Completions committed by
+ * other instances become visible after the next {@link #reconcile()}, which replaces the counters
+ * with the totals stored in the daily sales rollup.</p>
+ */
+public interface LiveSalesService {
+
+    /**
+     * Returns the number and total amount of completed transactions of a seller for the current day,
+     * week and month.
+     *
+     * <p>A seller that is not held in memory yet is loaded from the daily sales rollup.</p>
+     *
+     * @param sellerId identifier of the seller; must not be {@code null}
+     * @return counters of the current periods
+     * @throws EntityNotFoundException if the seller does not exist or is deleted
+     */
+    LiveSalesResponse getCurrentTotals(Long sellerId);
+
+    /**
+     * Replaces all counters with the totals of the current periods stored in the daily sales rollup
+     * and drops counters of periods that have ended.
+     */
+    void reconcile();
+}
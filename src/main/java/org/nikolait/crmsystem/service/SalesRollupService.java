@@ -0,0 +1,43 @@
+package org.nikolait.crmsystem.service;
+
+import org.nikolait.crmsystem.dto.analytics.SalesRollupMismatchResponse;
+
+import java.util.List;
+
+/**
+ * Service for maintaining the per-seller sales rollups used by analytics.
+ *
+ * <p>Rollups hold the number and the total amount of completed transactions per seller
+ * for every day, month and year, and over the lifetime of the seller. They are updated
+ * incrementally on completion; this service covers the bulk operations around them.</p>
+ */
+public interface SalesRollupService {
+
+    /**
+     * Rebuilds all rollups from the completed transactions.
+     *
+     * <p>Existing rollup rows are replaced. Completions running concurrently wait until the
+     * rebuild is committed, so no increment is lost.</p>
+     *
+     * @return number of daily rollup rows written
+     */
+    int rebuild();
+
+    /**
+     * Recalculates the lifetime sales summary of every seller from the completed transactions.
+     *
+     * <p>Like {@link #rebuild()}, completions running concurrently wait until the repair is committed.
+     * {@link #rebuild()} repairs the summaries as well.</p>
+     *
+     * @return number of sellers whose summary was out of date and has been corrected
+     */
+    int rebuildSellerSummaries();
+
+    /**
+     * Compares every rollup row with the totals calculated from raw completed transactions.
+     *
+     * @return rows that differ from raw totals, including rows missing on either side;
+     * an empty list if the rollups are consistent
+     */
+    List<SalesRollupMismatchResponse> findMismatches();
+}
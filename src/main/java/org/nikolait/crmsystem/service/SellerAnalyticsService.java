@@ -1,13 +1,17 @@
 package org.nikolait.crmsystem.service;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
 import org.nikolait.crmsystem.dto.analytics.BestPeriodResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
 import org.nikolait.crmsystem.dto.analytics.SellerStatsResponse;
 import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +26,9 @@ public interface SellerAnalyticsService {
      * {@link PeriodType}. A seller is considered the most productive if the sum of all
      * their completed transactions within that period is greater than that of any other seller.</p>
      *
+     * <p>This is the first entry of {@link #getTopSellers(PeriodType, LocalDate, int)} with a limit
+     * of one; among tied sellers the one with the lowest id is returned.</p>
+     *
      * @param periodType the period definition used to calculate boundaries; must not be {@code null}
      * @param baseDate   the reference date for determining the period range; must not be {@code null}
      * @return statistics for the most productive seller for this period
@@ -29,12 +36,40 @@ public interface SellerAnalyticsService {
      */
     SellerStatsResponse getTopSeller(PeriodType periodType, LocalDate baseDate);
 
+    /**
+     * Returns the leaderboard of the most productive sellers for a period derived from {@code baseDate}.
+     *
+     * <p>Sellers are ranked by the sum of their completed transactions within the period, using
+     * competition ranking: tied sellers share a rank and the next rank is skipped accordingly.
+     * Sellers tied with the last of the top {@code limit} are included as well, so the result may
+     * be longer than {@code limit}.</p>
+     *
+     * <p>Totals are read from the daily, monthly or yearly sales rollups, whichever is the
+     * coarsest granularity the period consists of.</p>
+     *
+     * @param periodType the period definition used to calculate boundaries; must not be {@code null}
+     * @param baseDate   the reference date for determining the period range; must not be {@code null}
+     * @param limit      number of top places to return; must be positive
+     * @return ranked sellers, best first; an empty list if nobody sold anything in the period
+     */
+    List<SellerRankResponse> getTopSellers(PeriodType periodType, LocalDate baseDate, int limit);
+
+    /**
+     * Returns the end of the period of the given type that contains {@code baseDate}.
+     *
+     * @param periodType the period definition used to calculate boundaries; must not be {@code null}
+     * @param baseDate   the reference date for determining the period range; must not be {@code null}
+     * @return the start of the following period, i.e. the exclusive end of this one
+     */
+    LocalDateTime getPeriodEnd(PeriodType periodType, LocalDate baseDate);
+
     /**
      * Returns sellers whose total completed transaction amount for the specified time range
      * is strictly less than {@code maxTotal}.
      *
      * <p>The method does not infer any period semantics on its own; it works directly with
-     * the provided datetime interval.</p>
+     * the provided datetime interval. Whole days inside the interval are read from the daily
+     * sales rollup, partial days at its edges from raw transactions.</p>
      *
      * @param from     start of the interval; must not be {@code null}
      * @param to       end of the interval; must not be {@code null} and must be after {@code from}
@@ -53,7 +88,7 @@ public interface SellerAnalyticsService {
      * <p>All transactions of the seller are grouped into periods determined by {@link PeriodType}.
      * Among all such periods, the method selects the one with the highest total transaction amount.
      * The response also includes the number of transactions in that period and the calculated
-     * start and end boundaries of the period.</p>
+     * start and end boundaries of the period. Periods are built from the sales rollups.</p>
      *
      * @param sellerId   identifier of the seller; must not be {@code null}
      * @param periodType the type of period used to group transactions (e.g., DAY, MONTH); must not be {@code null}
@@ -61,4 +96,27 @@ public interface SellerAnalyticsService {
      * @throws EntityNotFoundException if the seller does not exist, is deleted, or has no completed transactions
      */
     BestPeriodResponse getBestPeriodForSeller(Long sellerId, PeriodType periodType);
+
+    /**
+     * Returns the most profitable period of the specified {@link PeriodType} for many sellers at once.
+     *
+     * <p>Sellers are listed by id, starting after the given cursor; deleted sellers and sellers without
+     * completed transactions are skipped. Each page is computed by a single window-function query over
+     * the sales rollups of the sellers on that page, so the cost of a page depends on the history of
+     * those sellers only. Periods are chosen as in {@link #getBestPeriodForSeller(Long, PeriodType)};
+     * among equally profitable periods the earliest one is returned.</p>
+     *
+     * @param periodType the type of period used to group transactions; must not be {@code null}
+     * @param sellerIds  sellers to restrict the listing to; {@code null} for all sellers
+     * @param after      cursor returned with the previous page; {@code null} for the first page
+     * @param size       maximum number of sellers to return; must be positive
+     * @return best periods and the cursor of the next page, which is {@code null} on the last page
+     * @throws ValidationException if {@code after} is not a valid cursor
+     */
+    CursorPageResponse<BestPeriodResponse> getBestPeriods(
+            PeriodType periodType,
+            Collection<Long> sellerIds,
+            String after,
+            int size
+    );
 }
@@ -1,8 +1,11 @@
 package org.nikolait.crmsystem.service;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
 import org.nikolait.crmsystem.dto.SellerCreateRequest;
 import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.SellerSummaryResponse;
 import org.nikolait.crmsystem.dto.SellerUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -21,6 +24,19 @@ public interface SellerService {
      */
     Page<SellerResponse> getAll(Pageable pageable);
 
+    /**
+     * Returns active (not deleted) sellers ordered by id, starting after the given cursor.
+     *
+     * <p>Unlike {@link #getAll(Pageable)}, no total count is calculated and the cost of a page
+     * does not depend on how far the client has paged.</p>
+     *
+     * @param after cursor returned with the previous page; {@code null} for the first page
+     * @param size  maximum number of sellers to return; must be positive
+     * @return sellers and the cursor of the next page, which is {@code null} on the last page
+     * @throws ValidationException if {@code after} is not a valid cursor
+     */
+    CursorPageResponse<SellerResponse> getAllAfter(String after, int size);
+
     /**
      * Returns a seller by its identifier.
      *
@@ -41,6 +57,32 @@ public interface SellerService {
      */
     SellerResponse getById(Long id);
 
+    /**
+     * Returns a seller together with the lifetime summary of its completed transactions.
+     *
+     * <p>The summary is stored with the seller and kept up to date on completion, so this is a single
+     * primary-key lookup. Unlike {@link #getById(Long)}, the result is never cached.</p>
+     *
+     * @param id seller identifier; must not be {@code null}
+     * @return {@link SellerSummaryResponse}
+     * @throws EntityNotFoundException if seller does not exist or is deleted
+     */
+    SellerSummaryResponse getSummary(Long id);
+
+    /**
+     * Returns a version of the seller summary that changes whenever {@link #getSummary(Long)} would
+     * return something else, read with a single scalar query.
+     *
+     * <p>Both are read from the primary even when a read replica is configured, so that a lagging
+     * replica cannot confirm a client's outdated copy or hand out an outdated one under a newer
+     * version.</p>
+     *
+     * @param id seller identifier; must not be {@code null}
+     * @return opaque version of the summary
+     * @throws EntityNotFoundException if seller does not exist or is deleted
+     */
+    String getSummaryVersion(Long id);
+
     /**
      * Creates a new seller.
      *
@@ -0,0 +1,30 @@
+package org.nikolait.crmsystem.service;
+
+import org.nikolait.crmsystem.dto.TransactionExportFilter;
+import org.nikolait.crmsystem.dto.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service for exporting transactions in bulk.
+ */
+public interface TransactionExportService {
+
+    /**
+     * Writes all transactions matching {@code filter} to {@code out}, ordered by id.
+     *
+     * <p>Rows are read through a forward-only database cursor and written one by one, so memory
+     * use does not depend on the size of the export. {@code filter.from()} is inclusive and
+     * {@code filter.to()} is exclusive; both apply to {@code transactionDate}. Every filter
+     * field may be {@code null}, in which case it is not applied.</p>
+     *
+     * <p>The stream is flushed but not closed.</p>
+     *
+     * @param filter criteria of exported transactions; must not be {@code null}
+     * @param format output format; must not be {@code null}
+     * @param out    target stream; must not be {@code null}
+     * @throws IOException if writing to {@code out} fails
+     */
+    void export(TransactionExportFilter filter, ExportFormat format, OutputStream out) throws IOException;
+}
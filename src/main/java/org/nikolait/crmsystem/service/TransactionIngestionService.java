@@ -0,0 +1,52 @@
+package org.nikolait.crmsystem.service;
+
+import org.nikolait.crmsystem.dto.TransactionCreateRequest;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.exception.IngestionQueueFullException;
+import org.nikolait.crmsystem.exception.InvalidSellerException;
+
+/**
+ * Write-behind ingestion of new transactions.
+ *
+ * <p>Accepted transactions are journaled to a local file and queued in memory; they become visible
+ * through {@link TransactionService} only after the next flush has written them to the database.</p>
+ */
+public interface TransactionIngestionService {
+
+    /**
+     * Accepts a new pending transaction without writing it to the database.
+     *
+     * <p>The identifier is taken from a block pre-allocated from the {@code transactions} sequence,
+     * so the returned response already carries the final {@code id}.</p>
+     *
+     * @param request transaction data; must be valid and not {@code null}
+     * @return the accepted transaction with status {@code PENDING}
+     * @throws InvalidSellerException       if the seller does not exist or is deleted
+     * @throws IngestionQueueFullException if the queue has no room for another transaction
+     */
+    TransactionResponse enqueuePending(TransactionCreateRequest request);
+
+    /**
+     * Writes queued transactions to the database in batches until the queue is empty, then truncates
+     * the journal if nothing accepted remains unwritten.
+     *
+     * <p>A batch that fails to be written is kept and retried first on the next call. Once it has
+     * failed {@code max-flush-attempts} times for a reason other than the database being unavailable,
+     * its transactions are written one by one and those still rejected are moved to the dead-letter
+     * file.</p>
+     *
+     * @return number of written transactions
+     */
+    int flush();
+
+    /**
+     * Writes transactions left in the journal by a previous run to the database. Runs on startup,
+     * before any transaction is accepted or flushed.
+     *
+     * <p>Transactions whose {@code id} is already stored are skipped, so replaying a journal whose
+     * entries were partially written is safe.</p>
+     *
+     * @return number of transactions inserted from the journal
+     */
+    int replayJournal();
+}
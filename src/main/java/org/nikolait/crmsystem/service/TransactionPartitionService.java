@@ -0,0 +1,32 @@
+package org.nikolait.crmsystem.service;
+
+import java.time.YearMonth;
+
+/**
+ * Service for maintaining the monthly partitions of transactions.
+ *
+ * <p>Transactions are range-partitioned by {@code transaction_date}. Rows whose month has no
+ * partition, including all rows without a date, are stored in the default partition. Completing a
+ * transaction moves its row out of the default partition. Ids are unique only because they all come
+ * from {@code transactions_id_seq}; each partition enforces them with its own unique index.</p>
+ */
+public interface TransactionPartitionService {
+
+    /**
+     * Makes sure partitions exist for the current month and the configured number of months ahead.
+     *
+     * @return number of partitions created
+     */
+    int createUpcomingPartitions();
+
+    /**
+     * Makes sure partitions exist for every month from {@code from} to {@code to} inclusive.
+     *
+     * <p>Rows of those months found in the default partition are moved into the new partitions.</p>
+     *
+     * @param from first month; must not be {@code null}
+     * @param to   last month; must not be {@code null} and must not be before {@code from}
+     * @return number of partitions created
+     */
+    int createPartitions(YearMonth from, YearMonth to);
+}
@@ -1,13 +1,22 @@
 package org.nikolait.crmsystem.service;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
+import org.nikolait.crmsystem.dto.TransactionBatchResponse;
+import org.nikolait.crmsystem.dto.TransactionCompletionResponse;
 import org.nikolait.crmsystem.dto.TransactionCreateRequest;
 import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
 import org.nikolait.crmsystem.exception.InvalidSellerException;
 import org.nikolait.crmsystem.exception.InvalidTransactionException;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Service for managing transactions.
  * Defines operations for retrieving, creating and completing transactions.
@@ -34,6 +43,25 @@ public interface TransactionService {
      */
     Page<TransactionResponse> getBySeller(Long sellerId, Pageable pageable);
 
+    /**
+     * Returns transactions in the given order, starting after the given cursor.
+     *
+     * <p>With {@link CursorOrder#ID} all transactions are listed. With
+     * {@link CursorOrder#TRANSACTION_DATE} transactions are ordered by {@code transactionDate}
+     * and then by id; transactions without a {@code transactionDate} are not listed.</p>
+     *
+     * <p>No total count is calculated and the cost of a page does not depend on how far
+     * the client has paged.</p>
+     *
+     * @param sellerId identifier of the seller to filter by; {@code null} for all sellers
+     * @param after    cursor returned with the previous page; {@code null} for the first page
+     * @param size     maximum number of transactions to return; must be positive
+     * @param order    listing order; must not be {@code null} and must match the cursor
+     * @return transactions and the cursor of the next page, which is {@code null} on the last page
+     * @throws ValidationException if {@code after} is not a valid cursor for {@code order}
+     */
+    CursorPageResponse<TransactionResponse> getAllAfter(Long sellerId, String after, int size, CursorOrder order);
+
     /**
      * Returns a transaction by its identifier.
      *
@@ -43,6 +71,19 @@ public interface TransactionService {
      */
     TransactionResponse getById(Long id);
 
+    /**
+     * Returns the status of a transaction without loading the transaction itself.
+     *
+     * <p>Like {@link #getById(Long)}, it is read from the primary even when a read replica is configured,
+     * so that a lagging replica cannot confirm a client's copy of a transaction that has since been
+     * completed, nor hand out a pending one as completed and therefore immutable.</p>
+     *
+     * @param id transaction identifier; must not be {@code null}
+     * @return current status of the transaction
+     * @throws EntityNotFoundException if transaction with the given id does not exist
+     */
+    TransactionStatus getStatus(Long id);
+
     /**
      * Creates a new transaction in PENDING status.
      *
@@ -56,6 +97,23 @@ public interface TransactionService {
      */
     TransactionResponse createPending(TransactionCreateRequest request);
 
+    /**
+     * Creates many transactions in PENDING status in one call.
+     *
+     * <p>Every item is validated on its own: items that fail bean validation or refer to a seller
+     * that does not exist or is deleted are rejected, while the remaining items are created.
+     * All referenced sellers are resolved with a single query and accepted items are written
+     * with batched inserts.</p>
+     *
+     * <p>The result contains one entry per request item, in the same order, with the created
+     * transaction or the reason of rejection.</p>
+     *
+     * @param requests items to create; must not be {@code null}, items may be {@code null}
+     * @return per-item results and totals of created and rejected items
+     * @throws ValidationException if the number of items exceeds the configured maximum
+     */
+    TransactionBatchResponse createPendingBatch(List<TransactionCreateRequest> requests);
+
     /**
      * Completes a pending transaction by its identifier.
      *
@@ -68,10 +126,52 @@ public interface TransactionService {
      * <p>On successful completion the transaction status is set to COMPLETED and
      * {@code transactionDate} is updated to the current date and time.</p>
      *
+     * <p>The status check and the update are a single conditional statement, so concurrent calls
+     * for the same transaction complete it exactly once; the other calls return it as already
+     * completed.</p>
+     *
      * @param id identifier of the transaction to complete; must not be {@code null}
      * @return updated {@link TransactionResponse} in COMPLETED status
      * @throws EntityNotFoundException     if transaction with the given id does not exist
      * @throws InvalidTransactionException if the transaction has a status that cannot be completed
      */
     TransactionResponse complete(Long id);
+
+    /**
+     * Completes many transactions by their identifiers.
+     *
+     * <p>Identifiers are processed in chunks; every chunk is completed with a single set-based
+     * update in its own database transaction, together with the sales rollups. Each identifier gets
+     * the outcome the single-item {@link #complete(Long)} would produce: PENDING transactions are
+     * completed, COMPLETED ones are reported as already completed, other statuses are rejected and
+     * unknown identifiers are reported as not found. Duplicate identifiers are processed once.</p>
+     *
+     * <p>A chunk that loses a row lock conflict with a concurrent completion is rolled back, split and
+     * completed again, so the conflict only changes the outcome of the rows the other call completed.</p>
+     *
+     * @param ids identifiers of the transactions to complete; must not be {@code null} or contain {@code null}
+     * @return counts per outcome and one item per distinct identifier, in request order
+     * @throws ValidationException if the number of identifiers exceeds the configured maximum
+     */
+    TransactionCompletionResponse completeAll(List<Long> ids);
+
+    /**
+     * Completes all PENDING transactions of a seller created within {@code [createdFrom, createdTo)}.
+     *
+     * <p>Transactions are completed in chunks, each in its own database transaction together with
+     * the sales rollups. A chunk that loses a row lock conflict with a concurrent completion is
+     * run again. Settlement ends once a chunk completes nothing, so a short chunk caused by a
+     * concurrent completion does not leave PENDING transactions behind. Only transactions completed
+     * by this call are listed in the response.</p>
+     *
+     * @param sellerId    identifier of the seller; must not be {@code null}
+     * @param createdFrom inclusive lower bound of the creation time; must not be {@code null}
+     * @param createdTo   exclusive upper bound of the creation time; must not be {@code null}
+     * @return counts per outcome and one item per completed transaction
+     */
+    TransactionCompletionResponse completeAllBySeller(
+            Long sellerId,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo
+    );
 }
@@ -0,0 +1,244 @@
+package org.nikolait.crmsystem.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.config.SalesSketchProperties;
+import org.nikolait.crmsystem.dto.analytics.ApproximateSellersResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerStatsResponse;
+import org.nikolait.crmsystem.event.SellerChangedEvent;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.model.projection.SellerDailySalesProjection;
+import org.nikolait.crmsystem.model.projection.SellerNameProjection;
+import org.nikolait.crmsystem.money.Cents;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
+import org.nikolait.crmsystem.repository.SellerRepository;
+import org.nikolait.crmsystem.service.ApproximateAnalyticsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ApproximateAnalyticsServiceImpl implements ApproximateAnalyticsService {
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SellerRepository sellerRepository;
+    private final SalesSketchProperties properties;
+
+    private volatile SketchIndex index;
+
+    /**
+     * Rebuild in progress; completions dated from its cutoff on are added to its index as well, since the
+     * rollup read may not see them.
+     */
+    private volatile Rebuild pending;
+
+    /**
+     * Names of all sellers, including deleted ones; {@code null} until loaded and after a seller changed.
+     */
+    private volatile List<SellerNameProjection> sellerNames;
+
+    /**
+     * Number of seller changes seen, guarded by {@link #sellerNamesLock}, so that names loaded before a
+     * change are not cached after it.
+     */
+    private long sellerChanges;
+
+    private final Object sellerNamesLock = new Object();
+
+    public ApproximateAnalyticsServiceImpl(
+            SalesRollupRepository salesRollupRepository,
+            SellerRepository sellerRepository,
+            SalesSketchProperties properties
+    ) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.sellerRepository = sellerRepository;
+        this.properties = properties;
+        this.index = new SketchIndex();
+    }
+
+    @Override
+    public ApproximateSellersResponse getSellersWithTotalLessThan(
+            LocalDateTime from,
+            LocalDateTime to,
+            BigDecimal maxTotal
+    ) {
+        LocalDate fromDay = from.toLocalDate();
+        LocalDate toDay = to.toLocalDate().plusDays(1);
+
+        SalesSketch range = newSketch();
+        index.cover(fromDay, toDay).forEach(range::merge);
+
+        List<SellerStatsResponse> sellers = new ArrayList<>();
+        for (SellerNameProjection seller : sellerNames()) {
+            long estimateCents = range.estimateCents(seller.getId());
+            // Like the exact query, a deleted seller is reported only for its sales
+            if (seller.getDeleted() && estimateCents == 0) {
+                continue;
+            }
+            BigDecimal totalAmount = Cents.toAmount(estimateCents);
+            if (totalAmount.compareTo(maxTotal) < 0) {
+                sellers.add(new SellerStatsResponse(seller.getId(), seller.getName(), totalAmount));
+            }
+        }
+        sellers.sort(Comparator.comparing(SellerStatsResponse::totalAmount)
+                .thenComparing(SellerStatsResponse::sellerId));
+
+        long errorBoundCents = (long) Math.ceil(range.epsilon() * range.totalCents());
+        return new ApproximateSellersResponse(
+                fromDay,
+                toDay,
+                Cents.toAmount(errorBoundCents),
+                range.confidence(),
+                range.activeSellers(),
+                range.activeSellersError(),
+                sellers
+        );
+    }
+
+    /**
+     * Runs in its own transaction because it is also triggered after a rollup rebuild has committed,
+     * and the rollup rows are streamed, which needs an open transaction.
+     *
+     * <p>Completions dated before the cutoff, taken just before the rollups are read, are taken to be in
+     * the read and are not added again. A completion dated before the cutoff that commits only after the
+     * read has started is missed until the next rebuild.</p>
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void rebuild() {
+        SketchIndex rebuilt = new SketchIndex();
+        pending = new Rebuild(rebuilt, LocalDateTime.now());
+        try (Stream<SellerDailySalesProjection> rows = salesRollupRepository.streamDaily()) {
+            rows.forEach(row -> rebuilt.add(
+                    row.getPeriodStart().toLocalDate(),
+                    row.getSellerId(),
+                    Cents.of(row.getTotalAmount())
+            ));
+            index = rebuilt;
+        } finally {
+            pending = null;
+        }
+        // Picks up seller changes made through other instances
+        reloadSellerNames();
+        log.debug("Rebuilt sales sketches for {} days", rebuilt.days.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSellerChanged(SellerChangedEvent event) {
+        synchronized (sellerNamesLock) {
+            sellerChanges++;
+            sellerNames = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionCompleted(TransactionCompletedEvent event) {
+        add(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionBatchCompleted(TransactionBatchCompletedEvent event) {
+        event.completions().forEach(this::add);
+    }
+
+    private void add(TransactionCompletedEvent event) {
+        LocalDate day = event.transactionDate().toLocalDate();
+        long cents = Cents.of(event.amount());
+
+        index.add(day, event.sellerId(), cents);
+        Rebuild rebuilding = pending;
+        if (rebuilding != null && !event.transactionDate().isBefore(rebuilding.cutoff())) {
+            rebuilding.index().add(day, event.sellerId(), cents);
+        }
+    }
+
+    private List<SellerNameProjection> sellerNames() {
+        List<SellerNameProjection> names = sellerNames;
+        return names != null ? names : reloadSellerNames();
+    }
+
+    private List<SellerNameProjection> reloadSellerNames() {
+        long changes;
+        synchronized (sellerNamesLock) {
+            changes = sellerChanges;
+        }
+
+        List<SellerNameProjection> names = sellerRepository.findAllNames();
+
+        synchronized (sellerNamesLock) {
+            if (sellerChanges == changes) {
+                sellerNames = names;
+            }
+        }
+        return names;
+    }
+
+    private SalesSketch newSketch() {
+        return new SalesSketch(properties.epsilon(), properties.confidence(), properties.hllPrecision());
+    }
+
+    private record Rebuild(SketchIndex index, LocalDateTime cutoff) {
+    }
+
+    /**
+     * Sketches of days, months and years, keyed by the first day of the period.
+     */
+    private final class SketchIndex {
+
+        private final ConcurrentMap<LocalDate, SalesSketch> days = new ConcurrentHashMap<>();
+        private final ConcurrentMap<LocalDate, SalesSketch> months = new ConcurrentHashMap<>();
+        private final ConcurrentMap<LocalDate, SalesSketch> years = new ConcurrentHashMap<>();
+
+        void add(LocalDate day, long sellerId, long cents) {
+            sketch(days, day).add(sellerId, cents);
+            sketch(months, day.withDayOfMonth(1)).add(sellerId, cents);
+            sketch(years, day.withDayOfYear(1)).add(sellerId, cents);
+        }
+
+        /**
+         * Returns the sketches of the fewest periods that exactly cover the days {@code [from, to)}:
+         * at most two partial months of days and two partial years of months around the whole years.
+         */
+        List<SalesSketch> cover(LocalDate from, LocalDate to) {
+            List<SalesSketch> sketches = new ArrayList<>();
+            LocalDate day = from;
+            while (day.isBefore(to)) {
+                if (day.getDayOfYear() == 1 && !day.plusYears(1).isAfter(to)) {
+                    addIfPresent(sketches, years, day);
+                    day = day.plusYears(1);
+                } else if (day.getDayOfMonth() == 1 && !day.plusMonths(1).isAfter(to)) {
+                    addIfPresent(sketches, months, day);
+                    day = day.plusMonths(1);
+                } else {
+                    addIfPresent(sketches, days, day);
+                    day = day.plusDays(1);
+                }
+            }
+            return sketches;
+        }
+
+        private SalesSketch sketch(Map<LocalDate, SalesSketch> sketches, LocalDate start) {
+            return sketches.computeIfAbsent(start, ignored -> newSketch());
+        }
+
+        private static void addIfPresent(List<SalesSketch> target, Map<LocalDate, SalesSketch> sketches, LocalDate start) {
+            SalesSketch sketch = sketches.get(start);
+            if (sketch != null) {
+                target.add(sketch);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.nikolait.crmsystem.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.config.ColumnarSalesProperties;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.money.Cents;
+import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.nikolait.crmsystem.service.ColumnarSalesService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ColumnarSalesServiceImpl implements ColumnarSalesService {
+
+    /**
+     * A completion is dated when its row is updated, moments before the commit. A completion dated this close
+     * to the start of a reload may commit after the rows are read, so the copy does not answer for it.
+     */
+    private static final Duration COMMIT_MARGIN = Duration.ofMinutes(1);
+
+    private final TransactionRepository transactionRepository;
+    private final ColumnarSalesProperties properties;
+
+    private volatile Copy copy;
+
+    public ColumnarSalesServiceImpl(TransactionRepository transactionRepository,
+                                    ColumnarSalesProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+
+        Gauge.builder("analytics.columnar.rows", this, service -> service.stat(SalesColumns::rows))
+                .description("Completed transactions held in the columnar copy")
+                .register(meterRegistry);
+        Gauge.builder("analytics.columnar.memory", this, service -> service.stat(SalesColumns::allocatedBytes))
+                .description("Memory allocated for the columnar copy")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analytics.columnar.memory.per.million.rows", this,
+                        service -> service.stat(ColumnarSalesServiceImpl::bytesPerMillionRows))
+                .description("Memory allocated for the columnar copy per million rows held")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Map<Long, BigDecimal>> sumBySeller(LocalDateTime from, LocalDateTime to) {
+        Copy current = copy;
+        if (current == null
+                || from.isBefore(current.columns().from())
+                || to.isAfter(current.completeBefore())
+                || !onMinute(from)
+                || !onMinute(to)) {
+            return Optional.empty();
+        }
+
+        Map<Long, Long> cents = current.columns()
+                .sumBySeller(SalesColumns.epochMinute(from), SalesColumns.epochMinute(to));
+        Map<Long, BigDecimal> totals = HashMap.newHashMap(cents.size());
+        cents.forEach((sellerId, total) -> totals.put(sellerId, Cents.toAmount(total)));
+        return Optional.of(totals);
+    }
+
+    /**
+     * Reads the primary even when a read replica is configured, so that the copy holds every completion
+     * dated before the reload, whichever instance committed it.
+     * Runs in its own transaction because the rows are streamed, which needs an open transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void reload() {
+        if (!properties.enabled()) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime from = startedAt.toLocalDate()
+                .withDayOfMonth(1)
+                .minusMonths(properties.months() - 1L)
+                .atStartOfDay();
+
+        SalesColumns loaded = new SalesColumns(from, properties.chunkRows());
+        try (Stream<TransactionResponse> rows = transactionRepository.streamCompletedSince(from)) {
+            rows.forEach(row ->
+                    loaded.add(row.sellerId(), row.transactionDate(), Cents.of(row.amount()), row.paymentType()));
+        }
+        copy = new Copy(loaded, startedAt.minus(COMMIT_MARGIN));
+
+        log.info("Loaded {} completed transactions since {} into {} column chunks: {} MiB, {} bytes per million rows",
+                loaded.rows(),
+                from,
+                loaded.chunkCount(),
+                loaded.allocatedBytes() >> 20,
+                Math.round(bytesPerMillionRows(loaded)));
+    }
+
+    private double stat(ToDoubleFunction<SalesColumns> statistic) {
+        Copy current = copy;
+        return current == null ? 0 : statistic.applyAsDouble(current.columns());
+    }
+
+    private static double bytesPerMillionRows(SalesColumns columns) {
+        long rows = columns.rows();
+        return rows == 0 ? 0 : columns.allocatedBytes() * 1_000_000.0 / rows;
+    }
+
+    private static boolean onMinute(LocalDateTime dateTime) {
+        return dateTime.getSecond() == 0 && dateTime.getNano() == 0;
+    }
+
+    /**
+     * Loaded columns together with the end of the dates for which they hold every completion.
+     */
+    private record Copy(SalesColumns columns, LocalDateTime completeBefore) {
+    }
+}
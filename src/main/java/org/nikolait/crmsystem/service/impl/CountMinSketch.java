@@ -0,0 +1,79 @@
+package org.nikolait.crmsystem.service.impl;
+
+/**
+ * Count-Min sketch of non-negative weights keyed by 64-bit hashes.
+ *
+ * <p>An estimate never underestimates the true weight of a key and exceeds it by at most
+ * {@code epsilon * total()} with probability at least {@code confidence}. Sketches of the same
+ * dimensions are merged by adding their cells, so the sketch of a union of periods is the sum
+ * of the period sketches. Not thread-safe.</p>
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] cells;
+    private long total;
+
+    CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Sketch dimensions must be positive: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.cells = new long[width * depth];
+    }
+
+    static CountMinSketch withError(double epsilon, double confidence) {
+        return new CountMinSketch(
+                (int) Math.ceil(Math.E / epsilon),
+                (int) Math.ceil(Math.log(1 / (1 - confidence)))
+        );
+    }
+
+    void add(long hash, long weight) {
+        for (int row = 0; row < depth; row++) {
+            cells[row * width + column(hash, row)] += weight;
+        }
+        total += weight;
+    }
+
+    long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, cells[row * width + column(hash, row)]);
+        }
+        return min;
+    }
+
+    void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+        }
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] += other.cells[i];
+        }
+        total += other.total;
+    }
+
+    long total() {
+        return total;
+    }
+
+    double epsilon() {
+        return Math.E / width;
+    }
+
+    double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    /**
+     * Derives the column of each row from the two halves of the hash (Kirsch-Mitzenmacher), which
+     * keeps the rows pairwise independent without hashing the key once per row.
+     */
+    private int column(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return Math.floorMod(combined, width);
+    }
+}
@@ -0,0 +1,57 @@
+package org.nikolait.crmsystem.service.impl;
+
+import jakarta.validation.ValidationException;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a keyset listing, serialized into an opaque token for clients.
+ *
+ * <p>{@code date} is only meaningful for {@link CursorOrder#TRANSACTION_DATE}; the start
+ * position uses a date before any stored value and id {@code 0}.</p>
+ */
+record KeysetCursor(CursorOrder order, LocalDateTime date, long id) {
+
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final String SEPARATOR = "|";
+
+    static KeysetCursor start(CursorOrder order) {
+        return new KeysetCursor(order, MIN_DATE, 0L);
+    }
+
+    static KeysetCursor after(CursorOrder order, LocalDateTime date, long id) {
+        return new KeysetCursor(order, date != null ? date : MIN_DATE, id);
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; a missing token means the first page.
+     *
+     * @throws ValidationException if the token is malformed or was issued for another order
+     */
+    static KeysetCursor decode(String token, CursorOrder order) {
+        if (token == null || token.isBlank()) {
+            return start(order);
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !order.name().equals(parts[0])) {
+                throw new ValidationException("Cursor does not match order: " + order);
+            }
+            return new KeysetCursor(order, LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new ValidationException("Malformed cursor: " + token);
+        }
+    }
+
+    String encode() {
+        String raw = order.name() + SEPARATOR + date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
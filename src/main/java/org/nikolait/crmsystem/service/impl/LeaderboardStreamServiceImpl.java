@@ -0,0 +1,328 @@
+package org.nikolait.crmsystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.config.LeaderboardStreamProperties;
+import org.nikolait.crmsystem.dto.analytics.LeaderboardUpdateResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.service.LeaderboardStreamService;
+import org.nikolait.crmsystem.service.SellerAnalyticsService;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+public class LeaderboardStreamServiceImpl implements LeaderboardStreamService {
+
+    static final int MAX_LIMIT = 100;
+
+    private static final List<PeriodType> PERIODS = List.of(PeriodType.DAY, PeriodType.WEEK, PeriodType.MONTH);
+    private static final String EVENT_NAME = "leaderboard";
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final SellerAnalyticsService analyticsService;
+    private final ObjectMapper objectMapper;
+    private final LeaderboardStreamProperties properties;
+
+    private final Map<PeriodType, Set<Subscriber>> subscribers = new EnumMap<>(PeriodType.class);
+    private final Map<PeriodType, Loading> snapshots = new ConcurrentHashMap<>();
+    private final Map<PeriodType, Snapshot> published = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    public LeaderboardStreamServiceImpl(SellerAnalyticsService analyticsService,
+                                        ObjectMapper objectMapper,
+                                        LeaderboardStreamProperties properties) {
+        this.analyticsService = analyticsService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        this.sender = new ThreadPoolExecutor(
+                properties.sendThreads(), properties.sendThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.sendQueueCapacity()),
+                Thread.ofPlatform().name("leaderboard-send-", 0).daemon().factory()
+        );
+
+        for (PeriodType type : PERIODS) {
+            subscribers.put(type, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(PeriodType periodType, int limit) {
+        if (!PERIODS.contains(periodType)) {
+            throw new ValidationException("Live leaderboard is available for DAY, WEEK and MONTH only");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.emitterTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, limit);
+        Set<Subscriber> periodSubscribers = subscribers.get(periodType);
+
+        emitter.onCompletion(() -> periodSubscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> periodSubscribers.remove(subscriber));
+        periodSubscribers.add(subscriber);
+
+        send(periodSubscribers, subscriber, toJson(currentSnapshot(periodType), limit));
+        return emitter;
+    }
+
+    @Override
+    public void publishChanges() {
+        dropStalled();
+
+        for (PeriodType type : PERIODS) {
+            Set<Subscriber> periodSubscribers = subscribers.get(type);
+
+            if (periodSubscribers.isEmpty()) {
+                snapshots.remove(type);
+                published.remove(type);
+                continue;
+            }
+
+            Snapshot snapshot = currentSnapshot(type);
+            if (snapshot == published.get(type)) {
+                continue;
+            }
+
+            Map<Integer, String> jsonByLimit = new HashMap<>();
+            for (Subscriber subscriber : periodSubscribers) {
+                String json = jsonByLimit.computeIfAbsent(subscriber.limit(), limit -> toJson(snapshot, limit));
+                if (!json.equals(subscriber.lastSent)) {
+                    dispatch(periodSubscribers, subscriber, json);
+                }
+            }
+            published.put(type, snapshot);
+        }
+    }
+
+    @Override
+    public void sendHeartbeats() {
+        dropStalled();
+
+        subscribers.values().forEach(periodSubscribers -> periodSubscribers.forEach(subscriber -> {
+            // An update already waiting to be sent proves the connection alive just as well
+            if (subscriber.pending.compareAndSet(null, HEARTBEAT)) {
+                schedule(periodSubscribers, subscriber);
+            }
+        }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionCompleted(TransactionCompletedEvent event) {
+        markChanged();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionBatchCompleted(TransactionBatchCompletedEvent event) {
+        markChanged();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesRollupsRebuilt(SalesRollupsRebuiltEvent event) {
+        markChanged();
+    }
+
+    int subscriberCount(PeriodType periodType) {
+        return subscribers.get(periodType).size();
+    }
+
+    /**
+     * Drops the computed leaderboards; the next subscriber or {@link #publishChanges()} recomputes them.
+     */
+    private void markChanged() {
+        snapshots.clear();
+    }
+
+    /**
+     * Returns the leaderboard of the current period, computing it only if there is none yet or the
+     * period has rolled over, so that concurrent subscribers share one query. The query runs outside
+     * {@link Map#compute}, which only claims the load; other callers wait for its result.
+     */
+    private Snapshot currentSnapshot(PeriodType type) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime periodStart = PeriodBoundaries.start(type, today);
+        Loading claimed = new Loading(periodStart, new CompletableFuture<>());
+        Loading loading = snapshots.compute(type, (t, existing) ->
+                existing != null && existing.periodStart().equals(periodStart) ? existing : claimed);
+
+        if (loading == claimed) {
+            try {
+                claimed.snapshot().complete(load(type, today));
+            } catch (RuntimeException e) {
+                snapshots.remove(type, claimed);
+                claimed.snapshot().completeExceptionally(e);
+            }
+        }
+
+        try {
+            return loading.snapshot().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Snapshot load(PeriodType type, LocalDate today) {
+        return new Snapshot(
+                PeriodBoundaries.start(type, today),
+                type,
+                analyticsService.getTopSellers(type, today, MAX_LIMIT)
+        );
+    }
+
+    private String toJson(Snapshot snapshot, int limit) {
+        List<SellerRankResponse> top = snapshot.sellers().stream()
+                .filter(seller -> seller.rank() <= limit)
+                .toList();
+        try {
+            return objectMapper.writeValueAsString(
+                    new LeaderboardUpdateResponse(snapshot.periodType(), snapshot.periodStart(), top)
+            );
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hands an update to the send threads. A subscriber has at most one send queued or running; an
+     * update arriving meanwhile replaces the one still waiting, so a slow client gets only the latest.
+     */
+    private void dispatch(Set<Subscriber> periodSubscribers, Subscriber subscriber, String json) {
+        if (subscriber.pending.getAndSet(json) == null) {
+            schedule(periodSubscribers, subscriber);
+        }
+    }
+
+    private void schedule(Set<Subscriber> periodSubscribers, Subscriber subscriber) {
+        try {
+            subscriber.task = sender.submit(() -> drain(periodSubscribers, subscriber));
+        } catch (RejectedExecutionException e) {
+            drop(periodSubscribers, subscriber, e);
+        }
+    }
+
+    private void drain(Set<Subscriber> periodSubscribers, Subscriber subscriber) {
+        String message;
+        while ((message = subscriber.pending.get()) != null && periodSubscribers.contains(subscriber)) {
+            subscriber.sendStartedNanos = System.nanoTime();
+            try {
+                if (HEARTBEAT.equals(message)) {
+                    subscriber.emitter().send(SseEmitter.event().comment(HEARTBEAT));
+                } else {
+                    send(periodSubscribers, subscriber, message);
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(periodSubscribers, subscriber, e);
+            } finally {
+                subscriber.sendStartedNanos = 0;
+            }
+            subscriber.pending.compareAndSet(message, null);
+        }
+    }
+
+    /**
+     * Drops subscribers whose current write has taken longer than the send timeout and interrupts it.
+     * The emitter is completed by the interrupted write failing rather than here, since completing it
+     * would wait for the write to release the emitter.
+     */
+    private void dropStalled() {
+        long timeout = properties.sendTimeout().toNanos();
+        long now = System.nanoTime();
+        subscribers.values().forEach(periodSubscribers -> periodSubscribers.removeIf(subscriber -> {
+            long startedAt = subscriber.sendStartedNanos;
+            if (startedAt == 0 || now - startedAt <= timeout) {
+                return false;
+            }
+            log.debug("Dropping leaderboard subscriber: send took longer than {}", properties.sendTimeout());
+            Future<?> task = subscriber.task;
+            if (task != null) {
+                task.cancel(true);
+            }
+            return true;
+        }));
+    }
+
+    private void send(Set<Subscriber> periodSubscribers, Subscriber subscriber, String json) {
+        try {
+            subscriber.emitter().send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .data(json, MediaType.APPLICATION_JSON));
+            subscriber.lastSent = json;
+        } catch (IOException | IllegalStateException e) {
+            drop(periodSubscribers, subscriber, e);
+        }
+    }
+
+    private void drop(Set<Subscriber> periodSubscribers, Subscriber subscriber, Exception cause) {
+        log.debug("Dropping leaderboard subscriber: {}", cause.getMessage());
+        periodSubscribers.remove(subscriber);
+        subscriber.emitter().completeWithError(cause);
+    }
+
+    private record Snapshot(LocalDateTime periodStart, PeriodType periodType, List<SellerRankResponse> sellers) {
+    }
+
+    private record Loading(LocalDateTime periodStart, CompletableFuture<Snapshot> snapshot) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final int limit;
+        private volatile String lastSent;
+
+        /**
+         * Latest update or heartbeat not yet sent; non-null while a send is queued or running.
+         */
+        private final AtomicReference<String> pending = new AtomicReference<>();
+        private volatile long sendStartedNanos;
+        private volatile Future<?> task;
+
+        private Subscriber(SseEmitter emitter, int limit) {
+            this.emitter = emitter;
+            this.limit = limit;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        int limit() {
+            return limit;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.nikolait.crmsystem.service.impl;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.dto.analytics.LiveSalesResponse;
+import org.nikolait.crmsystem.dto.analytics.PeriodTotalsResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.model.projection.SellerTotalsProjection;
+import org.nikolait.crmsystem.money.Cents;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
+import org.nikolait.crmsystem.service.LiveSalesService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+public class LiveSalesServiceImpl implements LiveSalesService {
+
+    private static final List<PeriodType> PERIODS = List.of(PeriodType.DAY, PeriodType.WEEK, PeriodType.MONTH);
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SellerCache sellerCache;
+    private final ConcurrentMap<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public LiveSalesResponse getCurrentTotals(Long sellerId) {
+        if (sellerCache.findActive(sellerId).isEmpty()) {
+            throw new EntityNotFoundException("Seller not found: " + sellerId);
+        }
+
+        LocalDate today = LocalDate.now();
+        return new LiveSalesResponse(
+                sellerId,
+                getTotals(sellerId, PeriodType.DAY, today),
+                getTotals(sellerId, PeriodType.WEEK, today),
+                getTotals(sellerId, PeriodType.MONTH, today)
+        );
+    }
+
+    @Override
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        Map<CounterKey, Counter> fresh = new HashMap<>();
+
+        for (PeriodType type : PERIODS) {
+            LocalDate start = periodStart(type, today);
+            LocalDate end = PeriodBoundaries.end(type, today).toLocalDate();
+            for (SellerTotalsProjection totals : salesRollupRepository.sumDailyBySeller(start, end)) {
+                fresh.put(new CounterKey(totals.getSellerId(), type, start), Counter.of(totals));
+            }
+        }
+
+        counters.keySet().stream()
+                .filter(key -> key.periodStart().equals(periodStart(key.periodType(), today)))
+                .forEach(key -> fresh.putIfAbsent(key, new Counter()));
+
+        counters.putAll(fresh);
+        counters.keySet().retainAll(fresh.keySet());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionCompleted(TransactionCompletedEvent event) {
+        add(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionBatchCompleted(TransactionBatchCompletedEvent event) {
+        event.completions().forEach(this::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesRollupsRebuilt(SalesRollupsRebuiltEvent event) {
+        reconcile();
+    }
+
+    /**
+     * Counts a committed completion for sellers held in memory. Sellers that are not held yet pick it
+     * up from the rollup when they are first requested.
+     */
+    private void add(TransactionCompletedEvent event) {
+        LocalDate date = event.transactionDate().toLocalDate();
+        for (PeriodType type : PERIODS) {
+            Counter counter = counters.get(new CounterKey(event.sellerId(), type, periodStart(type, date)));
+            if (counter != null) {
+                counter.add(event.amount());
+            }
+        }
+    }
+
+    private PeriodTotalsResponse getTotals(Long sellerId, PeriodType type, LocalDate today) {
+        LocalDate start = periodStart(type, today);
+        CounterKey key = new CounterKey(sellerId, type, start);
+
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            LocalDate end = PeriodBoundaries.end(type, today).toLocalDate();
+            Counter loaded = salesRollupRepository.sumDailyForSeller(sellerId, start, end)
+                    .map(Counter::of)
+                    .orElseGet(Counter::new);
+            counter = Objects.requireNonNullElse(counters.putIfAbsent(key, loaded), loaded);
+        }
+
+        return new PeriodTotalsResponse(start, counter.count.sum(), Cents.toAmount(counter.cents.sum()));
+    }
+
+    private static LocalDate periodStart(PeriodType type, LocalDate date) {
+        return PeriodBoundaries.start(type, date).toLocalDate();
+    }
+
+    private record CounterKey(Long sellerId, PeriodType periodType, LocalDate periodStart) {
+    }
+
+    /**
+     * Transaction count and total amount in cents; {@link LongAdder} keeps concurrent completions
+     * of the same seller from contending on a single value.
+     */
+    private static final class Counter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cents = new LongAdder();
+
+        static Counter of(SellerTotalsProjection totals) {
+            Counter counter = new Counter();
+            counter.count.add(totals.getTxCount());
+            counter.cents.add(Cents.of(totals.getTotalAmount()));
+            return counter;
+        }
+
+        void add(BigDecimal amount) {
+            count.increment();
+            cents.add(Cents.of(amount));
+        }
+    }
+}
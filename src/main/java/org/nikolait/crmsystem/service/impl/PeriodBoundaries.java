@@ -0,0 +1,48 @@
+package org.nikolait.crmsystem.service.impl;
+
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Calendar boundaries of analytics periods. Periods are half-open: {@code [start, end)}.
+ */
+final class PeriodBoundaries {
+
+    private PeriodBoundaries() {
+    }
+
+    static LocalDateTime start(PeriodType type, LocalDate baseDate) {
+        return switch (type) {
+            case DAY -> baseDate.atStartOfDay();
+            case WEEK -> baseDate.with(DayOfWeek.MONDAY).atStartOfDay();
+            case MONTH -> baseDate.withDayOfMonth(1).atStartOfDay();
+            case QUARTER -> baseDate.with(baseDate.getMonth().firstMonthOfQuarter())
+                    .withDayOfMonth(1).atStartOfDay();
+            case YEAR -> baseDate.withDayOfYear(1).atStartOfDay();
+        };
+    }
+
+    static LocalDateTime end(PeriodType type, LocalDate baseDate) {
+        return switch (type) {
+            case DAY -> baseDate.plusDays(1).atStartOfDay();
+            case WEEK -> baseDate.with(DayOfWeek.MONDAY).plusWeeks(1).atStartOfDay();
+            case MONTH -> baseDate.withDayOfMonth(1).plusMonths(1).atStartOfDay();
+            case QUARTER -> baseDate.with(baseDate.getMonth().firstMonthOfQuarter())
+                    .withDayOfMonth(1).plusMonths(3).atStartOfDay();
+            case YEAR -> baseDate.withDayOfYear(1).plusYears(1).atStartOfDay();
+        };
+    }
+
+    static LocalDateTime add(LocalDateTime start, PeriodType type) {
+        return switch (type) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+            case QUARTER -> start.plusMonths(3);
+            case YEAR -> start.plusYears(1);
+        };
+    }
+}
@@ -0,0 +1,260 @@
+package org.nikolait.crmsystem.service.impl;
+
+import org.nikolait.crmsystem.model.enums.PaymentType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Completed transactions stored column by column in chunks of primitive arrays, in the order they were added.
+ *
+ * <p>Each row holds the seller, the transaction date in epoch minutes, the amount in cents and the payment type.
+ * Seller ids are dictionary-encoded into dense indexes, so a scan sums into plain arrays indexed by seller.
+ * Every chunk tracks its earliest and latest minute, which lets scans skip chunks outside the requested range
+ * and skip the per-row date check for chunks inside it.</p>
+ *
+ * <p>Rows are added by one thread at a time. Scans run concurrently with additions and see every row added
+ * before they started.</p>
+ */
+final class SalesColumns {
+
+    /**
+     * Bytes held per row: seller index, minute, cents and payment type.
+     */
+    static final int ROW_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Byte.BYTES;
+
+    private final LocalDateTime from;
+    private final int chunkRows;
+
+    private final Map<Long, Integer> sellerIndexes = new HashMap<>();
+    private volatile long[] sellerIds = new long[1024];
+    private volatile int sellerCount;
+    private volatile List<Chunk> chunks = List.of();
+
+    /**
+     * @param from      earliest transaction date held; earlier rows are ignored
+     * @param chunkRows number of rows per chunk
+     */
+    SalesColumns(LocalDateTime from, int chunkRows) {
+        this.from = from;
+        this.chunkRows = chunkRows;
+    }
+
+    LocalDateTime from() {
+        return from;
+    }
+
+    static int epochMinute(LocalDateTime dateTime) {
+        return Math.toIntExact(Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    synchronized void add(long sellerId, LocalDateTime transactionDate, long cents, PaymentType paymentType) {
+        if (transactionDate.isBefore(from)) {
+            return;
+        }
+
+        List<Chunk> current = chunks;
+        Chunk chunk = current.isEmpty() ? null : current.getLast();
+        if (chunk == null || chunk.size == chunkRows) {
+            chunk = new Chunk(chunkRows);
+            List<Chunk> extended = new ArrayList<>(current.size() + 1);
+            extended.addAll(current);
+            extended.add(chunk);
+            chunks = List.copyOf(extended);
+        }
+        chunk.add(sellerIndex(sellerId), epochMinute(transactionDate), cents, (byte) paymentType.ordinal());
+    }
+
+    /**
+     * Sums the rows dated within {@code [fromMinute, toMinute)} by seller, scanning chunks in parallel.
+     *
+     * @return total cents by seller id, for sellers with at least one such row
+     */
+    Map<Long, Long> sumBySeller(int fromMinute, int toMinute) {
+        List<Chunk> snapshot = chunks;
+        int[] sizes = new int[snapshot.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = snapshot.get(i).size;
+        }
+        // read after the chunk sizes, so it covers every seller index in the rows up to those sizes
+        int sellers = sellerCount;
+        long[] ids = sellerIds;
+
+        Totals totals = ForkJoinPool.commonPool()
+                .invoke(new SumTask(snapshot, sizes, 0, sizes.length, fromMinute, toMinute, sellers));
+
+        Map<Long, Long> bySeller = new HashMap<>();
+        if (totals != null) {
+            for (int seller = 0; seller < sellers; seller++) {
+                if (totals.counts[seller] > 0) {
+                    bySeller.put(ids[seller], totals.cents[seller]);
+                }
+            }
+        }
+        return bySeller;
+    }
+
+    long rows() {
+        long rows = 0;
+        for (Chunk chunk : chunks) {
+            rows += chunk.size;
+        }
+        return rows;
+    }
+
+    int chunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Returns the bytes allocated for the columns and the seller dictionary, including unused chunk capacity;
+     * object headers and the boxed dictionary keys are estimated.
+     */
+    long allocatedBytes() {
+        long dictionaryEntry = 64;
+        return (long) chunks.size() * chunkRows * ROW_BYTES
+                + (long) sellerIds.length * Long.BYTES
+                + sellerCount * dictionaryEntry;
+    }
+
+    private int sellerIndex(long sellerId) {
+        Integer index = sellerIndexes.get(sellerId);
+        if (index != null) {
+            return index;
+        }
+
+        int next = sellerCount;
+        long[] ids = sellerIds;
+        if (next == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[next] = sellerId;
+        sellerIds = ids;
+        sellerIndexes.put(sellerId, next);
+        sellerCount = next + 1;
+        return next;
+    }
+
+    private static final class Chunk {
+
+        private final int[] sellers;
+        private final int[] minutes;
+        private final long[] cents;
+        private final byte[] paymentTypes;
+        private int minMinute = Integer.MAX_VALUE;
+        private int maxMinute = Integer.MIN_VALUE;
+        private volatile int size;
+
+        Chunk(int capacity) {
+            this.sellers = new int[capacity];
+            this.minutes = new int[capacity];
+            this.cents = new long[capacity];
+            this.paymentTypes = new byte[capacity];
+        }
+
+        void add(int seller, int minute, long amountCents, byte paymentType) {
+            int row = size;
+            sellers[row] = seller;
+            minutes[row] = minute;
+            cents[row] = amountCents;
+            paymentTypes[row] = paymentType;
+            minMinute = Math.min(minMinute, minute);
+            maxMinute = Math.max(maxMinute, minute);
+            size = row + 1;
+        }
+    }
+
+    private record Totals(long[] cents, long[] counts) {
+
+        void add(int seller, long amountCents) {
+            cents[seller] = Math.addExact(cents[seller], amountCents);
+            counts[seller]++;
+        }
+
+        Totals merge(Totals other) {
+            for (int i = 0; i < cents.length; i++) {
+                cents[i] = Math.addExact(cents[i], other.cents[i]);
+                counts[i] += other.counts[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Sums chunks {@code [first, last)}, splitting the range in halves down to single chunks.
+     * Returns {@code null} if none of the chunks has a row in range.
+     */
+    private static final class SumTask extends RecursiveTask<Totals> {
+
+        private final List<Chunk> chunks;
+        private final int[] sizes;
+        private final int first;
+        private final int last;
+        private final int fromMinute;
+        private final int toMinute;
+        private final int sellers;
+
+        SumTask(List<Chunk> chunks, int[] sizes, int first, int last, int fromMinute, int toMinute, int sellers) {
+            this.chunks = chunks;
+            this.sizes = sizes;
+            this.first = first;
+            this.last = last;
+            this.fromMinute = fromMinute;
+            this.toMinute = toMinute;
+            this.sellers = sellers;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (last - first == 0) {
+                return null;
+            }
+            if (last - first == 1) {
+                return sum(chunks.get(first), sizes[first]);
+            }
+
+            int middle = (first + last) >>> 1;
+            SumTask left = new SumTask(chunks, sizes, first, middle, fromMinute, toMinute, sellers);
+            left.fork();
+            Totals right = new SumTask(chunks, sizes, middle, last, fromMinute, toMinute, sellers).compute();
+            Totals leftTotals = left.join();
+
+            if (leftTotals == null) {
+                return right;
+            }
+            return right == null ? leftTotals : leftTotals.merge(right);
+        }
+
+        private Totals sum(Chunk chunk, int size) {
+            if (size == 0 || chunk.maxMinute < fromMinute || chunk.minMinute >= toMinute) {
+                return null;
+            }
+
+            Totals totals = new Totals(new long[sellers], new long[sellers]);
+            int[] sellerColumn = chunk.sellers;
+            long[] centsColumn = chunk.cents;
+            if (chunk.minMinute >= fromMinute && chunk.maxMinute < toMinute) {
+                for (int row = 0; row < size; row++) {
+                    totals.add(sellerColumn[row], centsColumn[row]);
+                }
+                return totals;
+            }
+
+            int[] minuteColumn = chunk.minutes;
+            for (int row = 0; row < size; row++) {
+                int minute = minuteColumn[row];
+                if (minute >= fromMinute && minute < toMinute) {
+                    totals.add(sellerColumn[row], centsColumn[row]);
+                }
+            }
+            return totals;
+        }
+    }
+}
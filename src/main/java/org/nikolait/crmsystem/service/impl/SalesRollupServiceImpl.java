@@ -0,0 +1,63 @@
+package org.nikolait.crmsystem.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.analytics.SalesRollupMismatchResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
+import org.nikolait.crmsystem.service.SalesRollupService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        salesRollupRepository.lockRollups();
+
+        salesRollupRepository.deleteYearly();
+        salesRollupRepository.deleteMonthly();
+        salesRollupRepository.deleteDaily();
+
+        int daily = salesRollupRepository.rebuildDaily();
+        salesRollupRepository.rebuildMonthly();
+        salesRollupRepository.rebuildYearly();
+        salesRollupRepository.rebuildSellerSummaries();
+
+        eventPublisher.publishEvent(new SalesRollupsRebuiltEvent(daily));
+        return daily;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildSellerSummaries() {
+        salesRollupRepository.lockRollups();
+        return salesRollupRepository.rebuildSellerSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesRollupMismatchResponse> findMismatches() {
+        return salesRollupRepository.findMismatches()
+                .stream()
+                .map(m -> new SalesRollupMismatchResponse(
+                        PeriodType.valueOf(m.getGranularity()),
+                        m.getSellerId(),
+                        m.getPeriodStart(),
+                        m.getRollupCount(),
+                        m.getRollupAmount(),
+                        m.getActualCount(),
+                        m.getActualAmount()
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,67 @@
+package org.nikolait.crmsystem.service.impl;
+
+/**
+ * Mergeable summary of the completed sales of one period: a {@link CountMinSketch} of amounts in cents
+ * per seller and a {@link HyperLogLog} of sellers with sales.
+ */
+final class SalesSketch {
+
+    private final CountMinSketch amounts;
+    private final HyperLogLog sellers;
+
+    SalesSketch(double epsilon, double confidence, int precision) {
+        this.amounts = CountMinSketch.withError(epsilon, confidence);
+        this.sellers = new HyperLogLog(precision);
+    }
+
+    synchronized void add(long sellerId, long cents) {
+        long hash = hash(sellerId);
+        amounts.add(hash, cents);
+        sellers.add(hash);
+    }
+
+    /**
+     * Adds {@code other} to this sketch. Callers merge into a sketch no other thread can see,
+     * so the two monitors are always taken in the same order.
+     */
+    synchronized void merge(SalesSketch other) {
+        synchronized (other) {
+            amounts.merge(other.amounts);
+            sellers.merge(other.sellers);
+        }
+    }
+
+    synchronized long estimateCents(long sellerId) {
+        return amounts.estimate(hash(sellerId));
+    }
+
+    synchronized long totalCents() {
+        return amounts.total();
+    }
+
+    synchronized long activeSellers() {
+        return sellers.estimate();
+    }
+
+    double epsilon() {
+        return amounts.epsilon();
+    }
+
+    double confidence() {
+        return amounts.confidence();
+    }
+
+    double activeSellersError() {
+        return sellers.relativeError();
+    }
+
+    /**
+     * SplitMix64 finalizer; sequential seller ids must spread over all bits for both sketches.
+     */
+    private static long hash(long sellerId) {
+        long z = sellerId + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -2,83 +2,118 @@ package org.nikolait.crmsystem.service.impl;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.cache.AnalyticsCache;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
+import org.nikolait.crmsystem.dto.SellerResponse;
 import org.nikolait.crmsystem.dto.analytics.BestPeriodResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
 import org.nikolait.crmsystem.dto.analytics.SellerStatsResponse;
 import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
-import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
 import org.nikolait.crmsystem.model.projection.SellerBestPeriodProjection;
+import org.nikolait.crmsystem.model.projection.SellerBestPeriodRowProjection;
+import org.nikolait.crmsystem.model.projection.SellerNameProjection;
 import org.nikolait.crmsystem.model.projection.SellerSalesProjection;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
 import org.nikolait.crmsystem.repository.SellerRepository;
 import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.nikolait.crmsystem.service.ColumnarSalesService;
 import org.nikolait.crmsystem.service.SellerAnalyticsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class SellerAnalyticsServiceImpl implements SellerAnalyticsService {
 
-    private final SellerRepository sellerRepository;
+    private final SellerCache sellerCache;
+    private final AnalyticsCache analyticsCache;
     private final TransactionRepository transactionRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final SellerRepository sellerRepository;
+    private final ColumnarSalesService columnarSalesService;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public SellerStatsResponse getTopSeller(PeriodType periodType, LocalDate baseDate) {
-        LocalDateTime from = getStart(periodType, baseDate);
-        LocalDateTime to = getEnd(periodType, baseDate);
+        List<SellerRankResponse> leaders = getTopSellers(periodType, baseDate, 1);
 
-        List<SellerSalesProjection> stats =
-                transactionRepository.findTopSellersByPeriod(from, to);
-
-        if (stats.isEmpty()) {
+        if (leaders.isEmpty()) {
             throw new EntityNotFoundException("No sellers found for period");
         }
 
-        SellerSalesProjection top = stats.getFirst();
+        SellerRankResponse top = leaders.getFirst();
         return new SellerStatsResponse(
-                top.getSellerId(),
-                top.getSellerName(),
-                top.getTotalAmount()
+                top.sellerId(),
+                top.sellerName(),
+                top.totalAmount()
         );
     }
 
+    @Override
+    public List<SellerRankResponse> getTopSellers(PeriodType periodType, LocalDate baseDate, int limit) {
+        LocalDateTime start = PeriodBoundaries.start(periodType, baseDate);
+        LocalDateTime end = PeriodBoundaries.end(periodType, baseDate);
+        return analyticsCache.getTopSellers(periodType, start, end, limit,
+                () -> loadTopSellers(periodType, start, end, limit));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public LocalDateTime getPeriodEnd(PeriodType periodType, LocalDate baseDate) {
+        return PeriodBoundaries.end(periodType, baseDate);
+    }
+
     @Override
     public List<SellerStatsResponse> getSellersWithTotalLessThan(
             LocalDateTime from,
             LocalDateTime to,
             BigDecimal maxTotal
     ) {
-        return transactionRepository.findSellersWithTotalAmountLessThan(from, to, maxTotal)
-                .stream()
-                .map(sp -> new SellerStatsResponse(
-                        sp.getSellerId(),
-                        sp.getSellerName(),
-                        sp.getTotalAmount()
-                ))
-                .toList();
+        return analyticsCache.getSellersBelow(from, to, maxTotal,
+                () -> loadSellersWithTotalLessThan(from, to, maxTotal));
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BestPeriodResponse getBestPeriodForSeller(Long sellerId, PeriodType periodType) {
-        Seller seller = sellerRepository.findByIdAndDeletedFalse(sellerId)
+        // Resolved before the read-only transaction, so that a cache miss reads the primary
+        SellerResponse seller = sellerCache.findActive(sellerId)
                 .orElseThrow(() -> new EntityNotFoundException("Seller not found: " + sellerId));
 
-        SellerBestPeriodProjection projection =
-                transactionRepository.findBestPeriodForSeller(sellerId, periodType.toPostgresUnit());
+        String unit = periodType.toPostgresUnit();
+        SellerBestPeriodProjection projection = readOnlyTransaction().execute(status -> switch (periodType) {
+            case DAY, WEEK -> salesRollupRepository.findBestPeriodFromDaily(sellerId, unit);
+            case MONTH, QUARTER -> salesRollupRepository.findBestPeriodFromMonthly(sellerId, unit);
+            case YEAR -> salesRollupRepository.findBestPeriodFromYearly(sellerId);
+        });
 
         if (projection == null) {
             throw new EntityNotFoundException("No transactions for seller: " + sellerId);
         }
 
         LocalDateTime start = projection.getPeriodStart();
-        LocalDateTime end = addPeriod(start, periodType);
+        LocalDateTime end = PeriodBoundaries.add(start, periodType);
 
         return new BestPeriodResponse(
-                seller.getId(),
+                seller.id(),
                 periodType,
                 start,
                 end,
@@ -87,35 +122,151 @@ public class SellerAnalyticsServiceImpl implements SellerAnalyticsService {
         );
     }
 
-    private LocalDateTime getStart(PeriodType type, LocalDate baseDate) {
-        return switch (type) {
-            case DAY -> baseDate.atStartOfDay();
-            case WEEK -> baseDate.with(DayOfWeek.MONDAY).atStartOfDay();
-            case MONTH -> baseDate.withDayOfMonth(1).atStartOfDay();
-            case QUARTER -> baseDate.with(baseDate.getMonth().firstMonthOfQuarter())
-                    .withDayOfMonth(1).atStartOfDay();
-            case YEAR -> baseDate.withDayOfYear(1).atStartOfDay();
-        };
+    @Override
+    public CursorPageResponse<BestPeriodResponse> getBestPeriods(
+            PeriodType periodType,
+            Collection<Long> sellerIds,
+            String after,
+            int size
+    ) {
+        KeysetCursor cursor = KeysetCursor.decode(after, CursorOrder.ID);
+
+        if (sellerIds != null && sellerIds.isEmpty()) {
+            return new CursorPageResponse<>(List.of(), null);
+        }
+
+        List<Long> ids = sellerIds == null
+                ? salesRollupRepository.findSellerIdsWithSalesAfter(cursor.id(), size + 1)
+                : salesRollupRepository.findSellerIdsWithSalesAfter(sellerIds, cursor.id(), size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Long> page = hasNext ? ids.subList(0, size) : ids;
+
+        String nextCursor = hasNext
+                ? KeysetCursor.after(CursorOrder.ID, null, page.getLast()).encode()
+                : null;
+
+        return new CursorPageResponse<>(loadBestPeriods(periodType, page), nextCursor);
     }
 
-    private LocalDateTime getEnd(PeriodType type, LocalDate baseDate) {
-        return switch (type) {
-            case DAY -> baseDate.plusDays(1).atStartOfDay();
-            case WEEK -> baseDate.with(DayOfWeek.MONDAY).plusWeeks(1).atStartOfDay();
-            case MONTH -> baseDate.withDayOfMonth(1).plusMonths(1).atStartOfDay();
-            case QUARTER -> baseDate.with(baseDate.getMonth().firstMonthOfQuarter())
-                    .withDayOfMonth(1).plusMonths(3).atStartOfDay();
-            case YEAR -> baseDate.withDayOfYear(1).plusYears(1).atStartOfDay();
+    private List<BestPeriodResponse> loadBestPeriods(PeriodType periodType, List<Long> sellerIds) {
+        if (sellerIds.isEmpty()) {
+            return List.of();
+        }
+
+        String unit = periodType.toPostgresUnit();
+        List<SellerBestPeriodRowProjection> rows = switch (periodType) {
+            case DAY, WEEK -> salesRollupRepository.findBestPeriodsFromDaily(sellerIds, unit);
+            case MONTH, QUARTER -> salesRollupRepository.findBestPeriodsFromMonthly(sellerIds, unit);
+            case YEAR -> salesRollupRepository.findBestPeriodsFromYearly(sellerIds);
         };
+
+        return rows.stream()
+                .map(row -> new BestPeriodResponse(
+                        row.getSellerId(),
+                        periodType,
+                        row.getPeriodStart(),
+                        PeriodBoundaries.add(row.getPeriodStart(), periodType),
+                        row.getTxCount(),
+                        row.getTotalAmount()
+                ))
+                .toList();
+    }
+
+    private List<SellerRankResponse> loadTopSellers(
+            PeriodType periodType,
+            LocalDateTime start,
+            LocalDateTime end,
+            int limit
+    ) {
+        Optional<Map<Long, BigDecimal>> resident = columnarSalesService.sumBySeller(start, end);
+        List<SellerStatsResponse> stats = resident.isPresent()
+                ? topSellers(resident.get(), limit)
+                : loadTopSellersFromRollups(periodType, start.toLocalDate(), end.toLocalDate(), limit);
+
+        List<SellerRankResponse> leaders = new ArrayList<>(stats.size());
+        int rank = 0;
+        BigDecimal previousTotal = null;
+        for (int i = 0; i < stats.size(); i++) {
+            SellerStatsResponse sp = stats.get(i);
+            if (previousTotal == null || sp.totalAmount().compareTo(previousTotal) != 0) {
+                rank = i + 1;
+                previousTotal = sp.totalAmount();
+            }
+            leaders.add(new SellerRankResponse(rank, sp.sellerId(), sp.sellerName(), sp.totalAmount()));
+        }
+        return leaders;
     }
 
-    private LocalDateTime addPeriod(LocalDateTime start, PeriodType type) {
-        return switch (type) {
-            case DAY -> start.plusDays(1);
-            case WEEK -> start.plusWeeks(1);
-            case MONTH -> start.plusMonths(1);
-            case QUARTER -> start.plusMonths(3);
-            case YEAR -> start.plusYears(1);
+    private List<SellerStatsResponse> loadTopSellersFromRollups(
+            PeriodType periodType,
+            LocalDate from,
+            LocalDate to,
+            int limit
+    ) {
+        List<SellerSalesProjection> stats = switch (periodType) {
+            case DAY, WEEK -> salesRollupRepository.findTopSellersFromDaily(from, to, limit);
+            case MONTH, QUARTER -> salesRollupRepository.findTopSellersFromMonthly(from, to, limit);
+            case YEAR -> salesRollupRepository.findTopSellersFromYearly(from, to, limit);
         };
+
+        return stats.stream()
+                .map(sp -> new SellerStatsResponse(sp.getSellerId(), sp.getSellerName(), sp.getTotalAmount()))
+                .toList();
+    }
+
+    /**
+     * Orders totals read from the columnar copy the way the rollup queries do: the {@code limit} highest,
+     * plus any tied with the last of them, by total descending and then by seller id.
+     */
+    private List<SellerStatsResponse> topSellers(Map<Long, BigDecimal> totals, int limit) {
+        List<Map.Entry<Long, BigDecimal>> ordered = totals.entrySet().stream()
+                .sorted(Map.Entry.<Long, BigDecimal>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .toList();
+
+        int count = Math.min(limit, ordered.size());
+        while (count > 0 && count < ordered.size()
+                && ordered.get(count).getValue().compareTo(ordered.get(count - 1).getValue()) == 0) {
+            count++;
+        }
+        List<Map.Entry<Long, BigDecimal>> top = ordered.subList(0, count);
+
+        Map<Long, String> names = sellerRepository.findNamesByIdIn(top.stream().map(Map.Entry::getKey).toList())
+                .stream()
+                .collect(Collectors.toMap(SellerNameProjection::getId, SellerNameProjection::getName));
+
+        return top.stream()
+                .filter(entry -> names.containsKey(entry.getKey()))
+                .map(entry -> new SellerStatsResponse(entry.getKey(), names.get(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+
+    private List<SellerStatsResponse> loadSellersWithTotalLessThan(
+            LocalDateTime from,
+            LocalDateTime to,
+            BigDecimal maxTotal
+    ) {
+        LocalDate firstDay = from.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? from.toLocalDate()
+                : from.toLocalDate().plusDays(1);
+        LocalDate lastDay = to.toLocalDate();
+
+        List<SellerSalesProjection> stats = firstDay.isBefore(lastDay)
+                ? salesRollupRepository.findSellersWithTotalAmountLessThan(from, to, firstDay, lastDay, maxTotal)
+                : transactionRepository.findSellersWithTotalAmountLessThan(from, to, maxTotal);
+
+        return stats.stream()
+                .map(sp -> new SellerStatsResponse(
+                        sp.getSellerId(),
+                        sp.getSellerName(),
+                        sp.getTotalAmount()
+                ))
+                .toList();
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
     }
 }
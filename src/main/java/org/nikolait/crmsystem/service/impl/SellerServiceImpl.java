@@ -2,16 +2,27 @@ package org.nikolait.crmsystem.service.impl;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
 import org.nikolait.crmsystem.dto.SellerCreateRequest;
 import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.SellerSummaryResponse;
 import org.nikolait.crmsystem.dto.SellerUpdateRequest;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
+import org.nikolait.crmsystem.event.SellerChangedEvent;
 import org.nikolait.crmsystem.mapper.SellerMapper;
 import org.nikolait.crmsystem.model.Seller;
 import org.nikolait.crmsystem.repository.SellerRepository;
 import org.nikolait.crmsystem.service.SellerService;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -19,43 +30,84 @@ public class SellerServiceImpl implements SellerService {
 
     private final SellerRepository sellerRepository;
     private final SellerMapper sellerMapper;
+    private final SellerCache sellerCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<SellerResponse> getAll(Pageable pageable) {
         return sellerRepository.findAllByDeletedFalse(pageable)
                 .map(sellerMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SellerResponse> getAllAfter(String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after, CursorOrder.ID);
+
+        List<Seller> sellers = sellerRepository.findActiveAfter(cursor.id(), Limit.of(size + 1));
+        boolean hasNext = sellers.size() > size;
+        List<Seller> page = hasNext ? sellers.subList(0, size) : sellers;
+
+        String nextCursor = hasNext
+                ? KeysetCursor.after(CursorOrder.ID, null, page.getLast().getId()).encode()
+                : null;
+
+        return new CursorPageResponse<>(
+                page.stream().map(sellerMapper::toResponse).toList(),
+                nextCursor
+        );
+    }
+
     @Override
     public SellerResponse getById(Long id) {
-        Seller seller = sellerRepository.findByIdAndDeletedFalse(id)
+        return sellerCache.findActive(id)
                 .orElseThrow(() -> new EntityNotFoundException("Seller not found: " + id));
+    }
 
-        return sellerMapper.toResponse(seller);
+    @Override
+    @Transactional
+    public SellerSummaryResponse getSummary(Long id) {
+        return sellerRepository.findByIdAndDeletedFalse(id)
+                .map(sellerMapper::toSummaryResponse)
+                .orElseThrow(() -> new EntityNotFoundException("Seller not found: " + id));
+    }
+
+    @Override
+    @Transactional
+    public String getSummaryVersion(Long id) {
+        return sellerRepository.findSummaryVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Seller not found: " + id));
     }
 
     @Override
     public SellerResponse create(SellerCreateRequest request) {
         Seller seller = sellerMapper.toEntity(request);
-        return sellerMapper.toResponse(sellerRepository.save(seller));
+        Seller saved = sellerRepository.save(seller);
+        eventPublisher.publishEvent(new SellerChangedEvent(saved.getId()));
+        return sellerMapper.toResponse(saved);
     }
 
     @Override
+    @CacheEvict(cacheNames = SellerCache.CACHE_NAME, key = "#id")
     public SellerResponse update(Long id, SellerUpdateRequest request) {
         Seller seller = sellerRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new EntityNotFoundException("Seller not found: " + id));
 
         sellerMapper.patchFromRequest(request, seller);
         Seller saved = sellerRepository.save(seller);
+        eventPublisher.publishEvent(new SellerChangedEvent(id));
         return sellerMapper.toResponse(saved);
     }
 
     @Override
+    @CacheEvict(cacheNames = SellerCache.CACHE_NAME, key = "#id")
     public void delete(Long id) {
         Seller seller = sellerRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new EntityNotFoundException("Seller not found: " + id));
 
         seller.setDeleted(true);
         sellerRepository.save(seller);
+        eventPublisher.publishEvent(new SellerChangedEvent(id));
     }
 }
@@ -0,0 +1,94 @@
+package org.nikolait.crmsystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.dto.TransactionExportFilter;
+import org.nikolait.crmsystem.dto.TransactionExportRow;
+import org.nikolait.crmsystem.dto.enums.ExportFormat;
+import org.nikolait.crmsystem.money.Cents;
+import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.nikolait.crmsystem.service.TransactionExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final String CSV_HEADER =
+            "id,sellerId,amount,paymentType,transactionDate,status,createdAt";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(TransactionExportFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<TransactionExportRow> transactions = transactionRepository.streamForExport(
+                filter.sellerId(),
+                filter.status(),
+                filter.from(),
+                filter.to()
+        )) {
+            Iterator<TransactionExportRow> iterator = transactions.iterator();
+            switch (format) {
+                case NDJSON -> writeNdjson(iterator, out);
+                case CSV -> writeCsv(iterator, out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<TransactionExportRow> transactions, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        try (generator) {
+            while (transactions.hasNext()) {
+                writer.writeValue(generator, transactions.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<TransactionExportRow> transactions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        char[] amount = new char[Cents.MAX_LENGTH];
+
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        while (transactions.hasNext()) {
+            TransactionExportRow tx = transactions.next();
+            writer.write(String.valueOf(tx.id()));
+            writer.write(',');
+            writer.write(String.valueOf(tx.sellerId()));
+            writer.write(',');
+            writer.write(amount, 0, Cents.format(tx.amountCents(), amount, 0));
+            writer.write(',');
+            writer.write(tx.paymentType().name());
+            writer.write(',');
+            if (tx.transactionDate() != null) {
+                writer.write(tx.transactionDate().toString());
+            }
+            writer.write(',');
+            writer.write(tx.status().name());
+            writer.write(',');
+            writer.write(tx.createdAt().toString());
+            writer.write('\n');
+        }
+
+        writer.flush();
+    }
+}
@@ -0,0 +1,279 @@
+package org.nikolait.crmsystem.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.config.TransactionIngestionProperties;
+import org.nikolait.crmsystem.dto.TransactionCreateRequest;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.exception.IngestionQueueFullException;
+import org.nikolait.crmsystem.exception.InvalidSellerException;
+import org.nikolait.crmsystem.mapper.TransactionMapper;
+import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.model.Transaction;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.nikolait.crmsystem.service.TransactionIngestionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.transactions.ingestion.write-behind", havingValue = "true")
+public class TransactionIngestionServiceImpl implements TransactionIngestionService {
+
+    private final TransactionRepository transactionRepository;
+    private final SellerCache sellerCache;
+    private final TransactionMapper transactionMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionIngestionProperties properties;
+
+    private final TransactionJournal journal;
+    private final TransactionJournal deadLetters;
+    private final BlockingQueue<Transaction> queue;
+    private final Deque<Long> ids = new ArrayDeque<>();
+    private final List<Transaction> unflushed = new ArrayList<>();
+    private final Lock appendLock = new ReentrantLock();
+    private final Lock flushLock = new ReentrantLock();
+
+    /**
+     * Failed writes of the batch in {@link #unflushed}, not counting database outages; guarded by
+     * {@link #flushLock}.
+     */
+    private int failedAttempts;
+
+    private final Timer flushTimer;
+    private final Counter rejected;
+    private final Counter deadLettered;
+
+    public TransactionIngestionServiceImpl(TransactionRepository transactionRepository,
+                                           SellerCache sellerCache,
+                                           TransactionMapper transactionMapper,
+                                           TransactionTemplate transactionTemplate,
+                                           TransactionIngestionProperties properties,
+                                           MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.sellerCache = sellerCache;
+        this.transactionMapper = transactionMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.journal = new TransactionJournal(properties.journal(), properties.journalFsync());
+        this.deadLetters = new TransactionJournal(properties.deadLetter(), properties.journalFsync());
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        Gauge.builder("transactions.ingestion.queue.depth", this, service -> service.queue.size())
+                .description("Accepted transactions waiting to be written to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("transactions.ingestion.flush")
+                .description("Time to write one batch of queued transactions to the database")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("transactions.ingestion.rejected")
+                .description("Transactions rejected because the ingestion queue was full")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("transactions.ingestion.dead.lettered")
+                .description("Accepted transactions the database rejected, moved to the dead-letter file")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays the journal left by a previous run while the bean is initialized, before requests are
+     * accepted and before the first flush, so that no checkpoint can truncate it first.
+     */
+    @PostConstruct
+    void replayJournalOnStartup() {
+        int replayed = replayJournal();
+
+        if (replayed > 0) {
+            log.info("Replayed {} transactions from the ingestion journal", replayed);
+        }
+    }
+
+    @Override
+    public TransactionResponse enqueuePending(TransactionCreateRequest request) {
+        if (sellerCache.findActive(request.sellerId()).isEmpty()) {
+            throw new InvalidSellerException("Seller not found: " + request.sellerId());
+        }
+
+        Seller seller = new Seller();
+        seller.setId(request.sellerId());
+
+        Transaction transaction = transactionMapper.ToEntity(request);
+        transaction.setSeller(seller);
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCreatedAt(LocalDateTime.now());
+
+        long position;
+        appendLock.lock();
+        try {
+            if (queue.remainingCapacity() == 0) {
+                rejected.increment();
+                throw new IngestionQueueFullException("Transaction ingestion queue is full");
+            }
+            transaction.setId(nextId());
+            position = journal.append(transaction);
+            queue.add(transaction);
+        } finally {
+            appendLock.unlock();
+        }
+        // Outside the lock, so that concurrent requests share one force to disk instead of queueing for it
+        journal.sync(position);
+
+        return transactionMapper.toResponse(transaction);
+    }
+
+    @Override
+    public int flush() {
+        flushLock.lock();
+        try {
+            int flushed = 0;
+            while (!unflushed.isEmpty() || queue.drainTo(unflushed, properties.flushBatchSize()) > 0) {
+                flushed += writeUnflushed();
+                failedAttempts = 0;
+            }
+
+            if (flushed > 0) {
+                checkpoint();
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public int replayJournal() {
+        flushLock.lock();
+        try {
+            List<Transaction> journaled = journal.readAll();
+            int inserted = 0;
+            for (int from = 0; from < journaled.size(); from += properties.flushBatchSize()) {
+                List<Transaction> batch = journaled.subList(
+                        from, Math.min(from + properties.flushBatchSize(), journaled.size())
+                );
+                Integer count = transactionTemplate.execute(status -> transactionRepository.insertAllocated(batch));
+                inserted += count != null ? count : 0;
+            }
+
+            checkpoint();
+            return inserted;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} queued transactions on shutdown, they stay in the journal",
+                    queue.size() + unflushed.size(), e);
+        } finally {
+            journal.close();
+            deadLetters.close();
+        }
+    }
+
+    /**
+     * Writes the batch in {@link #unflushed} and empties it. Once the batch has failed
+     * {@code maxFlushAttempts} times for reasons other than a database outage, its transactions are
+     * written one by one instead, so that the ones that cannot be written are dead-lettered and stop
+     * blocking the queue.
+     *
+     * @return number of written transactions
+     */
+    private int writeUnflushed() {
+        try {
+            Timer.Sample sample = Timer.start();
+            transactionTemplate.executeWithoutResult(status -> transactionRepository.insertAllocated(unflushed));
+            sample.stop(flushTimer);
+        } catch (RuntimeException e) {
+            if (isOutage(e) || ++failedAttempts < properties.maxFlushAttempts()) {
+                throw e;
+            }
+            log.error("Failed to write a batch of {} queued transactions {} times, writing them one by one",
+                    unflushed.size(), failedAttempts, e);
+            return writeUnflushedOneByOne();
+        }
+
+        int written = unflushed.size();
+        unflushed.clear();
+        return written;
+    }
+
+    private int writeUnflushedOneByOne() {
+        int written = 0;
+        for (Iterator<Transaction> it = unflushed.iterator(); it.hasNext(); ) {
+            Transaction transaction = it.next();
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> transactionRepository.insertAllocated(List.of(transaction)));
+                written++;
+            } catch (RuntimeException e) {
+                if (isOutage(e)) {
+                    throw e;
+                }
+                deadLetters.sync(deadLetters.append(transaction));
+                deadLettered.increment();
+                log.error("Moved transaction {} to the dead-letter file {}",
+                        transaction.getId(), properties.deadLetter(), e);
+            }
+            it.remove();
+        }
+        return written;
+    }
+
+    /**
+     * Whether a write failed because the database could not be reached or the write lost a conflict,
+     * rather than because of the transactions themselves; such failures are retried indefinitely.
+     */
+    private static boolean isOutage(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * Truncates the journal once every accepted transaction has been written. Appends and queue
+     * offers happen under the same lock, so an empty queue means the journal holds nothing unwritten.
+     */
+    private void checkpoint() {
+        appendLock.lock();
+        try {
+            if (queue.isEmpty() && unflushed.isEmpty()) {
+                journal.truncate();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Long nextId() {
+        if (ids.isEmpty()) {
+            ids.addAll(transactionRepository.allocateIds(properties.idBlockSize()));
+        }
+        return ids.poll();
+    }
+}
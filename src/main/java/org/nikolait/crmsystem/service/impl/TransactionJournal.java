@@ -0,0 +1,174 @@
+package org.nikolait.crmsystem.service.impl;
+
+import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.model.Transaction;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only file of accepted pending transactions, one
+ * {@code id,sellerId,amount,paymentType,createdAt} line per transaction.
+ *
+ * <p>A line cut short by a crash has no trailing newline; it was never acknowledged to the client
+ * and is cut off when the journal is opened.</p>
+ *
+ * <p>Appends must not run concurrently with each other; {@link #sync(long)} may run concurrently
+ * with appends, so that one force to disk covers every line appended while it waited.</p>
+ */
+class TransactionJournal implements AutoCloseable {
+
+    private final Path path;
+    private final boolean fsync;
+    private final FileChannel channel;
+    private final Lock syncLock = new ReentrantLock();
+
+    /**
+     * Bytes appended since the journal was opened; not reset by {@link #truncate()}.
+     */
+    private volatile long appended;
+
+    /**
+     * Value of {@link #appended} covered by the last force to disk; guarded by {@link #syncLock}.
+     */
+    private long synced;
+
+    TransactionJournal(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            long end = completeLinesLength(Files.readAllBytes(path));
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction journal " + path, e);
+        }
+    }
+
+    /**
+     * Writes one line without forcing it to disk.
+     *
+     * @return position to pass to {@link #sync(long)} to make the line durable
+     */
+    long append(Transaction transaction) {
+        String line = transaction.getId() + ","
+                + transaction.getSeller().getId() + ","
+                + transaction.getAmount().toPlainString() + ","
+                + transaction.getPaymentType().name() + ","
+                + transaction.getCreatedAt() + "\n";
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to transaction journal " + path, e);
+        }
+        appended += buffer.capacity();
+        return appended;
+    }
+
+    /**
+     * Forces lines appended up to {@code position} to disk, unless fsync is off or a concurrent call
+     * has already forced them.
+     */
+    void sync(long position) {
+        if (!fsync) {
+            return;
+        }
+
+        syncLock.lock();
+        try {
+            if (synced >= position) {
+                return;
+            }
+            long target = appended;
+            channel.force(false);
+            synced = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync transaction journal " + path, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    List<Transaction> readAll() {
+        String content;
+        try {
+            content = Files.readString(path, StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transaction journal " + path, e);
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+            transactions.add(parse(content.substring(start, end)));
+            start = end + 1;
+        }
+        return transactions;
+    }
+
+    void truncate() {
+        try {
+            channel.truncate(0);
+            channel.position(0);
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate transaction journal " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close transaction journal " + path, e);
+        }
+    }
+
+    private static long completeLinesLength(byte[] content) {
+        int end = content.length;
+        while (end > 0 && content[end - 1] != '\n') {
+            end--;
+        }
+        return end;
+    }
+
+    private static Transaction parse(String line) {
+        String[] fields = line.split(",");
+        Seller seller = new Seller();
+        seller.setId(Long.parseLong(fields[1]));
+
+        Transaction transaction = new Transaction();
+        transaction.setId(Long.parseLong(fields[0]));
+        transaction.setSeller(seller);
+        transaction.setAmount(new BigDecimal(fields[2]));
+        transaction.setPaymentType(PaymentType.valueOf(fields[3]));
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setCreatedAt(LocalDateTime.parse(fields[4]));
+        return transaction;
+    }
+}
@@ -0,0 +1,34 @@
+package org.nikolait.crmsystem.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.config.TransactionPartitionProperties;
+import org.nikolait.crmsystem.repository.TransactionPartitionRepository;
+import org.nikolait.crmsystem.service.TransactionPartitionService;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionServiceImpl implements TransactionPartitionService {
+
+    private final TransactionPartitionRepository transactionPartitionRepository;
+    private final TransactionPartitionProperties partitionProperties;
+
+    @Override
+    public int createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        return createPartitions(current, current.plusMonths(partitionProperties.monthsAhead()));
+    }
+
+    @Override
+    public int createPartitions(YearMonth from, YearMonth to) {
+        int created = 0;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (transactionPartitionRepository.createMonthlyPartition(month.atDay(1))) {
+                created++;
+            }
+        }
+        return created;
+    }
+}
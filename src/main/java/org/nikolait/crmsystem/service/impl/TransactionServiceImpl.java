@@ -1,45 +1,122 @@
 package org.nikolait.crmsystem.service.impl;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.config.TransactionBatchProperties;
+import org.nikolait.crmsystem.config.TransactionCompletionProperties;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
+import org.nikolait.crmsystem.dto.TransactionBatchItemResponse;
+import org.nikolait.crmsystem.dto.TransactionBatchResponse;
+import org.nikolait.crmsystem.dto.TransactionCompletionItemResponse;
+import org.nikolait.crmsystem.dto.TransactionCompletionResponse;
 import org.nikolait.crmsystem.dto.TransactionCreateRequest;
 import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.dto.enums.BatchItemStatus;
+import org.nikolait.crmsystem.dto.enums.CompletionOutcome;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
 import org.nikolait.crmsystem.exception.InvalidSellerException;
 import org.nikolait.crmsystem.exception.InvalidTransactionException;
 import org.nikolait.crmsystem.mapper.TransactionMapper;
 import org.nikolait.crmsystem.model.Seller;
 import org.nikolait.crmsystem.model.Transaction;
 import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.model.projection.TransactionStatusProjection;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
 import org.nikolait.crmsystem.repository.SellerRepository;
 import org.nikolait.crmsystem.repository.TransactionRepository;
 import org.nikolait.crmsystem.service.TransactionService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    /**
+     * Attempts at completing one chunk of a seller's transactions that keeps losing row lock conflicts.
+     */
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
     private final TransactionRepository transactionRepository;
     private final SellerRepository sellerRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final SellerCache sellerCache;
     private final TransactionMapper transactionMapper;
+    private final Validator validator;
+    private final TransactionBatchProperties batchProperties;
+    private final TransactionCompletionProperties completionProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getAll(Pageable pageable) {
         return transactionRepository.findAll(pageable)
                 .map(transactionMapper::toResponse);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getBySeller(Long sellerId, Pageable pageable) {
         return transactionRepository.findAllBySellerId(sellerId, pageable)
                 .map(transactionMapper::toResponse);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TransactionResponse> getAllAfter(
+            Long sellerId,
+            String after,
+            int size,
+            CursorOrder order
+    ) {
+        KeysetCursor cursor = KeysetCursor.decode(after, order);
+        int limit = size + 1;
+
+        List<Transaction> transactions = switch (order) {
+            case ID -> sellerId != null
+                    ? transactionRepository.findAllBySellerIdAfter(sellerId, cursor.id(), Limit.of(limit))
+                    : transactionRepository.findAllAfter(cursor.id(), Limit.of(limit));
+            case TRANSACTION_DATE -> sellerId != null
+                    ? transactionRepository.findAllBySellerIdAndTransactionDateAfter(
+                    sellerId, cursor.date(), cursor.id(), limit)
+                    : transactionRepository.findAllByTransactionDateAfter(cursor.date(), cursor.id(), limit);
+        };
+
+        boolean hasNext = transactions.size() > size;
+        List<Transaction> page = hasNext ? transactions.subList(0, size) : transactions;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Transaction last = page.getLast();
+            nextCursor = KeysetCursor.after(order, last.getTransactionDate(), last.getId()).encode();
+        }
+
+        return new CursorPageResponse<>(
+                page.stream().map(transactionMapper::toResponse).toList(),
+                nextCursor
+        );
+    }
+
+    @Override
+    @Transactional
     public TransactionResponse getById(Long id) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Transaction not found: " + id));
@@ -47,36 +124,338 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionMapper.toResponse(transaction);
     }
 
+    @Override
+    @Transactional
+    public TransactionStatus getStatus(Long id) {
+        return transactionRepository.findStatusById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Transaction not found: " + id));
+    }
+
     @Override
     public TransactionResponse createPending(TransactionCreateRequest request) {
-        Seller seller = sellerRepository.findByIdAndDeletedFalse(request.sellerId())
-                .orElseThrow(() -> new InvalidSellerException("Seller not found: " + request.sellerId()));
+        // Resolved before the transaction, so that a cache miss does not need a second connection
+        if (sellerCache.findActive(request.sellerId()).isEmpty()) {
+            throw new InvalidSellerException("Seller not found: " + request.sellerId());
+        }
+
+        return transactionTemplate.execute(status -> {
+            Transaction transaction = transactionMapper.ToEntity(request);
+            transaction.setSeller(sellerRepository.getReferenceById(request.sellerId()));
+            transaction.setStatus(TransactionStatus.PENDING);
+
+            return transactionMapper.toResponse(transactionRepository.save(transaction));
+        });
+    }
+
+    @Override
+    @Transactional
+    public TransactionBatchResponse createPendingBatch(List<TransactionCreateRequest> requests) {
+        if (requests.size() > batchProperties.maxItems()) {
+            throw new ValidationException(
+                    "Batch size must not exceed " + batchProperties.maxItems() + " items"
+            );
+        }
+
+        TransactionBatchItemResponse[] results = new TransactionBatchItemResponse[requests.size()];
+        Map<Integer, TransactionCreateRequest> validRequests = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionCreateRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = rejected(i, error);
+            } else {
+                validRequests.put(i, request);
+            }
+        }
 
-        Transaction transaction = transactionMapper.ToEntity(request);
-        transaction.setSeller(seller);
-        transaction.setStatus(TransactionStatus.PENDING);
+        Map<Long, Seller> sellers = findActiveSellers(validRequests.values());
 
-        return transactionMapper.toResponse(transactionRepository.save(transaction));
+        List<Integer> indexes = new ArrayList<>(validRequests.size());
+        List<Transaction> transactions = new ArrayList<>(validRequests.size());
+
+        validRequests.forEach((index, request) -> {
+            Seller seller = sellers.get(request.sellerId());
+            if (seller == null) {
+                results[index] = rejected(index, "Seller not found: " + request.sellerId());
+                return;
+            }
+
+            Transaction transaction = transactionMapper.ToEntity(request);
+            transaction.setSeller(seller);
+            transaction.setStatus(TransactionStatus.PENDING);
+
+            indexes.add(index);
+            transactions.add(transaction);
+        });
+
+        transactionRepository.insertPending(transactions);
+
+        for (int i = 0; i < transactions.size(); i++) {
+            int index = indexes.get(i);
+            results[index] = new TransactionBatchItemResponse(
+                    index,
+                    BatchItemStatus.CREATED,
+                    transactionMapper.toResponse(transactions.get(i)),
+                    null
+            );
+        }
+
+        return new TransactionBatchResponse(
+                transactions.size(),
+                requests.size() - transactions.size(),
+                List.of(results)
+        );
     }
 
     @Override
     public TransactionResponse complete(Long id) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Transaction not found: " + id));
+        Optional<TransactionResponse> completed;
+        try {
+            completed = transactionTemplate.execute(status -> completePending(id));
+        } catch (PessimisticLockingFailureException ex) {
+            // A concurrent call changed the row first and the database rolled this update back
+            completed = Optional.empty();
+        }
+
+        return completed.orElseGet(() -> transactionTemplate.execute(status -> getAlreadyCompleted(id)));
+    }
+
+    @Override
+    public TransactionCompletionResponse completeAll(List<Long> ids) {
+        if (ids.size() > completionProperties.maxIds()) {
+            throw new ValidationException(
+                    "Number of ids must not exceed " + completionProperties.maxIds()
+            );
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("Transaction ids must not be null");
+        }
+
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        Map<Long, TransactionCompletionItemResponse> outcomes = new HashMap<>();
+
+        int chunkSize = completionProperties.chunkSize();
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            outcomes.putAll(completeChunkSplittingOnConflict(chunk));
+        }
+
+        return toCompletionResponse(distinctIds.stream().map(outcomes::get).toList());
+    }
+
+    @Override
+    public TransactionCompletionResponse completeAllBySeller(
+            Long sellerId,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo
+    ) {
+        int chunkSize = completionProperties.chunkSize();
+        List<TransactionCompletionItemResponse> items = new ArrayList<>();
+        List<TransactionResponse> completed;
+
+        do {
+            completed = completeSellerChunkRetryingOnConflict(sellerId, createdFrom, createdTo, chunkSize);
+
+            completed.forEach(t -> items.add(
+                    new TransactionCompletionItemResponse(t.id(), CompletionOutcome.COMPLETED, null)
+            ));
+        } while (!completed.isEmpty());
+
+        return toCompletionResponse(items);
+    }
+
+    private Optional<TransactionResponse> completePending(Long id) {
+        Optional<TransactionResponse> completed = transactionRepository.completePending(id, LocalDateTime.now());
+
+        if (completed.isEmpty()) {
+            return completed;
+        }
+
+        TransactionResponse response = completed.get();
+        salesRollupRepository.addCompletedTransaction(
+                response.sellerId(),
+                response.transactionDate(),
+                response.amount()
+        );
+        eventPublisher.publishEvent(new TransactionCompletedEvent(
+                response.id(),
+                response.sellerId(),
+                response.amount(),
+                response.transactionDate(),
+                response.paymentType()
+        ));
+
+        return completed;
+    }
+
+    /**
+     * Completes a chunk in its own transaction. If it loses a row lock conflict with a concurrent
+     * completion, the whole chunk is rolled back, so it is split in halves and each half is completed
+     * again. A single id that still conflicts is retried once: by then the concurrent call has settled
+     * its row, so only its status is left to report.
+     */
+    private Map<Long, TransactionCompletionItemResponse> completeChunkSplittingOnConflict(List<Long> ids) {
+        try {
+            return transactionTemplate.execute(status -> completeChunk(ids));
+        } catch (PessimisticLockingFailureException ex) {
+            if (ids.size() == 1) {
+                return transactionTemplate.execute(status -> completeChunk(ids));
+            }
+
+            int half = ids.size() / 2;
+            Map<Long, TransactionCompletionItemResponse> outcomes =
+                    new HashMap<>(completeChunkSplittingOnConflict(ids.subList(0, half)));
+            outcomes.putAll(completeChunkSplittingOnConflict(ids.subList(half, ids.size())));
+            return outcomes;
+        }
+    }
+
+    /**
+     * Completes the next chunk of a seller's PENDING transactions in its own transaction, running it
+     * again if it loses a row lock conflict with a concurrent completion: rows that call completed
+     * are no longer PENDING and are not picked up by the retry.
+     */
+    private List<TransactionResponse> completeSellerChunkRetryingOnConflict(
+            Long sellerId,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            int chunkSize
+    ) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    List<TransactionResponse> chunk = transactionRepository.completePendingBySeller(
+                            sellerId, createdFrom, createdTo, now, chunkSize
+                    );
+                    recordCompleted(chunk, now);
+                    return chunk;
+                });
+            } catch (PessimisticLockingFailureException ex) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private Map<Long, TransactionCompletionItemResponse> completeChunk(List<Long> ids) {
+        Map<Long, TransactionCompletionItemResponse> outcomes = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionResponse> completed = transactionRepository.completePending(ids, now);
+        recordCompleted(completed, now);
+
+        completed.forEach(t -> outcomes.put(
+                t.id(), new TransactionCompletionItemResponse(t.id(), CompletionOutcome.COMPLETED, null)
+        ));
+
+        List<Long> remaining = ids.stream()
+                .filter(id -> !outcomes.containsKey(id))
+                .toList();
+        if (remaining.isEmpty()) {
+            return outcomes;
+        }
+
+        Map<Long, TransactionStatus> statuses = transactionRepository.findStatusesByIdIn(remaining)
+                .stream()
+                .collect(Collectors.toMap(TransactionStatusProjection::getId, TransactionStatusProjection::getStatus));
+
+        for (Long id : remaining) {
+            TransactionStatus status = statuses.get(id);
+            TransactionCompletionItemResponse outcome;
+            if (status == null) {
+                outcome = new TransactionCompletionItemResponse(
+                        id, CompletionOutcome.NOT_FOUND, "Transaction not found: " + id
+                );
+            } else if (status == TransactionStatus.COMPLETED) {
+                outcome = new TransactionCompletionItemResponse(id, CompletionOutcome.ALREADY_COMPLETED, null);
+            } else {
+                outcome = new TransactionCompletionItemResponse(
+                        id, CompletionOutcome.REJECTED, "Transaction cannot be completed from status: " + status
+                );
+            }
+            outcomes.put(id, outcome);
+        }
+
+        return outcomes;
+    }
 
-        if (transaction.getStatus() == TransactionStatus.COMPLETED) {
-            return transactionMapper.toResponse(transaction);
+    private void recordCompleted(List<TransactionResponse> completed, LocalDateTime transactionDate) {
+        if (completed.isEmpty()) {
+            return;
         }
 
-        if (transaction.getStatus() != TransactionStatus.PENDING) {
+        salesRollupRepository.addCompletedTransactions(transactionDate, completed);
+        eventPublisher.publishEvent(new TransactionBatchCompletedEvent(
+                transactionDate,
+                completed.stream()
+                        .map(t -> new TransactionCompletedEvent(
+                                t.id(), t.sellerId(), t.amount(), transactionDate, t.paymentType()))
+                        .toList()
+        ));
+    }
+
+    private TransactionCompletionResponse toCompletionResponse(List<TransactionCompletionItemResponse> items) {
+        Map<CompletionOutcome, Long> counts = items.stream()
+                .collect(Collectors.groupingBy(TransactionCompletionItemResponse::outcome, Collectors.counting()));
+
+        return new TransactionCompletionResponse(
+                counts.getOrDefault(CompletionOutcome.COMPLETED, 0L).intValue(),
+                counts.getOrDefault(CompletionOutcome.ALREADY_COMPLETED, 0L).intValue(),
+                counts.getOrDefault(CompletionOutcome.REJECTED, 0L).intValue(),
+                counts.getOrDefault(CompletionOutcome.NOT_FOUND, 0L).intValue(),
+                items
+        );
+    }
+
+    /**
+     * Resolves a completion that updated nothing or lost to a concurrent one: the transaction is missing,
+     * already completed (possibly by a concurrent call) or in a status that cannot be completed.
+     */
+    private TransactionResponse getAlreadyCompleted(Long id) {
+        Transaction transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Transaction not found: " + id));
+
+        if (transaction.getStatus() != TransactionStatus.COMPLETED) {
             throw new InvalidTransactionException(
                     "Transaction cannot be completed from status: " + transaction.getStatus()
             );
         }
 
-        transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setTransactionDate(LocalDateTime.now());
+        return transactionMapper.toResponse(transaction);
+    }
+
+    private String validate(TransactionCreateRequest request) {
+        if (request == null) {
+            return "Transaction must not be null";
+        }
+
+        Set<ConstraintViolation<TransactionCreateRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Map<Long, Seller> findActiveSellers(Collection<TransactionCreateRequest> requests) {
+        Set<Long> sellerIds = requests.stream()
+                .map(TransactionCreateRequest::sellerId)
+                .collect(Collectors.toSet());
+
+        if (sellerIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return sellerRepository.findAllByIdInAndDeletedFalse(sellerIds).stream()
+                .collect(Collectors.toMap(Seller::getId, Function.identity()));
+    }
 
-        return transactionMapper.toResponse(transactionRepository.save(transaction));
+    private TransactionBatchItemResponse rejected(int index, String error) {
+        return new TransactionBatchItemResponse(index, BatchItemStatus.REJECTED, null, error);
     }
 }
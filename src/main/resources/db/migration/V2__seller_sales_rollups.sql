@@ -0,0 +1,73 @@
+-- Per-seller totals of completed transactions, maintained on completion
+CREATE TABLE seller_sales_daily
+(
+    seller_id    BIGINT         NOT NULL,
+    period_start DATE           NOT NULL,
+    tx_count     BIGINT         NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_seller_sales_daily
+        PRIMARY KEY (seller_id, period_start),
+    CONSTRAINT fk_seller_sales_daily_seller
+        FOREIGN KEY (seller_id) REFERENCES sellers (id)
+);
+
+CREATE TABLE seller_sales_monthly
+(
+    seller_id    BIGINT         NOT NULL,
+    period_start DATE           NOT NULL,
+    tx_count     BIGINT         NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_seller_sales_monthly
+        PRIMARY KEY (seller_id, period_start),
+    CONSTRAINT fk_seller_sales_monthly_seller
+        FOREIGN KEY (seller_id) REFERENCES sellers (id)
+);
+
+CREATE TABLE seller_sales_yearly
+(
+    seller_id    BIGINT         NOT NULL,
+    period_start DATE           NOT NULL,
+    tx_count     BIGINT         NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_seller_sales_yearly
+        PRIMARY KEY (seller_id, period_start),
+    CONSTRAINT fk_seller_sales_yearly_seller
+        FOREIGN KEY (seller_id) REFERENCES sellers (id)
+);
+
+-- Indexes for period analytics
+CREATE INDEX idx_seller_sales_daily_period
+    ON seller_sales_daily (period_start) INCLUDE (seller_id, total_amount);
+
+CREATE INDEX idx_seller_sales_monthly_period
+    ON seller_sales_monthly (period_start) INCLUDE (seller_id, total_amount);
+
+CREATE INDEX idx_seller_sales_yearly_period
+    ON seller_sales_yearly (period_start) INCLUDE (seller_id, total_amount);
+
+-- Backfill from existing completed transactions
+INSERT INTO seller_sales_daily (seller_id, period_start, tx_count, total_amount)
+SELECT t.seller_id,
+       CAST(t.transaction_date AS DATE),
+       COUNT(*),
+       SUM(t.amount)
+FROM transactions t
+WHERE t.status = 'COMPLETED'
+  AND t.transaction_date IS NOT NULL
+GROUP BY t.seller_id, CAST(t.transaction_date AS DATE);
+
+INSERT INTO seller_sales_monthly (seller_id, period_start, tx_count, total_amount)
+SELECT d.seller_id,
+       CAST(date_trunc('month', d.period_start) AS DATE),
+       SUM(d.tx_count),
+       SUM(d.total_amount)
+FROM seller_sales_daily d
+GROUP BY d.seller_id, CAST(date_trunc('month', d.period_start) AS DATE);
+
+INSERT INTO seller_sales_yearly (seller_id, period_start, tx_count, total_amount)
+SELECT m.seller_id,
+       CAST(date_trunc('year', m.period_start) AS DATE),
+       SUM(m.tx_count),
+       SUM(m.total_amount)
+FROM seller_sales_monthly m
+GROUP BY m.seller_id, CAST(date_trunc('year', m.period_start) AS DATE);
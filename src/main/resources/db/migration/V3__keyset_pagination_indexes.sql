@@ -0,0 +1,18 @@
+-- Indexes matching the keyset (cursor) listing orders.
+-- Each replaces an existing index that is a prefix of it.
+CREATE INDEX idx_sellers_active_id
+    ON sellers (id)
+    WHERE deleted = FALSE;
+
+CREATE INDEX idx_transactions_seller_id_id
+    ON transactions (seller_id, id);
+
+CREATE INDEX idx_transactions_date_id
+    ON transactions (transaction_date, id);
+
+CREATE INDEX idx_transactions_seller_date_id
+    ON transactions (seller_id, transaction_date, id);
+
+DROP INDEX idx_transactions_seller_id;
+DROP INDEX idx_transaction_date;
+DROP INDEX idx_transactions_seller_date;
@@ -0,0 +1,10 @@
+-- Partial covering indexes for analytics over completed transactions.
+-- Queries filtering status = 'COMPLETED' by date range or by seller
+-- are answered by index-only scans without visiting the heap.
+CREATE INDEX idx_transactions_completed_date
+    ON transactions (transaction_date) INCLUDE (seller_id, amount)
+    WHERE status = 'COMPLETED';
+
+CREATE INDEX idx_transactions_completed_seller_date
+    ON transactions (seller_id, transaction_date) INCLUDE (amount)
+    WHERE status = 'COMPLETED';
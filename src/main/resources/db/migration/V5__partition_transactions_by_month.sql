@@ -0,0 +1,102 @@
+-- Range-partition transactions by month of transaction_date.
+-- Rows without a date (PENDING) live in the default partition.
+-- A partitioned table cannot have a primary key on id alone, so id
+-- uniqueness relies on transactions_id_seq and id is indexed per partition.
+ALTER TABLE transactions
+    RENAME TO transactions_unpartitioned;
+
+ALTER SEQUENCE transactions_id_seq OWNED BY NONE;
+
+CREATE TABLE transactions
+(
+    id               BIGINT         NOT NULL DEFAULT nextval('transactions_id_seq'),
+    seller_id        BIGINT         NOT NULL,
+    amount           NUMERIC(19, 2) NOT NULL,
+    payment_type     VARCHAR(32)    NOT NULL,
+    status           VARCHAR(16)    NOT NULL DEFAULT 'PENDING',
+    created_at       TIMESTAMP      NOT NULL DEFAULT NOW(),
+    transaction_date TIMESTAMP
+) PARTITION BY RANGE (transaction_date);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE TABLE transactions_default
+    PARTITION OF transactions DEFAULT;
+
+-- Creates the monthly partition containing p_month unless it exists.
+-- Rows of that month already sitting in the default partition are moved
+-- into the new partition before it is attached.
+CREATE FUNCTION create_transactions_partition(p_month DATE)
+    RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_start DATE := date_trunc('month', p_month);
+    v_end   DATE := v_start + INTERVAL '1 month';
+    v_name  TEXT := 'transactions_' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format(
+            'CREATE TABLE %I (LIKE transactions INCLUDING DEFAULTS,'
+                || ' CHECK (transaction_date IS NOT NULL'
+                || ' AND transaction_date >= %L AND transaction_date < %L))',
+            v_name, v_start, v_end);
+
+    EXECUTE format(
+            'WITH moved AS (DELETE FROM transactions_default'
+                || ' WHERE transaction_date >= %L AND transaction_date < %L RETURNING *)'
+                || ' INSERT INTO %I SELECT * FROM moved',
+            v_start, v_end, v_name);
+
+    EXECUTE format(
+            'ALTER TABLE transactions ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            v_name, v_start, v_end);
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Partitions for existing data and three months ahead
+SELECT create_transactions_partition(CAST(m AS DATE))
+FROM generate_series(
+             date_trunc('month', LEAST(
+                     (SELECT MIN(transaction_date) FROM transactions_unpartitioned),
+                     LOCALTIMESTAMP)),
+             date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months',
+             INTERVAL '1 month'
+     ) AS m;
+
+INSERT INTO transactions (id, seller_id, amount, payment_type, status, created_at, transaction_date)
+SELECT id, seller_id, amount, payment_type, status, created_at, transaction_date
+FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transactions_seller
+        FOREIGN KEY (seller_id) REFERENCES sellers (id);
+
+-- Partitioned indexes, created on every current and future partition
+CREATE INDEX idx_transactions_id
+    ON transactions (id);
+
+CREATE INDEX idx_transactions_seller_id_id
+    ON transactions (seller_id, id);
+
+CREATE INDEX idx_transactions_date_id
+    ON transactions (transaction_date, id);
+
+CREATE INDEX idx_transactions_seller_date_id
+    ON transactions (seller_id, transaction_date, id);
+
+CREATE INDEX idx_transactions_completed_date
+    ON transactions (transaction_date) INCLUDE (seller_id, amount)
+    WHERE status = 'COMPLETED';
+
+CREATE INDEX idx_transactions_completed_seller_date
+    ON transactions (seller_id, transaction_date) INCLUDE (amount)
+    WHERE status = 'COMPLETED';
@@ -0,0 +1,20 @@
+-- Hand out ids in blocks of 50 so that Hibernate can allocate them with the
+-- pooled optimizer and batch inserts instead of inserting on every save.
+--
+-- With the pooled optimizer a nextval() result v reserves ids v - 49 .. v, so
+-- the sequences are moved past both the stored ids and their current value.
+-- Column defaults keep using nextval() and remain safe: each call owns its value.
+
+ALTER SEQUENCE sellers_id_seq INCREMENT BY 50;
+
+SELECT setval('sellers_id_seq', GREATEST(
+        (SELECT COALESCE(MAX(id), 0) FROM sellers),
+        (SELECT last_value FROM sellers_id_seq)
+       ));
+
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
+
+SELECT setval('transactions_id_seq', GREATEST(
+        (SELECT COALESCE(MAX(id), 0) FROM transactions),
+        (SELECT last_value FROM transactions_id_seq)
+       ));
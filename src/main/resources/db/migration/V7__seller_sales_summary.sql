@@ -0,0 +1,27 @@
+-- Lifetime sales summary of every seller, kept up to date by the same statement
+-- that adds a completion to the sales rollups, so that a seller profile with its
+-- stats is a single primary-key lookup.
+
+ALTER TABLE sellers
+    ADD COLUMN completed_count        BIGINT         NOT NULL DEFAULT 0,
+    ADD COLUMN completed_amount       NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    ADD COLUMN first_transaction_date TIMESTAMP,
+    ADD COLUMN last_transaction_date  TIMESTAMP;
+
+UPDATE sellers s
+SET completed_count        = a.tx_count,
+    completed_amount       = a.total_amount,
+    first_transaction_date = a.first_date,
+    last_transaction_date  = a.last_date
+FROM (
+    SELECT t.seller_id,
+           COUNT(*)                AS tx_count,
+           SUM(t.amount)           AS total_amount,
+           MIN(t.transaction_date) AS first_date,
+           MAX(t.transaction_date) AS last_date
+    FROM transactions t
+    WHERE t.status = 'COMPLETED'
+      AND t.transaction_date IS NOT NULL
+    GROUP BY t.seller_id
+) a
+WHERE a.seller_id = s.id;
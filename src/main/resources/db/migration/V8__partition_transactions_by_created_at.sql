@@ -0,0 +1,107 @@
+-- Re-partition transactions by month of created_at instead of transaction_date.
+-- created_at is set once on insert, so completing a transaction updates its row
+-- in place instead of moving it out of the default partition, which made a
+-- concurrent completion of the same row fail with a serialization error.
+-- Being immutable and NOT NULL, created_at can also be part of the primary key,
+-- which Postgres requires to contain the partition key: (id, created_at) is now
+-- enforced, where V5 left id with a non-unique index only.
+ALTER SEQUENCE transactions_id_seq OWNED BY NONE;
+
+CREATE TABLE transactions_by_date_copy AS
+SELECT id, seller_id, amount, payment_type, status, created_at, transaction_date
+FROM transactions;
+
+DROP TABLE transactions;
+
+CREATE TABLE transactions
+(
+    id               BIGINT         NOT NULL DEFAULT nextval('transactions_id_seq'),
+    seller_id        BIGINT         NOT NULL,
+    amount           NUMERIC(19, 2) NOT NULL,
+    payment_type     VARCHAR(32)    NOT NULL,
+    status           VARCHAR(16)    NOT NULL DEFAULT 'PENDING',
+    created_at       TIMESTAMP      NOT NULL DEFAULT NOW(),
+    transaction_date TIMESTAMP,
+    CONSTRAINT pk_transactions
+        PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE TABLE transactions_default
+    PARTITION OF transactions DEFAULT;
+
+-- Creates the monthly partition containing p_month unless it exists.
+-- Rows of that month already sitting in the default partition are moved
+-- into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION create_transactions_partition(p_month DATE)
+    RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_start DATE := date_trunc('month', p_month);
+    v_end   DATE := v_start + INTERVAL '1 month';
+    v_name  TEXT := 'transactions_' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format(
+            'CREATE TABLE %I (LIKE transactions INCLUDING DEFAULTS,'
+                || ' CHECK (created_at >= %L AND created_at < %L))',
+            v_name, v_start, v_end);
+
+    EXECUTE format(
+            'WITH moved AS (DELETE FROM transactions_default'
+                || ' WHERE created_at >= %L AND created_at < %L RETURNING *)'
+                || ' INSERT INTO %I SELECT * FROM moved',
+            v_start, v_end, v_name);
+
+    EXECUTE format(
+            'ALTER TABLE transactions ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            v_name, v_start, v_end);
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Partitions for existing data and three months ahead
+SELECT create_transactions_partition(CAST(m AS DATE))
+FROM generate_series(
+             date_trunc('month', LEAST(
+                     (SELECT MIN(created_at) FROM transactions_by_date_copy),
+                     LOCALTIMESTAMP)),
+             date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months',
+             INTERVAL '1 month'
+     ) AS m;
+
+INSERT INTO transactions (id, seller_id, amount, payment_type, status, created_at, transaction_date)
+SELECT id, seller_id, amount, payment_type, status, created_at, transaction_date
+FROM transactions_by_date_copy;
+
+DROP TABLE transactions_by_date_copy;
+
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transactions_seller
+        FOREIGN KEY (seller_id) REFERENCES sellers (id);
+
+-- Partitioned indexes, created on every current and future partition.
+-- Lookups by id use the primary key, so no separate index on id is needed.
+CREATE INDEX idx_transactions_seller_id_id
+    ON transactions (seller_id, id);
+
+CREATE INDEX idx_transactions_date_id
+    ON transactions (transaction_date, id);
+
+CREATE INDEX idx_transactions_seller_date_id
+    ON transactions (seller_id, transaction_date, id);
+
+CREATE INDEX idx_transactions_completed_date
+    ON transactions (transaction_date) INCLUDE (seller_id, amount)
+    WHERE status = 'COMPLETED';
+
+CREATE INDEX idx_transactions_completed_seller_date
+    ON transactions (seller_id, transaction_date) INCLUDE (amount)
+    WHERE status = 'COMPLETED';
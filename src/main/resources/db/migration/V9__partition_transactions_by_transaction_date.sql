@@ -0,0 +1,119 @@
+-- Partition transactions by month of transaction_date again, as in V5.
+-- Partitioning by created_at (V8) kept a completed row in place, but period
+-- analytics, the rollup rebuild and the completed-since streams filter on
+-- transaction_date and had to scan every partition. PENDING rows have no date
+-- and live in the default partition; completing one moves it into its monthly
+-- partition, and a concurrent completion of the same row fails with a
+-- serialization error that the completion paths already retry.
+--
+-- A unique constraint on a partitioned table must contain the partition key,
+-- and transaction_date is nullable, so id cannot be the primary key. Ids are
+-- unique because every row takes its id from transactions_id_seq, either by
+-- the column default or by TransactionBatchRepository allocating it: rows
+-- must never be inserted with an id from anywhere else. Each partition has a
+-- unique index on id that enforces this within the partition, including for a
+-- row moving in on completion, and that lookups by id probe.
+ALTER SEQUENCE transactions_id_seq OWNED BY NONE;
+
+CREATE TABLE transactions_by_created_at_copy AS
+SELECT id, seller_id, amount, payment_type, status, created_at, transaction_date
+FROM transactions;
+
+DROP TABLE transactions;
+
+CREATE TABLE transactions
+(
+    id               BIGINT         NOT NULL DEFAULT nextval('transactions_id_seq'),
+    seller_id        BIGINT         NOT NULL,
+    amount           NUMERIC(19, 2) NOT NULL,
+    payment_type     VARCHAR(32)    NOT NULL,
+    status           VARCHAR(16)    NOT NULL DEFAULT 'PENDING',
+    created_at       TIMESTAMP      NOT NULL DEFAULT NOW(),
+    transaction_date TIMESTAMP
+) PARTITION BY RANGE (transaction_date);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE TABLE transactions_default
+    PARTITION OF transactions DEFAULT;
+
+CREATE UNIQUE INDEX transactions_default_id_key
+    ON transactions_default (id);
+
+-- Creates the monthly partition containing p_month unless it exists.
+-- Rows of that month already sitting in the default partition are moved
+-- into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION create_transactions_partition(p_month DATE)
+    RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_start DATE := date_trunc('month', p_month);
+    v_end   DATE := v_start + INTERVAL '1 month';
+    v_name  TEXT := 'transactions_' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format(
+            'CREATE TABLE %I (LIKE transactions INCLUDING DEFAULTS,'
+                || ' CHECK (transaction_date IS NOT NULL'
+                || ' AND transaction_date >= %L AND transaction_date < %L))',
+            v_name, v_start, v_end);
+
+    EXECUTE format('CREATE UNIQUE INDEX %I ON %I (id)', v_name || '_id_key', v_name);
+
+    EXECUTE format(
+            'WITH moved AS (DELETE FROM transactions_default'
+                || ' WHERE transaction_date >= %L AND transaction_date < %L RETURNING *)'
+                || ' INSERT INTO %I SELECT * FROM moved',
+            v_start, v_end, v_name);
+
+    EXECUTE format(
+            'ALTER TABLE transactions ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            v_name, v_start, v_end);
+
+    RETURN TRUE;
+END;
+$$;
+
+-- Partitions for existing data and three months ahead
+SELECT create_transactions_partition(CAST(m AS DATE))
+FROM generate_series(
+             date_trunc('month', LEAST(
+                     (SELECT MIN(transaction_date) FROM transactions_by_created_at_copy),
+                     LOCALTIMESTAMP)),
+             date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months',
+             INTERVAL '1 month'
+     ) AS m;
+
+INSERT INTO transactions (id, seller_id, amount, payment_type, status, created_at, transaction_date)
+SELECT id, seller_id, amount, payment_type, status, created_at, transaction_date
+FROM transactions_by_created_at_copy;
+
+DROP TABLE transactions_by_created_at_copy;
+
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transactions_seller
+        FOREIGN KEY (seller_id) REFERENCES sellers (id);
+
+-- Partitioned indexes, created on every current and future partition.
+-- Lookups by id use the unique index of each partition.
+CREATE INDEX idx_transactions_seller_id_id
+    ON transactions (seller_id, id);
+
+CREATE INDEX idx_transactions_date_id
+    ON transactions (transaction_date, id);
+
+CREATE INDEX idx_transactions_seller_date_id
+    ON transactions (seller_id, transaction_date, id);
+
+CREATE INDEX idx_transactions_completed_date
+    ON transactions (transaction_date) INCLUDE (seller_id, amount)
+    WHERE status = 'COMPLETED';
+
+CREATE INDEX idx_transactions_completed_seller_date
+    ON transactions (seller_id, transaction_date) INCLUDE (amount)
+    WHERE status = 'COMPLETED';
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.nikolait.crmsystem.repository.SellerRepository;
 import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.nikolait.crmsystem.service.SalesRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
@@ -27,6 +28,9 @@ public abstract class IntegrationTestBase {
     @Autowired
     protected SellerRepository sellerRepository;
 
+    @Autowired
+    protected SalesRollupService salesRollupService;
+
     @BeforeEach
     protected void setUpRestAssured() {
         RestAssured.baseURI = "http://localhost";
@@ -38,6 +42,7 @@ public abstract class IntegrationTestBase {
     @AfterEach
     protected void tearDown() {
         transactionRepository.deleteAll();
+        salesRollupService.rebuild();
         sellerRepository.deleteAll();
         RestAssured.reset();
     }
@@ -0,0 +1,50 @@
+package org.nikolait.crmsystem.actuator;
+
+import org.junit.jupiter.api.Test;
+import org.nikolait.crmsystem.IntegrationTestBase;
+import org.nikolait.crmsystem.model.Seller;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+
+class PrometheusEndpointIntegrationTest extends IntegrationTestBase {
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void prometheus_exposesRepositoryHibernateAndPoolMetrics() {
+        Seller seller = sellerRepository.save(
+                Seller.builder()
+                        .name("Metered")
+                        .contactInfo("metered@example.com")
+                        .deleted(false)
+                        .build()
+        );
+
+        given()
+                .pathParam("id", seller.getId())
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(200);
+
+        given()
+                .port(managementPort)
+                .basePath("/actuator")
+                .when()
+                .get("/prometheus")
+                .then()
+                .statusCode(200)
+                .body(allOf(
+                        containsString("spring_data_repository_invocations_seconds_bucket{"),
+                        containsString("method=\"save\""),
+                        containsString("hibernate_sessions_open_total"),
+                        containsString("hikaricp_connections_active"),
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("db_queries_slow_seconds_count")
+                ));
+    }
+}
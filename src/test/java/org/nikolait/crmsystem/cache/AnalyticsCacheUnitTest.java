@@ -0,0 +1,82 @@
+package org.nikolait.crmsystem.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.nikolait.crmsystem.config.AnalyticsCacheProperties;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsCacheUnitTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AnalyticsCache cache = new AnalyticsCache(
+            new AnalyticsCacheProperties(100, Duration.ofHours(24), Duration.ofMinutes(1)),
+            meterRegistry
+    );
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void completionEvictsOnlyPeriodsContainingTransactionDate() {
+        LocalDateTime currentDay = LocalDate.now().atStartOfDay();
+        LocalDateTime previousDay = currentDay.minusDays(1);
+
+        cache.getTopSellers(PeriodType.DAY, currentDay, currentDay.plusDays(1), 10, this::load);
+        cache.getTopSellers(PeriodType.DAY, previousDay, currentDay, 10, this::load);
+
+        cache.onTransactionCompleted(new TransactionCompletedEvent(
+                1L, 1L, BigDecimal.ONE, currentDay.plusHours(1), PaymentType.CARD));
+
+        cache.getTopSellers(PeriodType.DAY, currentDay, currentDay.plusDays(1), 10, this::load);
+        cache.getTopSellers(PeriodType.DAY, previousDay, currentDay, 10, this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void rebuildDropsAllEntries() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        cache.getTopSellers(PeriodType.YEAR, start, start.plusYears(1), 10, this::load);
+        cache.onSalesRollupsRebuilt(new SalesRollupsRebuiltEvent(0));
+        cache.getTopSellers(PeriodType.YEAR, start, start.plusYears(1), 10, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void recordsHitsAndStaleness() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        cache.getTopSellers(PeriodType.MONTH, start, start.plusMonths(1), 10, this::load);
+        cache.getTopSellers(PeriodType.MONTH, start, start.plusMonths(1), 10, this::load);
+
+        assertThat(meterRegistry.get("cache.gets")
+                .tag("cache", "analytics.topSellers")
+                .tag("result", "hit")
+                .functionCounter()
+                .count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("analytics.cache.staleness")
+                .tag("cache", "analytics.topSellers")
+                .tag("period", "closed")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    private List<SellerRankResponse> load() {
+        return List.of(new SellerRankResponse(1, 1L, "Alice", BigDecimal.valueOf(loads.incrementAndGet())));
+    }
+}
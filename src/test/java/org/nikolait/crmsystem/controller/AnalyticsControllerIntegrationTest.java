@@ -1,5 +1,6 @@
 package org.nikolait.crmsystem.controller;
 
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.Test;
 import org.nikolait.crmsystem.IntegrationTestBase;
@@ -9,12 +10,21 @@ import org.nikolait.crmsystem.model.enums.PaymentType;
 import org.nikolait.crmsystem.model.enums.TransactionStatus;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AnalyticsControllerIntegrationTest extends IntegrationTestBase {
 
@@ -70,6 +80,8 @@ class AnalyticsControllerIntegrationTest extends IntegrationTestBase {
                         .build()
         );
 
+        salesRollupService.rebuild();
+
         // act + assert
         given()
                 .queryParam("periodType", "DAY")
@@ -138,6 +150,8 @@ class AnalyticsControllerIntegrationTest extends IntegrationTestBase {
 
         BigDecimal maxTotal = new BigDecimal("200.00");
 
+        salesRollupService.rebuild();
+
         // act + assert
         given()
                 .queryParam("from", from.toString())
@@ -153,6 +167,81 @@ class AnalyticsControllerIntegrationTest extends IntegrationTestBase {
                 .body("[0].totalAmount", equalTo(100.0F));
     }
 
+    @Test
+    void getSellersBelow_approximate_returnsEstimatesWithErrorBounds() {
+        // arrange
+        Seller lowSeller = sellerRepository.save(
+                Seller.builder()
+                        .name("Low")
+                        .contactInfo("low@example.com")
+                        .deleted(false)
+                        .build()
+        );
+
+        Seller highSeller = sellerRepository.save(
+                Seller.builder()
+                        .name("High")
+                        .contactInfo("high@example.com")
+                        .deleted(false)
+                        .build()
+        );
+
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 12, 31, 23, 59);
+
+        // lowSeller: 100 in January
+        transactionRepository.save(
+                Transaction.builder()
+                        .seller(lowSeller)
+                        .amount(new BigDecimal("100.00"))
+                        .paymentType(PaymentType.CARD)
+                        .status(TransactionStatus.COMPLETED)
+                        .transactionDate(from.plusDays(1))
+                        .build()
+        );
+
+        // highSeller: 500 in January and July
+        transactionRepository.save(
+                Transaction.builder()
+                        .seller(highSeller)
+                        .amount(new BigDecimal("200.00"))
+                        .paymentType(PaymentType.CASH)
+                        .status(TransactionStatus.COMPLETED)
+                        .transactionDate(from.plusDays(2))
+                        .build()
+        );
+        transactionRepository.save(
+                Transaction.builder()
+                        .seller(highSeller)
+                        .amount(new BigDecimal("300.00"))
+                        .paymentType(PaymentType.CARD)
+                        .status(TransactionStatus.COMPLETED)
+                        .transactionDate(from.plusMonths(6))
+                        .build()
+        );
+
+        salesRollupService.rebuild();
+
+        // act + assert
+        given()
+                .queryParam("from", from.toString())
+                .queryParam("to", to.toString())
+                .queryParam("maxTotal", "200.00")
+                .queryParam("approximate", true)
+                .when()
+                .get("/analytics/sellers-below")
+                .then()
+                .statusCode(200)
+                .body("fromDay", equalTo("2024-01-01"))
+                .body("toDay", equalTo("2025-01-01"))
+                .body("errorBound", allOf(greaterThan(0.0F), lessThanOrEqualTo(6.0F)))
+                .body("confidence", greaterThanOrEqualTo(0.99F))
+                .body("activeSellers", equalTo(2))
+                .body("sellers", iterableWithSize(1))
+                .body("sellers[0].sellerId", equalTo(lowSeller.getId().intValue()))
+                .body("sellers[0].totalAmount", equalTo(100.0F));
+    }
+
     @Test
     void getBestPeriod_returnsBestMonthForSeller() {
         // arrange
@@ -207,6 +296,8 @@ class AnalyticsControllerIntegrationTest extends IntegrationTestBase {
         LocalDateTime expectedStart = LocalDateTime.of(2024, 1, 1, 0, 0);
         LocalDateTime expectedEnd = LocalDateTime.of(2024, 2, 1, 0, 0);
 
+        salesRollupService.rebuild();
+
         // act + assert
         Response bestPeriodResp = given()
                 .pathParam("sellerId", sellerId)
@@ -229,4 +320,298 @@ class AnalyticsControllerIntegrationTest extends IntegrationTestBase {
         assertEquals(expectedStart, periodStart);
         assertEquals(expectedEnd, periodEnd);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBestPeriods_returnsBestMonthOfRequestedSellersPageByPage() {
+        // arrange
+        Seller first = saveSellerWithCompleted("Gina", "gina@example.com", "100.00", LocalDate.of(2024, 1, 10));
+        transactionRepository.save(
+                Transaction.builder()
+                        .seller(first)
+                        .amount(new BigDecimal("300.00"))
+                        .paymentType(PaymentType.CASH)
+                        .status(TransactionStatus.COMPLETED)
+                        .transactionDate(LocalDateTime.of(2024, 3, 5, 9, 0))
+                        .build()
+        );
+        Seller second = saveSellerWithCompleted("Hank", "hank@example.com", "50.00", LocalDate.of(2024, 2, 1));
+        Seller withoutSales = sellerRepository.save(
+                Seller.builder()
+                        .name("Iris")
+                        .contactInfo("iris@example.com")
+                        .deleted(false)
+                        .build()
+        );
+
+        salesRollupService.rebuild();
+
+        // act + assert
+        String cursor = given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("sellerIds", first.getId(), second.getId(), withoutSales.getId())
+                .queryParam("size", 1)
+                .when()
+                .get("/analytics/best-periods")
+                .then()
+                .statusCode(200)
+                .body("content", iterableWithSize(1))
+                .body("content[0].sellerId", equalTo(first.getId().intValue()))
+                .body("content[0].periodStart", startsWith("2024-03-01T00:00"))
+                .body("content[0].periodEnd", startsWith("2024-04-01T00:00"))
+                .body("content[0].totalAmount", equalTo(300.0F))
+                .body("nextCursor", not(emptyOrNullString()))
+                .extract().path("nextCursor");
+
+        given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("sellerIds", first.getId(), second.getId(), withoutSales.getId())
+                .queryParam("size", 1)
+                .queryParam("after", cursor)
+                .when()
+                .get("/analytics/best-periods")
+                .then()
+                .statusCode(200)
+                .body("content", iterableWithSize(1))
+                .body("content[0].sellerId", equalTo(second.getId().intValue()))
+                .body("content[0].periodStart", startsWith("2024-02-01T00:00"))
+                .body("content[0].transactionCount", equalTo(1))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void getTopSeller_reflectsTransactionsCompletedThroughApi() {
+        // arrange
+        Seller seller = sellerRepository.save(
+                Seller.builder()
+                        .name("Dana")
+                        .contactInfo("dana@example.com")
+                        .deleted(false)
+                        .build()
+        );
+
+        Transaction pending = transactionRepository.save(
+                Transaction.builder()
+                        .seller(seller)
+                        .amount(new BigDecimal("75.00"))
+                        .paymentType(PaymentType.CARD)
+                        .status(TransactionStatus.PENDING)
+                        .build()
+        );
+
+        given()
+                .when()
+                .post("/transactions/{id}/complete", pending.getId())
+                .then()
+                .statusCode(200);
+
+        // act + assert
+        given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("date", LocalDate.now().toString())
+                .when()
+                .get("/analytics/top-seller")
+                .then()
+                .statusCode(200)
+                .body("sellerId", equalTo(seller.getId().intValue()))
+                .body("totalAmount", equalTo(75.0F));
+
+        assertTrue(salesRollupService.findMismatches().isEmpty());
+    }
+
+    @Test
+    void getTopSellers_returnsLeaderboardIncludingTies() {
+        // arrange
+        LocalDate baseDate = LocalDate.of(2024, 5, 15);
+
+        Seller alice = saveSellerWithCompleted("Alice", "alice@example.com", "300.00", baseDate);
+        Seller bob = saveSellerWithCompleted("Bob", "bob@example.com", "200.00", baseDate);
+        Seller carol = saveSellerWithCompleted("Carol", "carol@example.com", "200.00", baseDate);
+        saveSellerWithCompleted("Dave", "dave@example.com", "100.00", baseDate);
+
+        salesRollupService.rebuild();
+
+        // act + assert
+        given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("date", baseDate.toString())
+                .queryParam("limit", 2)
+                .when()
+                .get("/analytics/top-sellers")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(3))
+                .body("rank", contains(1, 2, 2))
+                .body("sellerId", contains(
+                        alice.getId().intValue(),
+                        bob.getId().intValue(),
+                        carol.getId().intValue()
+                ));
+    }
+
+    @Test
+    void getTopSellers_isCacheableForClosedPeriodAndRevalidatedForCurrentOne() {
+        LocalDate closedDate = LocalDate.of(2024, 5, 15);
+        saveSellerWithCompleted("Erin", "erin@example.com", "50.00", closedDate);
+        salesRollupService.rebuild();
+
+        String etag = given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("date", closedDate.toString())
+                .when()
+                .get("/analytics/top-sellers")
+                .then()
+                .statusCode(200)
+                .header("Cache-Control", equalTo("max-age=86400"))
+                .extract().header("ETag");
+
+        given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("date", closedDate.toString())
+                .header("If-None-Match", etag)
+                .when()
+                .get("/analytics/top-sellers")
+                .then()
+                .statusCode(304)
+                .header("Cache-Control", equalTo("max-age=86400"));
+
+        given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("date", LocalDate.now().toString())
+                .when()
+                .get("/analytics/top-sellers")
+                .then()
+                .statusCode(200)
+                .header("Cache-Control", equalTo("no-cache"))
+                .header("ETag", not(emptyOrNullString()));
+    }
+
+    @Test
+    void getTopSellers_returns400OnInvalidLimit() {
+        given()
+                .queryParam("periodType", "MONTH")
+                .queryParam("date", "2024-05-15")
+                .queryParam("limit", 0)
+                .when()
+                .get("/analytics/top-sellers")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void getLiveSales_countsSeededAndNewlyCompletedTransactions() {
+        // arrange
+        Seller seller = saveSellerWithCompleted("Erin", "erin@example.com", "40.00", LocalDate.now());
+        salesRollupService.rebuild();
+
+        given()
+                .when()
+                .get("/analytics/sellers/{sellerId}/live", seller.getId())
+                .then()
+                .statusCode(200)
+                .body("day.transactionCount", equalTo(1))
+                .body("day.totalAmount", equalTo(40.0F));
+
+        Transaction pending = transactionRepository.save(
+                Transaction.builder()
+                        .seller(seller)
+                        .amount(new BigDecimal("2.50"))
+                        .paymentType(PaymentType.CASH)
+                        .status(TransactionStatus.PENDING)
+                        .build()
+        );
+
+        given()
+                .when()
+                .post("/transactions/{id}/complete", pending.getId())
+                .then()
+                .statusCode(200);
+
+        // act + assert
+        given()
+                .when()
+                .get("/analytics/sellers/{sellerId}/live", seller.getId())
+                .then()
+                .statusCode(200)
+                .body("sellerId", equalTo(seller.getId().intValue()))
+                .body("day.periodStart", equalTo(LocalDate.now().toString()))
+                .body("day.transactionCount", equalTo(2))
+                .body("day.totalAmount", equalTo(42.5F))
+                .body("week.transactionCount", equalTo(2))
+                .body("month.totalAmount", equalTo(42.5F));
+    }
+
+    @Test
+    void getLiveSales_returns404ForUnknownSeller() {
+        given()
+                .when()
+                .get("/analytics/sellers/{sellerId}/live", 999_999_999L)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void streamTopSellers_pushesLeaderboardAfterCompletion() throws Exception {
+        // arrange
+        Seller seller = sellerRepository.save(
+                Seller.builder()
+                        .name("Frank")
+                        .contactInfo("frank@example.com")
+                        .deleted(false)
+                        .build()
+        );
+        Transaction pending = transactionRepository.save(
+                Transaction.builder()
+                        .seller(seller)
+                        .amount(new BigDecimal("15.00"))
+                        .paymentType(PaymentType.CARD)
+                        .status(TransactionStatus.PENDING)
+                        .build()
+        );
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                RestAssured.baseURI + ":" + RestAssured.port
+                        + "/api/analytics/top-sellers/stream?periodType=DAY&limit=5"
+        )).build();
+
+        // act + assert
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> body = response.body()) {
+            Iterator<String> events = body.filter(line -> line.startsWith("data:")).iterator();
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertTrue(events.next().contains("\"sellers\":[]"));
+
+                given()
+                        .when()
+                        .post("/transactions/{id}/complete", pending.getId())
+                        .then()
+                        .statusCode(200);
+
+                String update = events.next();
+                assertTrue(update.contains("\"sellerId\":" + seller.getId()));
+                assertTrue(update.contains("\"rank\":1"));
+            });
+        }
+    }
+
+    private Seller saveSellerWithCompleted(String name, String contactInfo, String amount, LocalDate date) {
+        Seller seller = sellerRepository.save(
+                Seller.builder()
+                        .name(name)
+                        .contactInfo(contactInfo)
+                        .deleted(false)
+                        .build()
+        );
+        transactionRepository.save(
+                Transaction.builder()
+                        .seller(seller)
+                        .amount(new BigDecimal(amount))
+                        .paymentType(PaymentType.CARD)
+                        .status(TransactionStatus.COMPLETED)
+                        .transactionDate(date.atTime(12, 0))
+                        .build()
+        );
+        return seller;
+    }
+}
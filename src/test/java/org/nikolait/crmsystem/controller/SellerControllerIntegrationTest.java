@@ -4,14 +4,22 @@ import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.Test;
 import org.nikolait.crmsystem.IntegrationTestBase;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.List;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class SellerControllerIntegrationTest extends IntegrationTestBase {
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void shouldCreateAndGetSellerById() {
         Response sellerCreateResp = given()
@@ -166,6 +174,261 @@ class SellerControllerIntegrationTest extends IntegrationTestBase {
                 .statusCode(415);
     }
 
+    @Test
+    void shouldNotServeStaleSellerAfterUpdateOrDelete() {
+        Long id = createSeller("Cached Seller", "cached@example.com");
+
+        given()
+                .pathParam("id", id)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Cached Seller"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .pathParam("id", id)
+                .body(Map.of("name", "Renamed Seller"))
+                .when()
+                .patch("/sellers/{id}")
+                .then()
+                .statusCode(200);
+
+        given()
+                .pathParam("id", id)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Renamed Seller"));
+
+        given()
+                .pathParam("id", id)
+                .when()
+                .delete("/sellers/{id}")
+                .then()
+                .statusCode(204);
+
+        given()
+                .pathParam("id", id)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedUntilSellerChanges() {
+        Long id = createSeller("Tagged Seller", "tagged@example.com");
+
+        String etag = given()
+                .pathParam("id", id)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(emptyOrNullString()))
+                .header("Cache-Control", equalTo("no-cache"))
+                .extract().header("ETag");
+
+        given()
+                .pathParam("id", id)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag))
+                .body(emptyString());
+
+        given()
+                .contentType(ContentType.JSON)
+                .pathParam("id", id)
+                .body(Map.of("name", "Retagged Seller"))
+                .when()
+                .patch("/sellers/{id}")
+                .then()
+                .statusCode(200);
+
+        given()
+                .pathParam("id", id)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("name", equalTo("Retagged Seller"));
+    }
+
+    @Test
+    void shouldPageThroughActiveSellersByCursor() {
+        Long first = createSeller("First Seller", "first@example.com");
+        Long deleted = createSeller("Deleted Seller", "deleted@example.com");
+        Long last = createSeller("Last Seller", "last@example.com");
+
+        given()
+                .pathParam("id", deleted)
+                .when()
+                .delete("/sellers/{id}")
+                .then()
+                .statusCode(204);
+
+        String nextCursor = given()
+                .queryParam("size", 1)
+                .when()
+                .get("/sellers/cursor")
+                .then()
+                .statusCode(200)
+                .body("content", iterableWithSize(1))
+                .body("content[0].id", equalTo(first.intValue()))
+                .body("nextCursor", not(emptyOrNullString()))
+                .extract().jsonPath().getString("nextCursor");
+
+        given()
+                .queryParam("size", 1)
+                .queryParam("after", nextCursor)
+                .when()
+                .get("/sellers/cursor")
+                .then()
+                .statusCode(200)
+                .body("content", iterableWithSize(1))
+                .body("content[0].id", equalTo(last.intValue()))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void shouldReturn400OnMalformedCursor() {
+        given()
+                .queryParam("after", "%%%")
+                .when()
+                .get("/sellers/cursor")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    void shouldKeepSalesSummaryUpToDateAndRepairIt() {
+        Long id = createSeller("Summary Seller", "summary@example.com");
+        Long first = createTransaction(id, 10.00);
+        Long second = createTransaction(id, 15.50);
+
+        given()
+                .when()
+                .post("/transactions/{id}/complete", first)
+                .then()
+                .statusCode(200);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(second))
+                .when()
+                .post("/transactions/complete")
+                .then()
+                .statusCode(200)
+                .body("completed", equalTo(1));
+
+        given()
+                .contentType(ContentType.JSON)
+                .pathParam("id", id)
+                .body(Map.of("name", "Renamed Summary Seller"))
+                .when()
+                .patch("/sellers/{id}")
+                .then()
+                .statusCode(200);
+
+        assertSummary(id, 2, 25.50F);
+
+        jdbcTemplate.update("UPDATE sellers SET completed_count = 0, completed_amount = 0 WHERE id = ?", id);
+
+        assertEquals(1, salesRollupService.rebuildSellerSummaries());
+        assertSummary(id, 2, 25.50F);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedUntilSummaryChanges() {
+        Long id = createSeller("Tagged Summary Seller", "tagged-summary@example.com");
+        Long transactionId = createTransaction(id, 12.00);
+
+        String etag = given()
+                .pathParam("id", id)
+                .when()
+                .get("/sellers/{id}/summary")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(emptyOrNullString()))
+                .header("Cache-Control", equalTo("no-cache"))
+                .extract().header("ETag");
+
+        given()
+                .pathParam("id", id)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/sellers/{id}/summary")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag))
+                .body(emptyString());
+
+        given()
+                .when()
+                .post("/transactions/{id}/complete", transactionId)
+                .then()
+                .statusCode(200);
+
+        given()
+                .pathParam("id", id)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/sellers/{id}/summary")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("completedCount", equalTo(1))
+                .body("completedAmount", equalTo(12.0F));
+    }
+
+    @Test
+    void shouldReturn404OnSummaryOfMissingSeller() {
+        given()
+                .pathParam("id", 999_999_999L)
+                .when()
+                .get("/sellers/{id}/summary")
+                .then()
+                .statusCode(404);
+    }
+
+    private void assertSummary(Long id, long completedCount, float completedAmount) {
+        given()
+                .pathParam("id", id)
+                .when()
+                .get("/sellers/{id}/summary")
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(id.intValue()))
+                .body("name", equalTo("Renamed Summary Seller"))
+                .body("completedCount", equalTo((int) completedCount))
+                .body("completedAmount", equalTo(completedAmount))
+                .body("firstTransactionDate", not(emptyOrNullString()))
+                .body("lastTransactionDate", not(emptyOrNullString()));
+    }
+
+    private Long createTransaction(Long sellerId, double amount) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "sellerId", sellerId,
+                        "amount", amount,
+                        "paymentType", PaymentType.CARD
+                ))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
     private Long createSeller(String name, String contactInfo) {
         return given()
                 .contentType(ContentType.JSON)
@@ -9,16 +9,38 @@ import org.nikolait.crmsystem.model.Seller;
 import org.nikolait.crmsystem.model.enums.PaymentType;
 import org.nikolait.crmsystem.model.enums.TransactionStatus;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TransactionControllerIntegrationTest extends IntegrationTestBase {
 
+    private static final int SETTLEMENT_CHUNK_SIZE = 4;
+
+    private static final int MAX_BATCH_ITEMS = 50;
+
     private Long sellerId;
 
+    @DynamicPropertySource
+    static void batchProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.transactions.batch.max-items", () -> MAX_BATCH_ITEMS);
+        registry.add("app.transactions.completion.chunk-size", () -> SETTLEMENT_CHUNK_SIZE);
+    }
+
     @BeforeEach
     void setup() {
         super.setUpRestAssured();
@@ -87,6 +109,272 @@ class TransactionControllerIntegrationTest extends IntegrationTestBase {
                 .body("status", equalTo(TransactionStatus.COMPLETED.name()));
     }
 
+    @Test
+    void testGetByIdRevalidatesPendingAndCachesCompletedForever() {
+        Long transactionId = createPendingTransaction(15.00);
+
+        String pendingEtag = given()
+                .when()
+                .get("/transactions/{id}", transactionId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Cache-Control", equalTo("no-cache"))
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", pendingEtag)
+                .when()
+                .get("/transactions/{id}", transactionId)
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given()
+                .when()
+                .post("/transactions/{id}/complete", transactionId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        String completedEtag = given()
+                .header("If-None-Match", pendingEtag)
+                .when()
+                .get("/transactions/{id}", transactionId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("Cache-Control", equalTo("max-age=31536000, immutable"))
+                .header("ETag", not(equalTo(pendingEtag)))
+                .body("status", equalTo(TransactionStatus.COMPLETED.name()))
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", completedEtag)
+                .when()
+                .get("/transactions/{id}", transactionId)
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value())
+                .header("Cache-Control", equalTo("max-age=31536000, immutable"));
+
+        given()
+                .header("If-None-Match", completedEtag)
+                .when()
+                .get("/transactions/{id}", 999_999_999L)
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void testConcurrentCompletesCountTransactionOnce() throws Exception {
+        Long transactionId = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "sellerId", sellerId,
+                        "amount", 40.00,
+                        "paymentType", PaymentType.CARD
+                ))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract().jsonPath().getLong("id");
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Callable<Integer>> calls = Collections.nCopies(callers, () -> given()
+                    .when()
+                    .post("/transactions/{id}/complete", transactionId)
+                    .then()
+                    .extract().statusCode());
+
+            for (Future<Integer> status : executor.invokeAll(calls)) {
+                assertEquals(HttpStatus.OK.value(), status.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(salesRollupService.findMismatches().isEmpty());
+
+        given()
+                .queryParam("periodType", "DAY")
+                .queryParam("date", LocalDate.now().toString())
+                .when()
+                .get("/analytics/top-seller")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("totalAmount", equalTo(40.0F));
+    }
+
+    @Test
+    void testBulkCompleteReportsOutcomePerId() {
+        Long pending = createPendingTransaction(10.00);
+        Long completed = createPendingTransaction(20.00);
+
+        given()
+                .when()
+                .post("/transactions/{id}/complete", completed)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(pending, completed, 999_999_999L))
+                .when()
+                .post("/transactions/complete")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("completed", equalTo(1))
+                .body("alreadyCompleted", equalTo(1))
+                .body("notFound", equalTo(1))
+                .body("items.outcome", contains("COMPLETED", "ALREADY_COMPLETED", "NOT_FOUND"));
+
+        given()
+                .when()
+                .get("/transactions/{id}", pending)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("status", equalTo(TransactionStatus.COMPLETED.name()));
+
+        assertTrue(salesRollupService.findMismatches().isEmpty());
+    }
+
+    @Test
+    void testConcurrentBulkAndSingleCompletesCountEachTransactionOnce() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(createPendingTransaction(5.00));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size() + 1);
+        try {
+            Future<Response> bulk = executor.submit(() -> given()
+                    .contentType(ContentType.JSON)
+                    .body(ids)
+                    .when()
+                    .post("/transactions/complete"));
+            List<Callable<Integer>> singles = ids.stream()
+                    .<Callable<Integer>>map(id -> () -> given()
+                            .when()
+                            .post("/transactions/{id}/complete", id)
+                            .then()
+                            .extract().statusCode())
+                    .toList();
+
+            for (Future<Integer> status : executor.invokeAll(singles)) {
+                assertEquals(HttpStatus.OK.value(), status.get());
+            }
+            bulk.get().then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("completed", lessThanOrEqualTo(ids.size()))
+                    .body("rejected", equalTo(0))
+                    .body("notFound", equalTo(0))
+                    .body("items.outcome", everyItem(is(oneOf("COMPLETED", "ALREADY_COMPLETED"))));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(salesRollupService.findMismatches().isEmpty());
+
+        given()
+                .queryParam("periodType", "DAY")
+                .queryParam("date", LocalDate.now().toString())
+                .when()
+                .get("/analytics/top-seller")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("totalAmount", equalTo(100.0F));
+    }
+
+    @Test
+    void testConcurrentSingleCompleteAndSettlementLeaveNothingPending() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3 * SETTLEMENT_CHUNK_SIZE; i++) {
+            ids.add(createPendingTransaction(5.00));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size() + 1);
+        try {
+            Future<Response> settlement = executor.submit(() -> given()
+                    .queryParam("sellerId", sellerId)
+                    .queryParam("createdFrom", LocalDate.now().minusDays(1).atStartOfDay().toString())
+                    .queryParam("createdTo", LocalDate.now().plusDays(1).atStartOfDay().toString())
+                    .when()
+                    .post("/transactions/complete/by-seller"));
+            List<Callable<Integer>> singles = ids.stream()
+                    .<Callable<Integer>>map(id -> () -> given()
+                            .when()
+                            .post("/transactions/{id}/complete", id)
+                            .then()
+                            .extract().statusCode())
+                    .toList();
+
+            for (Future<Integer> status : executor.invokeAll(singles)) {
+                assertEquals(HttpStatus.OK.value(), status.get());
+            }
+            settlement.get().then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("completed", lessThanOrEqualTo(ids.size()));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(transactionRepository.findStatusesByIdIn(ids).stream()
+                .allMatch(t -> t.getStatus() == TransactionStatus.COMPLETED));
+        assertTrue(salesRollupService.findMismatches().isEmpty());
+
+        given()
+                .queryParam("periodType", "DAY")
+                .queryParam("date", LocalDate.now().toString())
+                .when()
+                .get("/analytics/top-seller")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("totalAmount", equalTo(5.0F * ids.size()));
+    }
+
+    @Test
+    void testBulkCompleteBySeller() {
+        createPendingTransaction(1.00);
+        createPendingTransaction(2.00);
+        createPendingTransaction(3.00);
+
+        given()
+                .queryParam("sellerId", sellerId)
+                .queryParam("createdFrom", LocalDate.now().minusDays(1).atStartOfDay().toString())
+                .queryParam("createdTo", LocalDate.now().plusDays(1).atStartOfDay().toString())
+                .when()
+                .post("/transactions/complete/by-seller")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("completed", equalTo(3))
+                .body("items", iterableWithSize(3));
+
+        given()
+                .queryParam("periodType", "DAY")
+                .queryParam("date", LocalDate.now().toString())
+                .when()
+                .get("/analytics/top-seller")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("totalAmount", equalTo(6.0F));
+
+        assertTrue(salesRollupService.findMismatches().isEmpty());
+    }
+
+    private Long createPendingTransaction(double amount) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "sellerId", sellerId,
+                        "amount", amount,
+                        "paymentType", PaymentType.CARD
+                ))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract().jsonPath().getLong("id");
+    }
+
     @Test
     void testGetAllTransactions() {
         given()
@@ -136,4 +424,153 @@ class TransactionControllerIntegrationTest extends IntegrationTestBase {
                 .body("content", iterableWithSize(1))
                 .body("content[0].sellerId", hasToString(sellerId.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateTransactionBatch() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(
+                        Map.of("sellerId", sellerId, "amount", 10.00, "paymentType", PaymentType.CARD),
+                        Map.of("sellerId", sellerId, "amount", 0, "paymentType", PaymentType.CASH),
+                        Map.of("sellerId", Long.MAX_VALUE, "amount", 5.00, "paymentType", PaymentType.CASH)
+                ))
+                .when()
+                .post("/transactions/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("created", equalTo(1))
+                .body("rejected", equalTo(2))
+                .body("items", iterableWithSize(3))
+                .body("items[0].status", equalTo("CREATED"))
+                .body("items[0].transaction.id", not(emptyOrNullString()))
+                .body("items[0].transaction.sellerId", hasToString(sellerId.toString()))
+                .body("items[0].transaction.status", equalTo(TransactionStatus.PENDING.name()))
+                .body("items[1].status", equalTo("REJECTED"))
+                .body("items[1].error", containsString("amount"))
+                .body("items[2].status", equalTo("REJECTED"))
+                .body("items[2].error", equalTo("Seller not found: " + Long.MAX_VALUE));
+
+        given()
+                .param("sellerId", sellerId)
+                .when()
+                .get("/transactions")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("content", iterableWithSize(1));
+    }
+
+    @Test
+    void testCreateTransactionBatchFromNdjson() {
+        String body = """
+                {"sellerId": %d, "amount": 10.00, "paymentType": "CARD"}
+                {"sellerId": %d, "amount": 20.00, "paymentType": "CASH"}
+                """.formatted(sellerId, sellerId);
+
+        given()
+                .contentType("application/x-ndjson")
+                .body(body)
+                .when()
+                .post("/transactions/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("created", equalTo(2))
+                .body("rejected", equalTo(0))
+                .body("items.status", everyItem(equalTo("CREATED")));
+    }
+
+    @Test
+    void testCreateTransactionBatchFromNdjson_rejectsOversizedBodyBeforeReadingRest() {
+        String item = "{\"sellerId\": %d, \"amount\": 1.00, \"paymentType\": \"CARD\"}\n".formatted(sellerId);
+        // The tail is malformed: it would be reported instead if the whole body were read first
+        String body = item.repeat(MAX_BATCH_ITEMS + 1) + "{not json";
+
+        given()
+                .contentType("application/x-ndjson")
+                .body(body)
+                .when()
+                .post("/transactions/batch")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("detail", equalTo("Batch size must not exceed " + MAX_BATCH_ITEMS + " items"));
+
+        given()
+                .param("sellerId", sellerId)
+                .when()
+                .get("/transactions")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("content", empty());
+    }
+
+    @Test
+    void testGetTransactionsByCursor() {
+        for (int i = 1; i <= 3; i++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(Map.of(
+                            "sellerId", sellerId,
+                            "amount", 10 * i,
+                            "paymentType", PaymentType.CARD
+                    ))
+                    .when()
+                    .post("/transactions")
+                    .then()
+                    .statusCode(HttpStatus.CREATED.value());
+        }
+
+        String nextCursor = given()
+                .param("sellerId", sellerId)
+                .param("size", 2)
+                .when()
+                .get("/transactions/cursor")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("content", iterableWithSize(2))
+                .body("content[0].amount", equalTo(10.0f))
+                .body("nextCursor", not(emptyOrNullString()))
+                .extract().jsonPath().getString("nextCursor");
+
+        given()
+                .param("sellerId", sellerId)
+                .param("size", 2)
+                .param("after", nextCursor)
+                .when()
+                .get("/transactions/cursor")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("content", iterableWithSize(1))
+                .body("content[0].amount", equalTo(30.0f))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void testExportTransactionsAsCsv() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "sellerId", sellerId,
+                        "amount", 42.10,
+                        "paymentType", PaymentType.TRANSFER
+                ))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.CREATED.value());
+
+        String csv = given()
+                .param("sellerId", sellerId)
+                .param("status", TransactionStatus.PENDING.name())
+                .param("format", "CSV")
+                .when()
+                .get("/transactions/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(startsWith("text/csv"))
+                .header("Content-Disposition", containsString("transactions.csv"))
+                .extract().asString();
+
+        String[] lines = csv.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains(",42.10,TRANSFER,,PENDING,"));
+    }
+}
@@ -0,0 +1,103 @@
+package org.nikolait.crmsystem.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.exception.DatabaseBusyException;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PermitLimitedDataSourceUnitTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PermitLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new PermitLimitedDataSource(target, 1, 1, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    void getConnection_releasesPermitOnce_whenConnectionClosed() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection con = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        assertSame(connection, ((ConnectionProxy) con).getTargetConnection());
+
+        con.close();
+        con.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_releasesPermit_whenTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_throwsDatabaseBusy_whenPermitNotAcquiredInTime() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+
+        assertThrows(DatabaseBusyException.class, () -> dataSource.getConnection());
+
+        assertEquals(0, dataSource.waitingCallers());
+        assertEquals(1.0, meterRegistry.get("db.permits.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void getConnection_throwsDatabaseBusy_whenQueueIsFull() throws Exception {
+        PermitLimitedDataSource slow = new PermitLimitedDataSource(target, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        when(target.getConnection()).thenReturn(connection);
+        Connection held = slow.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Connection> queued = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return slow.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+            while (slow.waitingCallers() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(DatabaseBusyException.class, slow::getConnection);
+            assertEquals(1.0, meterRegistry.get("db.permits.rejected").tag("reason", "queue_full").counter().count());
+
+            held.close();
+            queued.get().close();
+        }
+
+        assertEquals(1, slow.availablePermits());
+    }
+}
@@ -0,0 +1,80 @@
+package org.nikolait.crmsystem.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceUnitTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaPool;
+
+    @Mock
+    private ReadReplica replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReadReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.dataSource()).thenReturn(replicaPool);
+        dataSource = new ReadReplicaRoutingDataSource(primary, replica);
+    }
+
+    @Test
+    void readOnlyConnection_isServedByReplica() throws SQLException {
+        when(replica.isUsable()).thenReturn(true);
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    @Test
+    void readOnlyConnection_fallsBackToPrimary_whenReplicaNotUsable() throws SQLException {
+        when(replica.isUsable()).thenReturn(false);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        verify(primaryConnection).createStatement();
+        verifyNoInteractions(replicaPool);
+    }
+
+    @Test
+    void readWriteConnection_isServedByPrimary() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement();
+        }
+
+        verify(primaryConnection).createStatement();
+        verifyNoInteractions(replicaPool);
+        verify(replica, never()).isUsable();
+    }
+}
@@ -0,0 +1,202 @@
+package org.nikolait.crmsystem.jdbc;
+
+import io.restassured.http.ContentType;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.nikolait.crmsystem.IntegrationTestBase;
+import org.nikolait.crmsystem.model.Seller;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the application against a second, independent Postgres acting as the replica. Nothing is replicated,
+ * so a row seen by a request shows which of the two databases served it.
+ */
+class ReadReplicaRoutingIntegrationTest extends IntegrationTestBase {
+
+    private static final long REPLICA_SELLER_ID = 900_001L;
+
+    private static final PostgreSQLContainer<?> REPLICA =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:17-alpine"));
+
+    static {
+        REPLICA.start();
+        Flyway.configure()
+                .dataSource(REPLICA.getJdbcUrl(), REPLICA.getUsername(), REPLICA.getPassword())
+                .load()
+                .migrate();
+    }
+
+    private final JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource(REPLICA.getJdbcUrl(), REPLICA.getUsername(), REPLICA.getPassword()));
+
+    @Autowired
+    private ReadReplica readReplica;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.db.replica.enabled", () -> "true");
+        registry.add("app.db.replica.url", REPLICA::getJdbcUrl);
+        registry.add("app.db.replica.username", REPLICA::getUsername);
+        registry.add("app.db.replica.password", REPLICA::getPassword);
+    }
+
+    @AfterEach
+    void cleanUpReplica() {
+        replicaJdbcTemplate.update("DELETE FROM seller_sales_yearly");
+        replicaJdbcTemplate.update("DELETE FROM sellers");
+    }
+
+    @Test
+    void readReplica_isUsable_whenReachableAndNotLagging() {
+        readReplica.checkLag();
+
+        assertTrue(readReplica.isUsable());
+    }
+
+    @Test
+    void getAll_readsSellersFromReplica() {
+        sellerRepository.save(
+                Seller.builder()
+                        .name("Primary Only")
+                        .contactInfo("primary@example.com")
+                        .deleted(false)
+                        .build()
+        );
+        insertReplicaSeller();
+
+        given()
+                .when()
+                .get("/sellers")
+                .then()
+                .statusCode(200)
+                .body("content.name", hasItem("Replica Only"))
+                .body("content.name", not(hasItem("Primary Only")));
+    }
+
+    @Test
+    void getBestPeriods_readsRollupsFromReplica() {
+        insertReplicaSeller();
+        replicaJdbcTemplate.update("""
+                INSERT INTO seller_sales_yearly (seller_id, period_start, tx_count, total_amount)
+                VALUES (?, DATE '2024-01-01', 3, 75.00)
+                """, REPLICA_SELLER_ID);
+
+        given()
+                .queryParam("periodType", "YEAR")
+                .queryParam("sellerIds", REPLICA_SELLER_ID)
+                .when()
+                .get("/analytics/best-periods")
+                .then()
+                .statusCode(200)
+                .body("content", iterableWithSize(1))
+                .body("content[0].sellerId", equalTo((int) REPLICA_SELLER_ID))
+                .body("content[0].transactionCount", equalTo(3))
+                .body("content[0].totalAmount", equalTo(75.0F));
+    }
+
+    @Test
+    void getBestPeriod_fillsSellerCacheFromPrimary_andReadsRollupsFromReplica() {
+        Long sellerId = sellerRepository.save(
+                Seller.builder()
+                        .name("Primary Name")
+                        .contactInfo("primary@example.com")
+                        .deleted(false)
+                        .build()
+        ).getId();
+        replicaJdbcTemplate.update("""
+                INSERT INTO sellers (id, name, contact_info, registration_date, deleted)
+                VALUES (?, 'Stale Name', 'stale@example.com', now(), false)
+                """, sellerId);
+        replicaJdbcTemplate.update("""
+                INSERT INTO seller_sales_yearly (seller_id, period_start, tx_count, total_amount)
+                VALUES (?, DATE '2024-01-01', 2, 40.00)
+                """, sellerId);
+
+        given()
+                .pathParam("sellerId", sellerId)
+                .queryParam("periodType", "YEAR")
+                .when()
+                .get("/analytics/sellers/{sellerId}/best-period")
+                .then()
+                .statusCode(200)
+                .body("sellerId", equalTo(sellerId.intValue()))
+                .body("totalAmount", equalTo(40.0F));
+
+        given()
+                .pathParam("id", sellerId)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Primary Name"));
+    }
+
+    @Test
+    void writesAndConditionalLookups_stayOnPrimary() {
+        Long sellerId = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("name", "Written", "contactInfo", "written@example.com"))
+                .when()
+                .post("/sellers")
+                .then()
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        given()
+                .pathParam("id", sellerId)
+                .when()
+                .get("/sellers/{id}")
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Written"));
+
+        Long transactionId = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("sellerId", sellerId, "amount", 10, "paymentType", "CARD"))
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        given()
+                .pathParam("id", sellerId)
+                .when()
+                .get("/sellers/{id}/summary")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(emptyOrNullString()))
+                .body("name", equalTo("Written"));
+
+        given()
+                .pathParam("id", transactionId)
+                .when()
+                .get("/transactions/{id}")
+                .then()
+                .statusCode(200)
+                .body("status", equalTo("PENDING"));
+
+        assertEquals(0, replicaJdbcTemplate.queryForObject("SELECT COUNT(*) FROM sellers", Integer.class));
+    }
+
+    private void insertReplicaSeller() {
+        replicaJdbcTemplate.update("""
+                INSERT INTO sellers (id, name, contact_info, registration_date, deleted)
+                VALUES (?, 'Replica Only', 'replica@example.com', now(), false)
+                """, REPLICA_SELLER_ID);
+    }
+}
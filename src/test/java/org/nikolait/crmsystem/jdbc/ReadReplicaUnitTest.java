@@ -0,0 +1,115 @@
+package org.nikolait.crmsystem.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaUnitTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void isUsable_isFalseUntilFirstCheck() {
+        ReadReplica replica = new ReadReplica(dataSource, Duration.ofSeconds(5), meterRegistry);
+
+        assertFalse(replica.isUsable());
+        assertEquals(0.0, meterRegistry.get("db.replica.usable").gauge().value());
+    }
+
+    @Test
+    void checkLag_marksReplicaUsable_whenLagWithinThreshold() throws SQLException {
+        lag(2.5);
+        ReadReplica replica = new ReadReplica(dataSource, Duration.ofSeconds(5), meterRegistry);
+
+        replica.checkLag();
+
+        assertTrue(replica.isUsable());
+        assertEquals(2.5, meterRegistry.get("db.replica.lag").gauge().value());
+        assertEquals(1.0, meterRegistry.get("db.replica.usable").gauge().value());
+    }
+
+    @Test
+    void checkLag_fallsBackToPrimary_whenLagExceedsThreshold() throws SQLException {
+        lag(7.0);
+        ReadReplica replica = new ReadReplica(dataSource, Duration.ofSeconds(5), meterRegistry);
+
+        replica.checkLag();
+
+        assertFalse(replica.isUsable());
+        assertEquals(7.0, meterRegistry.get("db.replica.lag").gauge().value());
+    }
+
+    @Test
+    void checkLag_fallsBackToPrimary_whenLagUnknown() throws SQLException {
+        lag(0.0);
+        when(resultSet.wasNull()).thenReturn(true);
+        ReadReplica replica = new ReadReplica(dataSource, Duration.ofSeconds(5), meterRegistry);
+
+        replica.checkLag();
+
+        assertFalse(replica.isUsable());
+        assertTrue(Double.isNaN(meterRegistry.get("db.replica.lag").gauge().value()));
+    }
+
+    @Test
+    void checkLag_ignoresLag_whenNoThresholdConfigured() throws SQLException {
+        lag(600.0);
+        ReadReplica replica = new ReadReplica(dataSource, null, meterRegistry);
+
+        replica.checkLag();
+
+        assertTrue(replica.isUsable());
+    }
+
+    @Test
+    void checkLag_fallsBackToPrimary_whenReplicaUnreachable() throws SQLException {
+        lag(0.0);
+        ReadReplica replica = new ReadReplica(dataSource, null, meterRegistry);
+        replica.checkLag();
+        when(dataSource.getConnection()).thenThrow(new SQLException("down"));
+
+        replica.checkLag();
+
+        assertFalse(replica.isUsable());
+    }
+
+    private void lag(double seconds) throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+    }
+}
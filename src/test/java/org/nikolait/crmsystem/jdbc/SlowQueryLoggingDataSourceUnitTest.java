@@ -0,0 +1,109 @@
+package org.nikolait.crmsystem.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.jdbc.SlowQueryLoggingDataSource.SlowQuery;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlowQueryLoggingDataSourceUnitTest {
+
+    private static final String SQL = "SELECT * FROM transactions WHERE seller_id = ? AND amount > ?";
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<SlowQuery> slowQueries;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        slowQueries = new ArrayList<>();
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+    }
+
+    @Test
+    void executeQuery_reportsSqlAndParameterTypes_whenOverThreshold() throws SQLException {
+        SlowQueryLoggingDataSource dataSource = dataSource(Duration.ZERO);
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(SQL)) {
+            ps.setLong(1, 42L);
+            ps.setBigDecimal(2, BigDecimal.TEN);
+            ps.executeQuery();
+            assertSame(con, ps.getConnection());
+        }
+
+        assertEquals(1, slowQueries.size());
+        SlowQuery query = slowQueries.getFirst();
+        assertEquals(SQL, query.sql());
+        assertEquals(List.of("Long", "BigDecimal"), query.parameterTypes());
+        assertEquals(0, query.batchSize());
+        assertEquals(1, meterRegistry.get("db.queries.slow").timer().count());
+        verify(statement).setLong(1, 42L);
+        verify(statement).close();
+    }
+
+    @Test
+    void executeBatch_reportsBatchSizeAndNullParameters() throws SQLException {
+        SlowQueryLoggingDataSource dataSource = dataSource(Duration.ZERO);
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(SQL)) {
+            ps.setLong(1, 1L);
+            ps.setBigDecimal(2, BigDecimal.ONE);
+            ps.addBatch();
+            ps.setLong(1, 2L);
+            ps.setNull(2, Types.NUMERIC);
+            ps.addBatch();
+            ps.executeBatch();
+        }
+
+        SlowQuery query = slowQueries.getFirst();
+        assertEquals(List.of("Long", "null"), query.parameterTypes());
+        assertEquals(2, query.batchSize());
+    }
+
+    @Test
+    void execute_reportsNothing_whenUnderThreshold() throws SQLException {
+        SlowQueryLoggingDataSource dataSource = dataSource(Duration.ofHours(1));
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(SQL)) {
+            ps.setLong(1, 42L);
+            ps.execute();
+        }
+
+        assertTrue(slowQueries.isEmpty());
+        assertEquals(0, meterRegistry.get("db.queries.slow").timer().count());
+        verify(statement).execute();
+    }
+
+    private SlowQueryLoggingDataSource dataSource(Duration threshold) {
+        return new SlowQueryLoggingDataSource(target, threshold, meterRegistry, slowQueries::add);
+    }
+}
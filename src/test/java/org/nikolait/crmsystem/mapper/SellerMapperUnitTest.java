@@ -4,9 +4,11 @@ import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 import org.nikolait.crmsystem.dto.SellerCreateRequest;
 import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.SellerSummaryResponse;
 import org.nikolait.crmsystem.dto.SellerUpdateRequest;
 import org.nikolait.crmsystem.model.Seller;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -35,6 +37,29 @@ class SellerMapperUnitTest {
         assertEquals(LocalDateTime.of(2023, 1, 1, 12, 0), response.registrationDate());
     }
 
+    // --------------------------------------------
+    //            toSummaryResponse()
+    // --------------------------------------------
+    @Test
+    void toSummaryResponse_mapsSalesSummary() {
+        Seller seller = new Seller();
+        seller.setId(1L);
+        seller.setName("John");
+        seller.setCompletedCount(3);
+        seller.setCompletedAmount(new BigDecimal("60.00"));
+        seller.setFirstTransactionDate(LocalDateTime.of(2023, 1, 1, 12, 0));
+        seller.setLastTransactionDate(LocalDateTime.of(2024, 6, 1, 9, 30));
+
+        SellerSummaryResponse response = sellerMapper.toSummaryResponse(seller);
+
+        assertEquals(1L, response.id());
+        assertEquals("John", response.name());
+        assertEquals(3, response.completedCount());
+        assertEquals(new BigDecimal("60.00"), response.completedAmount());
+        assertEquals(LocalDateTime.of(2023, 1, 1, 12, 0), response.firstTransactionDate());
+        assertEquals(LocalDateTime.of(2024, 6, 1, 9, 30), response.lastTransactionDate());
+    }
+
     // --------------------------------------------
     //            toEntity()
     // --------------------------------------------
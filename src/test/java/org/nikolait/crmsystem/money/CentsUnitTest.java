@@ -0,0 +1,77 @@
+package org.nikolait.crmsystem.money;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CentsUnitTest {
+
+    // ---- of() ----
+
+    @Test
+    void of_convertsAmountsOfAnyScaleExactly() {
+        assertThat(Cents.of(new BigDecimal("10.50"))).isEqualTo(1050L);
+        assertThat(Cents.of(new BigDecimal("7"))).isEqualTo(700L);
+        assertThat(Cents.of(new BigDecimal("0.300"))).isEqualTo(30L);
+        assertThat(Cents.of(new BigDecimal("-0.01"))).isEqualTo(-1L);
+        assertThat(Cents.of(new BigDecimal("92233720368547758.07"))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void of_rejectsFractionOfCent() {
+        assertThatThrownBy(() -> Cents.of(new BigDecimal("1.005")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void of_rejectsAmountOutsideLong() {
+        assertThatThrownBy(() -> Cents.of(new BigDecimal("92233720368547758.08")))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Cents.of(new BigDecimal("99999999999999999.99")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toAmount_returnsScaleTwo() {
+        assertThat(Cents.toAmount(1050L)).isEqualTo(new BigDecimal("10.50"));
+        assertThat(Cents.toAmount(0L)).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    // ---- format() ----
+
+    @Test
+    void format_writesLikePlainStringOfAmount() {
+        for (long cents : new long[]{0, 1, 9, 10, 99, 100, 1050, -1, -5, -100, -123456, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertThat(Cents.toString(cents)).isEqualTo(BigDecimal.valueOf(cents, 2).toPlainString());
+        }
+    }
+
+    @Test
+    void format_writesAtOffset() {
+        char[] buffer = "xxx".concat(" ".repeat(Cents.MAX_LENGTH)).toCharArray();
+
+        int length = Cents.format(-305L, buffer, 3);
+
+        assertThat(new String(buffer, 0, 3 + length)).isEqualTo("xxx-3.05");
+    }
+
+    // ---- CentsSerializer ----
+
+    @Test
+    void serializer_writesSameJsonAsAmount() throws Exception {
+        JsonMapper mapper = JsonMapper.builder()
+                .addModule(new SimpleModule().addSerializer(Long.class, new CentsSerializer()))
+                .build();
+
+        String cents = mapper.writeValueAsString(Map.of("amount", 123405L));
+        String amount = JsonMapper.builder().build().writeValueAsString(Map.of("amount", new BigDecimal("1234.05")));
+
+        assertThat(cents).isEqualTo("{\"amount\":1234.05}").isEqualTo(amount);
+    }
+}
@@ -0,0 +1,156 @@
+package org.nikolait.crmsystem.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nikolait.crmsystem.IntegrationTestBase;
+import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.model.Transaction;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the access paths of the analytics queries the application runs: scans of completed
+ * transactions must stay index-only scans on the partial covering indexes, and per-seller rollup
+ * reads must use the rollup primary key. Index names on transactions are not asserted, since
+ * every partition carries its own copy of the partitioned index.
+ */
+class CompletedTransactionIndexIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Seller seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = sellerRepository.save(
+                Seller.builder()
+                        .name("Planner")
+                        .contactInfo("planner@example.com")
+                        .deleted(false)
+                        .build()
+        );
+
+        List<Transaction> transactions = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 500; i++) {
+            transactions.add(Transaction.builder()
+                    .seller(seller)
+                    .amount(BigDecimal.TEN)
+                    .paymentType(PaymentType.CARD)
+                    .status(i % 5 == 0 ? TransactionStatus.PENDING : TransactionStatus.COMPLETED)
+                    .transactionDate(i % 5 == 0 ? null : start.plusHours(i))
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+
+        salesRollupService.rebuild();
+
+        jdbcTemplate.execute("VACUUM ANALYZE transactions");
+        jdbcTemplate.execute("VACUUM ANALYZE seller_sales_daily");
+    }
+
+    @Test
+    void dateRangeTotals_useIndexOnlyScan() {
+        // TransactionRepository.findSellersWithTotalAmountLessThan and the raw edges of
+        // SalesRollupRepository.findSellersWithTotalAmountLessThan
+        String plan = explain("""
+                SELECT t.seller_id, SUM(t.amount)
+                FROM transactions t
+                WHERE t.status = 'COMPLETED'
+                  AND t.transaction_date BETWEEN '2024-01-02' AND '2024-01-05'
+                GROUP BY t.seller_id
+                """);
+
+        assertIndexOnly(plan);
+    }
+
+    @Test
+    void sellerSummaryRebuild_usesIndexOnlyScan() {
+        // SalesRollupRepository.rebuildSellerSummaries
+        String plan = explain("""
+                SELECT t.seller_id, COUNT(*), SUM(t.amount), MIN(t.transaction_date), MAX(t.transaction_date)
+                FROM transactions t
+                WHERE t.status = 'COMPLETED'
+                  AND t.transaction_date IS NOT NULL
+                GROUP BY t.seller_id
+                """);
+
+        assertIndexOnly(plan);
+    }
+
+    @Test
+    void bestPeriodsWindowQuery_readsDailyRollupBySellerKey() {
+        // SalesRollupRepository.findBestPeriodsFromDaily
+        String plan = explain("""
+                SELECT b.seller_id, b.month_start, b.total_amount
+                FROM (SELECT p.*,
+                             ROW_NUMBER() OVER (PARTITION BY p.seller_id
+                                                ORDER BY p.total_amount DESC, p.month_start) AS rn
+                      FROM (SELECT r.seller_id,
+                                   date_trunc('month', CAST(r.period_start AS TIMESTAMP)) AS month_start,
+                                   SUM(r.total_amount)                                    AS total_amount
+                            FROM seller_sales_daily r
+                            WHERE r.seller_id IN (%d, %d)
+                            GROUP BY r.seller_id, month_start) p) b
+                WHERE b.rn = 1
+                """.formatted(seller.getId(), seller.getId() + 1));
+
+        assertThat(plan)
+                .contains("pk_seller_sales_daily")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void dailyRollupRebuild_usesIndexOnlyScan() {
+        // SalesRollupRepository.rebuildDaily
+        String plan = explain("""
+                SELECT t.seller_id, CAST(t.transaction_date AS DATE), COUNT(*), SUM(t.amount)
+                FROM transactions t
+                WHERE t.status = 'COMPLETED'
+                  AND t.transaction_date IS NOT NULL
+                GROUP BY t.seller_id, CAST(t.transaction_date AS DATE)
+                """);
+
+        assertIndexOnly(plan);
+    }
+
+    private static void assertIndexOnly(String plan) {
+        assertThat(plan)
+                .contains("Index Only Scan")
+                .doesNotContain("Seq Scan")
+                .doesNotContain("Index Scan using");
+    }
+
+    /**
+     * Returns the text plan with sequential and bitmap scans disabled, so that the
+     * small test table does not hide a missing index.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("SET enable_seqscan = off");
+            statement.execute("SET enable_bitmapscan = off");
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            } finally {
+                statement.execute("RESET enable_seqscan");
+                statement.execute("RESET enable_bitmapscan");
+            }
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package org.nikolait.crmsystem.repository;
+
+import org.junit.jupiter.api.Test;
+import org.nikolait.crmsystem.IntegrationTestBase;
+import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.service.TransactionPartitionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionPartitionIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private TransactionPartitionService transactionPartitionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createPartitions_movesRowsOutOfDefaultPartition() {
+        Seller seller = saveSeller();
+        Long id = insertCompleted(seller, LocalDateTime.of(2023, 6, 15, 12, 0));
+
+        assertThat(partitionOf(id)).isEqualTo("transactions_default");
+
+        transactionPartitionService.createPartitions(YearMonth.of(2023, 6), YearMonth.of(2023, 6));
+
+        assertThat(partitionOf(id)).isEqualTo("transactions_2023_06");
+        assertThat(transactionRepository.findById(id)).isPresent();
+    }
+
+    @Test
+    void completePending_movesRowIntoMonthlyPartition() {
+        transactionPartitionService.createUpcomingPartitions();
+        Seller seller = saveSeller();
+        Long id = insertPending(seller);
+
+        assertThat(partitionOf(id)).isEqualTo("transactions_default");
+
+        assertThat(transactionRepository.completePending(id, LocalDateTime.now())).isPresent();
+
+        YearMonth month = YearMonth.now();
+        assertThat(partitionOf(id))
+                .isEqualTo("transactions_%d_%02d".formatted(month.getYear(), month.getMonthValue()));
+    }
+
+    @Test
+    void idIndex_rejectsDuplicateIdWithinPartition() {
+        Seller seller = saveSeller();
+        Long id = insertPending(seller);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("""
+                INSERT INTO transactions (id, seller_id, amount, payment_type, status)
+                VALUES (?, ?, 10, 'CARD', 'PENDING')
+                """, id, seller.getId()))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void idIndex_rejectsDuplicateId_whenCompletionMovesRowIn() {
+        transactionPartitionService.createPartitions(YearMonth.of(2023, 6), YearMonth.of(2023, 6));
+        Seller seller = saveSeller();
+        Long id = insertPending(seller);
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, seller_id, amount, payment_type, status, transaction_date)
+                VALUES (?, ?, 10, 'CARD', 'COMPLETED', ?)
+                """, id, seller.getId(), LocalDateTime.of(2023, 6, 1, 12, 0));
+
+        assertThatThrownBy(() -> transactionRepository.completePending(id, LocalDateTime.of(2023, 6, 15, 12, 0)))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void createPartitions_isIdempotent() {
+        transactionPartitionService.createPartitions(YearMonth.of(2023, 7), YearMonth.of(2023, 8));
+
+        int created = transactionPartitionService.createPartitions(YearMonth.of(2023, 7), YearMonth.of(2023, 9));
+
+        assertThat(created).isEqualTo(1);
+    }
+
+    @Test
+    void createUpcomingPartitions_coversCurrentMonth() {
+        transactionPartitionService.createUpcomingPartitions();
+
+        String name = "transactions_%d_%02d".formatted(YearMonth.now().getYear(), YearMonth.now().getMonthValue());
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)).isTrue();
+    }
+
+    @Test
+    void dateRangeQuery_scansOnlyMatchingPartitions() {
+        transactionPartitionService.createPartitions(YearMonth.of(2023, 10), YearMonth.of(2023, 12));
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN
+                SELECT t.seller_id, SUM(t.amount)
+                FROM transactions t
+                WHERE t.status = 'COMPLETED'
+                  AND t.transaction_date BETWEEN '2023-11-05' AND '2023-11-20'
+                GROUP BY t.seller_id
+                """, String.class));
+
+        assertThat(plan)
+                .contains("transactions_2023_11")
+                .doesNotContain("transactions_2023_10")
+                .doesNotContain("transactions_2023_12")
+                .doesNotContain("transactions_default");
+    }
+
+    private String partitionOf(Long id) {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT CAST(tableoid::regclass AS TEXT) FROM transactions WHERE id = ?", String.class, id);
+        return names.getFirst();
+    }
+
+    private Seller saveSeller() {
+        return sellerRepository.save(
+                Seller.builder()
+                        .name("Partitioned")
+                        .contactInfo("partitioned@example.com")
+                        .deleted(false)
+                        .build()
+        );
+    }
+
+    private Long insertPending(Seller seller) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO transactions (seller_id, amount, payment_type, status)
+                VALUES (?, 10, 'CARD', 'PENDING')
+                RETURNING id
+                """, Long.class, seller.getId());
+    }
+
+    private Long insertCompleted(Seller seller, LocalDateTime date) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO transactions (seller_id, amount, payment_type, status, transaction_date)
+                VALUES (?, 10, 'CARD', 'COMPLETED', ?)
+                RETURNING id
+                """, Long.class, seller.getId(), date);
+    }
+}
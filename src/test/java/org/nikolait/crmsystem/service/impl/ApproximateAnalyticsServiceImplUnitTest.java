@@ -0,0 +1,284 @@
+package org.nikolait.crmsystem.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.config.SalesSketchProperties;
+import org.nikolait.crmsystem.dto.analytics.ApproximateSellersResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerStatsResponse;
+import org.nikolait.crmsystem.event.SellerChangedEvent;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.projection.SellerDailySalesProjection;
+import org.nikolait.crmsystem.model.projection.SellerNameProjection;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
+import org.nikolait.crmsystem.repository.SellerRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApproximateAnalyticsServiceImplUnitTest {
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    private ApproximateAnalyticsServiceImpl approximateAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        approximateAnalyticsService = new ApproximateAnalyticsServiceImpl(
+                salesRollupRepository,
+                sellerRepository,
+                new SalesSketchProperties(0.01, 0.99, 11)
+        );
+        lenient().when(sellerRepository.findAllNames())
+                .thenReturn(List.of(seller(1L), seller(2L), seller(3L)));
+    }
+
+    // --------------------------------------------
+    //      getSellersWithTotalLessThan()
+    // --------------------------------------------
+    @Test
+    void getSellersWithTotalLessThan_sumsCompletionsAcrossDaysMonthsAndYears() {
+        approximateAnalyticsService.onTransactionCompleted(completed(1L, "10.00", LocalDate.of(2022, 12, 31)));
+        approximateAnalyticsService.onTransactionCompleted(completed(1L, "20.00", LocalDate.of(2023, 6, 15)));
+        approximateAnalyticsService.onTransactionCompleted(completed(1L, "40.00", LocalDate.of(2025, 2, 3)));
+        approximateAnalyticsService.onTransactionCompleted(completed(2L, "500.00", LocalDate.of(2024, 3, 1)));
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2022, 12, 31, 12, 0),
+                LocalDateTime.of(2025, 2, 3, 9, 0),
+                new BigDecimal("100.00")
+        );
+
+        assertEquals(LocalDate.of(2022, 12, 31), response.fromDay());
+        assertEquals(LocalDate.of(2025, 2, 4), response.toDay());
+        assertEquals(List.of(3L, 1L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+        assertEquals(new BigDecimal("0.00"), response.sellers().get(0).totalAmount());
+        assertEquals(new BigDecimal("70.00"), response.sellers().get(1).totalAmount());
+        assertEquals(2, response.activeSellers());
+        assertTrue(response.errorBound().compareTo(new BigDecimal("5.70")) <= 0);
+        assertTrue(response.confidence() >= 0.99);
+    }
+
+    @Test
+    void getSellersWithTotalLessThan_ignoresSalesOutsideRange() {
+        approximateAnalyticsService.onTransactionBatchCompleted(new TransactionBatchCompletedEvent(
+                LocalDateTime.of(2024, 5, 31, 10, 0),
+                List.of(completed(1L, "10.00", LocalDate.of(2024, 5, 31)),
+                        completed(2L, "10.00", LocalDate.of(2024, 5, 31)))
+        ));
+        approximateAnalyticsService.onTransactionCompleted(completed(1L, "90.00", LocalDate.of(2024, 6, 1)));
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2024, 5, 1, 0, 0),
+                LocalDateTime.of(2024, 5, 31, 23, 59),
+                new BigDecimal("50.00")
+        );
+
+        assertEquals(List.of(3L, 1L, 2L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+        assertEquals(new BigDecimal("10.00"), response.sellers().get(1).totalAmount());
+    }
+
+    @Test
+    void getSellersWithTotalLessThan_neverUnderestimatesTotals() {
+        List<SellerNameProjection> sellers = LongStream.rangeClosed(1, 2_000).mapToObj(this::seller).toList();
+        when(sellerRepository.findAllNames()).thenReturn(sellers);
+        for (long sellerId = 1; sellerId <= 2_000; sellerId++) {
+            approximateAnalyticsService.onTransactionCompleted(
+                    completed(sellerId, String.valueOf(sellerId), LocalDate.of(2024, 1, 1 + (int) (sellerId % 28))));
+        }
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 31, 0, 0),
+                new BigDecimal("1000000.00")
+        );
+
+        assertEquals(2_000, response.sellers().size());
+        int outsideBound = 0;
+        for (SellerStatsResponse stats : response.sellers()) {
+            BigDecimal exact = BigDecimal.valueOf(stats.sellerId());
+            assertTrue(stats.totalAmount().compareTo(exact) >= 0);
+            if (stats.totalAmount().subtract(exact).compareTo(response.errorBound()) > 0) {
+                outsideBound++;
+            }
+        }
+        assertTrue(outsideBound <= 2_000 * (1 - response.confidence()) * 5);
+        assertEquals(2_000, response.activeSellers(), 2_000 * 3 * response.activeSellersError());
+    }
+
+    @Test
+    void getSellersWithTotalLessThan_includesDeletedSellersOnlyWithSales() {
+        when(sellerRepository.findAllNames())
+                .thenReturn(List.of(seller(1L), seller(2L, true), seller(3L, true)));
+        approximateAnalyticsService.onTransactionCompleted(completed(2L, "15.00", LocalDate.of(2024, 5, 10)));
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2024, 5, 1, 0, 0),
+                LocalDateTime.of(2024, 5, 31, 0, 0),
+                new BigDecimal("50.00")
+        );
+
+        assertEquals(List.of(1L, 2L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+        assertEquals(new BigDecimal("15.00"), response.sellers().get(1).totalAmount());
+    }
+
+    // --------------------------------------------
+    //                rebuild()
+    // --------------------------------------------
+    @Test
+    void rebuild_replacesSketchesWithRollupTotals() {
+        approximateAnalyticsService.onTransactionCompleted(completed(1L, "10.00", LocalDate.of(2024, 1, 10)));
+        when(salesRollupRepository.streamDaily())
+                .thenReturn(Stream.of(daily(2L, LocalDate.of(2024, 1, 10), "30.00")));
+
+        approximateAnalyticsService.rebuild();
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 31, 0, 0),
+                new BigDecimal("100.00")
+        );
+
+        assertEquals(List.of(1L, 3L, 2L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+        assertEquals(new BigDecimal("30.00"), response.sellers().get(2).totalAmount());
+        assertEquals(1, response.activeSellers());
+    }
+
+    @Test
+    void rebuild_keepsCompletionsCommittedWhileReadingRollup() {
+        LocalDateTime now = LocalDateTime.now();
+        when(salesRollupRepository.streamDaily()).thenAnswer(inv -> {
+            approximateAnalyticsService.onTransactionCompleted(new TransactionCompletedEvent(
+                    1L, 1L, new BigDecimal("10.00"), LocalDateTime.now(), PaymentType.CARD));
+            return Stream.of(daily(2L, now.toLocalDate(), "30.00"));
+        });
+
+        approximateAnalyticsService.rebuild();
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                now, now, new BigDecimal("100.00"));
+
+        assertEquals(List.of(3L, 1L, 2L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+        assertEquals(new BigDecimal("10.00"), response.sellers().get(1).totalAmount());
+    }
+
+    @Test
+    void rebuild_doesNotCountTwice_completionsDatedBeforeRead() {
+        when(salesRollupRepository.streamDaily()).thenAnswer(inv -> {
+            // Committed after the rebuild started, but already part of the rollup being read
+            approximateAnalyticsService.onTransactionCompleted(completed(1L, "10.00", LocalDate.of(2024, 1, 10)));
+            return Stream.of(daily(1L, LocalDate.of(2024, 1, 10), "10.00"));
+        });
+
+        approximateAnalyticsService.rebuild();
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2024, 1, 10, 0, 0),
+                LocalDateTime.of(2024, 1, 10, 0, 0),
+                new BigDecimal("100.00")
+        );
+
+        assertEquals(List.of(2L, 3L, 1L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+        assertEquals(new BigDecimal("10.00"), response.sellers().get(2).totalAmount());
+    }
+
+    @Test
+    void rebuild_reloadsSellerNames() {
+        approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0), BigDecimal.ONE);
+        when(sellerRepository.findAllNames()).thenReturn(List.of(seller(4L)));
+        when(salesRollupRepository.streamDaily()).thenReturn(Stream.empty());
+
+        approximateAnalyticsService.rebuild();
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 31, 0, 0), BigDecimal.ONE);
+
+        assertEquals(List.of(4L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+    }
+
+    // --------------------------------------------
+    //              onSellerChanged()
+    // --------------------------------------------
+    @Test
+    void getSellersWithTotalLessThan_readsSellerNamesOnce_untilSellerChanged() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 31, 0, 0);
+
+        approximateAnalyticsService.getSellersWithTotalLessThan(from, to, BigDecimal.ONE);
+        approximateAnalyticsService.getSellersWithTotalLessThan(from, to, BigDecimal.ONE);
+        verify(sellerRepository, times(1)).findAllNames();
+
+        when(sellerRepository.findAllNames()).thenReturn(List.of(seller(1L), seller(2L), seller(3L), seller(4L)));
+        approximateAnalyticsService.onSellerChanged(new SellerChangedEvent(4L));
+
+        ApproximateSellersResponse response = approximateAnalyticsService.getSellersWithTotalLessThan(
+                from, to, BigDecimal.ONE);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), response.sellers().stream().map(SellerStatsResponse::sellerId).toList());
+        verify(sellerRepository, times(2)).findAllNames();
+    }
+
+    private SellerNameProjection seller(long id) {
+        return seller(id, false);
+    }
+
+    private SellerNameProjection seller(long id, boolean deleted) {
+        return new SellerNameProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Seller " + id;
+            }
+
+            @Override
+            public Boolean getDeleted() {
+                return deleted;
+            }
+        };
+    }
+
+    private static TransactionCompletedEvent completed(Long sellerId, String amount, LocalDate date) {
+        return new TransactionCompletedEvent(
+                1L, sellerId, new BigDecimal(amount), date.atTime(12, 0), PaymentType.CARD);
+    }
+
+    private static SellerDailySalesProjection daily(Long sellerId, LocalDate day, String amount) {
+        return new SellerDailySalesProjection() {
+            @Override
+            public Long getSellerId() {
+                return sellerId;
+            }
+
+            @Override
+            public LocalDateTime getPeriodStart() {
+                return day.atStartOfDay();
+            }
+
+            @Override
+            public BigDecimal getTotalAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package org.nikolait.crmsystem.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.config.ColumnarSalesProperties;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnarSalesServiceImplUnitTest {
+
+    private static final LocalDateTime MONTH_START = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    private static final LocalDateTime RESIDENT_FROM = MONTH_START.minusMonths(2);
+    private static final LocalDateTime LAST_MONTH = MONTH_START.minusMonths(1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ColumnarSalesServiceImpl columnarSalesService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        columnarSalesService = new ColumnarSalesServiceImpl(
+                transactionRepository,
+                new ColumnarSalesProperties(true, 3, 1024),
+                meterRegistry
+        );
+    }
+
+    // --------------------------------------------
+    //                sumBySeller()
+    // --------------------------------------------
+    @Test
+    void sumBySeller_returnsEmptyUntilLoaded() {
+        assertThat(columnarSalesService.sumBySeller(LAST_MONTH, LAST_MONTH.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void sumBySeller_sumsResidentRangeBySeller() {
+        when(transactionRepository.streamCompletedSince(RESIDENT_FROM)).thenReturn(Stream.of(
+                row(1L, 1L, "10.00", RESIDENT_FROM),
+                row(2L, 1L, "20.50", LAST_MONTH.plusHours(10).plusSeconds(30)),
+                row(3L, 2L, "5.25", LAST_MONTH.plusHours(23).plusMinutes(59)),
+                row(4L, 2L, "100.00", LAST_MONTH.plusDays(1))
+        ));
+        columnarSalesService.reload();
+
+        assertThat(columnarSalesService.sumBySeller(LAST_MONTH, LAST_MONTH.plusDays(1))).contains(Map.of(
+                1L, new BigDecimal("20.50"),
+                2L, new BigDecimal("5.25")
+        ));
+        assertThat(columnarSalesService.sumBySeller(RESIDENT_FROM, LAST_MONTH.plusDays(2)).orElseThrow())
+                .containsEntry(1L, new BigDecimal("30.50"))
+                .containsEntry(2L, new BigDecimal("105.25"));
+    }
+
+    @Test
+    void sumBySeller_returnsEmpty_whenRangeIsNotResidentOrNotOnWholeMinutes() {
+        when(transactionRepository.streamCompletedSince(RESIDENT_FROM)).thenReturn(Stream.empty());
+        columnarSalesService.reload();
+
+        assertThat(columnarSalesService.sumBySeller(RESIDENT_FROM.minusDays(1), LAST_MONTH)).isEmpty();
+        assertThat(columnarSalesService.sumBySeller(LAST_MONTH.plusSeconds(1), LAST_MONTH.plusDays(1))).isEmpty();
+        assertThat(columnarSalesService.sumBySeller(LAST_MONTH, LAST_MONTH.plusDays(1))).contains(Map.of());
+    }
+
+    @Test
+    void sumBySeller_returnsEmpty_forRangeStillOpenAtReload() {
+        LocalDateTime minute = LocalDateTime.now().withSecond(0).withNano(0);
+        when(transactionRepository.streamCompletedSince(RESIDENT_FROM))
+                .thenReturn(Stream.of(row(1L, 1L, "10.00", minute)));
+        columnarSalesService.reload();
+
+        assertThat(columnarSalesService.sumBySeller(minute.minusDays(1), minute.plusMinutes(1))).isEmpty();
+        assertThat(columnarSalesService.sumBySeller(minute.minusDays(1), minute.minusMinutes(2))).isPresent();
+    }
+
+    @Test
+    void sumBySeller_scansEveryChunk() {
+        when(transactionRepository.streamCompletedSince(RESIDENT_FROM)).thenReturn(
+                LongStream.rangeClosed(1, 10_000)
+                        .mapToObj(id -> row(id, id % 7, "1.01", RESIDENT_FROM.plusMinutes(id))));
+        columnarSalesService.reload();
+
+        Map<Long, BigDecimal> totals = columnarSalesService
+                .sumBySeller(RESIDENT_FROM.plusMinutes(1), RESIDENT_FROM.plusMinutes(9_001))
+                .orElseThrow();
+
+        assertThat(totals).hasSize(7);
+        assertThat(totals.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo("9090.00");
+        assertThat(meterRegistry.get("analytics.columnar.rows").gauge().value()).isEqualTo(10_000);
+        assertThat(meterRegistry.get("analytics.columnar.memory.per.million.rows").gauge().value())
+                .isGreaterThanOrEqualTo(SalesColumns.ROW_BYTES * 1_000_000.0);
+    }
+
+    // --------------------------------------------
+    //                  reload()
+    // --------------------------------------------
+    @Test
+    void reload_doesNothing_whenDisabled() {
+        columnarSalesService = new ColumnarSalesServiceImpl(
+                transactionRepository,
+                new ColumnarSalesProperties(false, 3, 1024),
+                new SimpleMeterRegistry()
+        );
+
+        columnarSalesService.reload();
+
+        verify(transactionRepository, never()).streamCompletedSince(any());
+        assertThat(columnarSalesService.sumBySeller(MONTH_START, MONTH_START.plusDays(1))).isEmpty();
+    }
+
+    private static TransactionResponse row(Long id, Long sellerId, String amount, LocalDateTime transactionDate) {
+        return new TransactionResponse(id, sellerId, new BigDecimal(amount), PaymentType.CARD, transactionDate,
+                TransactionStatus.COMPLETED, transactionDate);
+    }
+}
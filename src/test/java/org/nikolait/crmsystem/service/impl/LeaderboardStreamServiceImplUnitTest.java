@@ -0,0 +1,142 @@
+package org.nikolait.crmsystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.config.LeaderboardStreamProperties;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.service.SellerAnalyticsService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardStreamServiceImplUnitTest {
+
+    @Mock
+    private SellerAnalyticsService analyticsService;
+
+    private LeaderboardStreamServiceImpl leaderboardStreamService;
+
+    @BeforeEach
+    void setUp() {
+        leaderboardStreamService = new LeaderboardStreamServiceImpl(
+                analyticsService,
+                new ObjectMapper().findAndRegisterModules(),
+                new LeaderboardStreamProperties(Duration.ofSeconds(1), Duration.ofSeconds(15), Duration.ofMinutes(1),
+                        2, 10, Duration.ofSeconds(5))
+        );
+        lenient().when(analyticsService.getTopSellers(any(), any(), anyInt()))
+                .thenReturn(List.of(new SellerRankResponse(1, 1L, "Alice", new BigDecimal("10.00"))));
+    }
+
+    @Test
+    void subscribe_sharesOneComputationBetweenSubscribers() {
+        leaderboardStreamService.subscribe(PeriodType.DAY, 5);
+        leaderboardStreamService.subscribe(PeriodType.DAY, 10);
+        leaderboardStreamService.subscribe(PeriodType.DAY, 10);
+
+        assertEquals(3, leaderboardStreamService.subscriberCount(PeriodType.DAY));
+        verify(analyticsService, times(1))
+                .getTopSellers(PeriodType.DAY, LocalDate.now(), LeaderboardStreamServiceImpl.MAX_LIMIT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaderboardStreamService.shutdown();
+    }
+
+    @Test
+    @Timeout(5)
+    void subscribe_waitsForLoadInProgress_withoutHoldingOtherPeriods() throws InterruptedException {
+        CompletableFuture<Void> loading = new CompletableFuture<>();
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        when(analyticsService.getTopSellers(eq(PeriodType.DAY), any(), anyInt())).thenAnswer(inv -> {
+            loading.complete(null);
+            release.join();
+            return List.of(new SellerRankResponse(1, 1L, "Alice", new BigDecimal("10.00")));
+        });
+
+        Thread first = Thread.ofPlatform().start(() -> leaderboardStreamService.subscribe(PeriodType.DAY, 10));
+        loading.join();
+        Thread second = Thread.ofPlatform().start(() -> leaderboardStreamService.subscribe(PeriodType.DAY, 5));
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        leaderboardStreamService.subscribe(PeriodType.WEEK, 10);
+        release.complete(null);
+        first.join();
+        second.join();
+
+        assertEquals(2, leaderboardStreamService.subscriberCount(PeriodType.DAY));
+        verify(analyticsService, times(1)).getTopSellers(eq(PeriodType.DAY), any(), anyInt());
+        verify(analyticsService, times(1)).getTopSellers(eq(PeriodType.WEEK), any(), anyInt());
+    }
+
+    @Test
+    void subscribe_throwsException_whenPeriodNotSupported() {
+        assertThrows(ValidationException.class,
+                () -> leaderboardStreamService.subscribe(PeriodType.YEAR, 10));
+
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    void publishChanges_recomputesOnlyAfterCompletion() {
+        leaderboardStreamService.subscribe(PeriodType.WEEK, 10);
+        leaderboardStreamService.subscribe(PeriodType.WEEK, 10);
+
+        leaderboardStreamService.publishChanges();
+        verify(analyticsService, times(1)).getTopSellers(eq(PeriodType.WEEK), any(), anyInt());
+
+        leaderboardStreamService.onTransactionCompleted(
+                new TransactionCompletedEvent(1L, 1L, BigDecimal.TEN, LocalDateTime.now(), PaymentType.CARD)
+        );
+        leaderboardStreamService.onTransactionCompleted(
+                new TransactionCompletedEvent(2L, 1L, BigDecimal.TEN, LocalDateTime.now(), PaymentType.CARD)
+        );
+        leaderboardStreamService.publishChanges();
+
+        verify(analyticsService, times(2)).getTopSellers(eq(PeriodType.WEEK), any(), anyInt());
+    }
+
+    @Test
+    void publishChanges_skipsPeriodsWithoutSubscribers() {
+        leaderboardStreamService.onTransactionCompleted(
+                new TransactionCompletedEvent(1L, 1L, BigDecimal.TEN, LocalDateTime.now(), PaymentType.CARD)
+        );
+
+        leaderboardStreamService.publishChanges();
+
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    @Timeout(5)
+    void subscribe_dropsSubscriberOnCompletion() {
+        leaderboardStreamService.subscribe(PeriodType.MONTH, 10).complete();
+
+        leaderboardStreamService.sendHeartbeats();
+
+        // Heartbeats are written by the send threads
+        while (leaderboardStreamService.subscriberCount(PeriodType.MONTH) > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
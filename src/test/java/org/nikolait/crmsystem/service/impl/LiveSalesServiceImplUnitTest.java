@@ -0,0 +1,157 @@
+package org.nikolait.crmsystem.service.impl;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.analytics.LiveSalesResponse;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.projection.SellerTotalsProjection;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveSalesServiceImplUnitTest {
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private SellerCache sellerCache;
+
+    @InjectMocks
+    private LiveSalesServiceImpl liveSalesService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(sellerCache.findActive(anyLong()))
+                .thenAnswer(inv -> Optional.of(new SellerResponse(inv.getArgument(0), "n", "c", null)));
+    }
+
+    // --------------------------------------------
+    //          getCurrentTotals()
+    // --------------------------------------------
+    @Test
+    void getCurrentTotals_loadsSellerFromRollupOnce() {
+        when(salesRollupRepository.sumDailyForSeller(eq(1L), any(), any()))
+                .thenReturn(Optional.of(totals(1L, 3, "30.00")));
+
+        liveSalesService.getCurrentTotals(1L);
+        LiveSalesResponse response = liveSalesService.getCurrentTotals(1L);
+
+        assertEquals(3, response.day().transactionCount());
+        assertEquals(new BigDecimal("30.00"), response.month().totalAmount());
+        assertEquals(LocalDate.now(), response.day().periodStart());
+        verify(salesRollupRepository, times(3)).sumDailyForSeller(eq(1L), any(), any());
+    }
+
+    @Test
+    void getCurrentTotals_returnsZeros_whenSellerHasNoSales() {
+        when(salesRollupRepository.sumDailyForSeller(eq(1L), any(), any()))
+                .thenReturn(Optional.empty());
+
+        LiveSalesResponse response = liveSalesService.getCurrentTotals(1L);
+
+        assertEquals(0, response.week().transactionCount());
+        assertEquals(new BigDecimal("0.00"), response.week().totalAmount());
+    }
+
+    @Test
+    void getCurrentTotals_throwsException_whenSellerNotFound() {
+        when(sellerCache.findActive(9L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> liveSalesService.getCurrentTotals(9L));
+
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    // --------------------------------------------
+    //          completion events
+    // --------------------------------------------
+    @Test
+    void onTransactionCompleted_incrementsCountersOfLoadedSeller() {
+        when(salesRollupRepository.sumDailyForSeller(eq(1L), any(), any()))
+                .thenReturn(Optional.of(totals(1L, 1, "10.00")));
+        liveSalesService.getCurrentTotals(1L);
+
+        liveSalesService.onTransactionCompleted(completed(1L, "2.55"));
+        liveSalesService.onTransactionBatchCompleted(new TransactionBatchCompletedEvent(
+                LocalDateTime.now(), List.of(completed(1L, "1.00"), completed(2L, "5.00"))
+        ));
+
+        LiveSalesResponse response = liveSalesService.getCurrentTotals(1L);
+        assertEquals(3, response.day().transactionCount());
+        assertEquals(new BigDecimal("13.55"), response.day().totalAmount());
+        assertEquals(new BigDecimal("13.55"), response.week().totalAmount());
+        verify(salesRollupRepository, times(3)).sumDailyForSeller(eq(1L), any(), any());
+    }
+
+    @Test
+    void onTransactionCompleted_ignoresSellerNotLoaded() {
+        liveSalesService.onTransactionCompleted(completed(1L, "2.55"));
+
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    // --------------------------------------------
+    //              reconcile()
+    // --------------------------------------------
+    @Test
+    void reconcile_replacesCountersWithRollupTotals() {
+        when(salesRollupRepository.sumDailyForSeller(anyLong(), any(), any()))
+                .thenReturn(Optional.of(totals(1L, 1, "10.00")));
+        liveSalesService.getCurrentTotals(1L);
+        liveSalesService.getCurrentTotals(2L);
+
+        when(salesRollupRepository.sumDailyBySeller(any(), any()))
+                .thenReturn(List.of(totals(1L, 5, "50.00")));
+
+        liveSalesService.reconcile();
+
+        LiveSalesResponse first = liveSalesService.getCurrentTotals(1L);
+        LiveSalesResponse second = liveSalesService.getCurrentTotals(2L);
+        assertEquals(5, first.day().transactionCount());
+        assertEquals(new BigDecimal("50.00"), first.month().totalAmount());
+        assertEquals(0, second.day().transactionCount());
+        verify(salesRollupRepository, times(6)).sumDailyForSeller(anyLong(), any(), any());
+    }
+
+    private static TransactionCompletedEvent completed(Long sellerId, String amount) {
+        return new TransactionCompletedEvent(
+                1L, sellerId, new BigDecimal(amount), LocalDateTime.now(), PaymentType.CARD);
+    }
+
+    private static SellerTotalsProjection totals(Long sellerId, long count, String amount) {
+        return new SellerTotalsProjection() {
+            @Override
+            public Long getSellerId() {
+                return sellerId;
+            }
+
+            @Override
+            public Long getTxCount() {
+                return count;
+            }
+
+            @Override
+            public BigDecimal getTotalAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package org.nikolait.crmsystem.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.dto.analytics.SalesRollupMismatchResponse;
+import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
+import org.nikolait.crmsystem.event.SalesRollupsRebuiltEvent;
+import org.nikolait.crmsystem.model.projection.SalesRollupMismatchProjection;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceImplUnitTest {
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SalesRollupServiceImpl service;
+
+    @Test
+    void rebuild_locksClearsAndRebuildsFromFinestGranularity() {
+        when(salesRollupRepository.rebuildDaily()).thenReturn(42);
+
+        int rows = service.rebuild();
+
+        assertThat(rows).isEqualTo(42);
+
+        InOrder inOrder = inOrder(salesRollupRepository);
+        inOrder.verify(salesRollupRepository).lockRollups();
+        inOrder.verify(salesRollupRepository).deleteYearly();
+        inOrder.verify(salesRollupRepository).deleteMonthly();
+        inOrder.verify(salesRollupRepository).deleteDaily();
+        inOrder.verify(salesRollupRepository).rebuildDaily();
+        inOrder.verify(salesRollupRepository).rebuildMonthly();
+        inOrder.verify(salesRollupRepository).rebuildYearly();
+        inOrder.verify(salesRollupRepository).rebuildSellerSummaries();
+        verify(eventPublisher).publishEvent(new SalesRollupsRebuiltEvent(42));
+    }
+
+    @Test
+    void rebuildSellerSummaries_locksRollupsBeforeRepairing() {
+        when(salesRollupRepository.rebuildSellerSummaries()).thenReturn(3);
+
+        int repaired = service.rebuildSellerSummaries();
+
+        assertThat(repaired).isEqualTo(3);
+
+        InOrder inOrder = inOrder(salesRollupRepository);
+        inOrder.verify(salesRollupRepository).lockRollups();
+        inOrder.verify(salesRollupRepository).rebuildSellerSummaries();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void findMismatches_mapsProjectionsToResponses() {
+        SalesRollupMismatchProjection projection = mock(SalesRollupMismatchProjection.class);
+        when(projection.getGranularity()).thenReturn("MONTH");
+        when(projection.getSellerId()).thenReturn(5L);
+        when(projection.getPeriodStart()).thenReturn(LocalDate.of(2025, 3, 1));
+        when(projection.getRollupCount()).thenReturn(2L);
+        when(projection.getRollupAmount()).thenReturn(new BigDecimal("20.00"));
+        when(projection.getActualCount()).thenReturn(3L);
+        when(projection.getActualAmount()).thenReturn(new BigDecimal("30.00"));
+
+        when(salesRollupRepository.findMismatches()).thenReturn(List.of(projection));
+
+        List<SalesRollupMismatchResponse> result = service.findMismatches();
+
+        assertThat(result).containsExactly(new SalesRollupMismatchResponse(
+                PeriodType.MONTH,
+                5L,
+                LocalDate.of(2025, 3, 1),
+                2L,
+                new BigDecimal("20.00"),
+                3L,
+                new BigDecimal("30.00")
+        ));
+    }
+}
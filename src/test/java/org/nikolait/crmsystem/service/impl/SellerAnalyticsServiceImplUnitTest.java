@@ -1,30 +1,48 @@
 package org.nikolait.crmsystem.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.cache.AnalyticsCache;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.config.AnalyticsCacheProperties;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
+import org.nikolait.crmsystem.dto.SellerResponse;
 import org.nikolait.crmsystem.dto.analytics.BestPeriodResponse;
+import org.nikolait.crmsystem.dto.analytics.SellerRankResponse;
 import org.nikolait.crmsystem.dto.analytics.SellerStatsResponse;
 import org.nikolait.crmsystem.dto.analytics.enums.PeriodType;
-import org.nikolait.crmsystem.model.Seller;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
+import org.nikolait.crmsystem.model.enums.PaymentType;
 import org.nikolait.crmsystem.model.projection.SellerBestPeriodProjection;
+import org.nikolait.crmsystem.model.projection.SellerBestPeriodRowProjection;
+import org.nikolait.crmsystem.model.projection.SellerNameProjection;
 import org.nikolait.crmsystem.model.projection.SellerSalesProjection;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
 import org.nikolait.crmsystem.repository.SellerRepository;
 import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.nikolait.crmsystem.service.ColumnarSalesService;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -32,11 +50,29 @@ import static org.mockito.Mockito.*;
 class SellerAnalyticsServiceImplUnitTest {
 
     @Mock
-    private SellerRepository sellerRepository;
+    private SellerCache sellerCache;
+
+    @Spy
+    private AnalyticsCache analyticsCache = new AnalyticsCache(
+            new AnalyticsCacheProperties(100, Duration.ofHours(24), Duration.ofMinutes(1)),
+            new SimpleMeterRegistry()
+    );
 
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    @Mock
+    private ColumnarSalesService columnarSalesService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private SellerAnalyticsServiceImpl service;
 
@@ -49,7 +85,7 @@ class SellerAnalyticsServiceImplUnitTest {
         when(projection.getSellerName()).thenReturn("Alice");
         when(projection.getTotalAmount()).thenReturn(new BigDecimal("150.00"));
 
-        when(transactionRepository.findTopSellersByPeriod(any(), any()))
+        when(salesRollupRepository.findTopSellersFromDaily(any(), any(), anyInt()))
                 .thenReturn(List.of(projection));
 
         SellerStatsResponse response = service.getTopSeller(PeriodType.DAY, baseDate);
@@ -58,21 +94,49 @@ class SellerAnalyticsServiceImplUnitTest {
         assertThat(response.sellerName()).isEqualTo("Alice");
         assertThat(response.totalAmount()).isEqualByComparingTo("150.00");
 
-        ArgumentCaptor<LocalDateTime> fromCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
-        ArgumentCaptor<LocalDateTime> toCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDate> fromCaptor = ArgumentCaptor.forClass(LocalDate.class);
+        ArgumentCaptor<LocalDate> toCaptor = ArgumentCaptor.forClass(LocalDate.class);
 
-        verify(transactionRepository).findTopSellersByPeriod(fromCaptor.capture(), toCaptor.capture());
+        verify(salesRollupRepository).findTopSellersFromDaily(fromCaptor.capture(), toCaptor.capture(), eq(1));
+        verifyNoInteractions(transactionRepository);
 
-        LocalDateTime expectedFrom = baseDate.atStartOfDay();
-        LocalDateTime expectedTo = baseDate.plusDays(1).atStartOfDay();
+        LocalDate expectedFrom = baseDate;
+        LocalDate expectedTo = baseDate.plusDays(1);
 
         assertThat(fromCaptor.getValue()).isEqualTo(expectedFrom);
         assertThat(toCaptor.getValue()).isEqualTo(expectedTo);
     }
 
+    @Test
+    void getTopSellers_assignsSharedRanksToTies() {
+        LocalDate baseDate = LocalDate.of(2025, Month.JANUARY, 15);
+
+        SellerSalesProjection first = rankedProjection(1L, "100.00");
+        SellerSalesProjection tiedA = rankedProjection(2L, "50.00");
+        SellerSalesProjection tiedB = rankedProjection(3L, "50.0");
+
+        when(salesRollupRepository.findTopSellersFromYearly(
+                LocalDate.of(2025, Month.JANUARY, 1), LocalDate.of(2026, Month.JANUARY, 1), 2))
+                .thenReturn(List.of(first, tiedA, tiedB));
+
+        List<SellerRankResponse> leaders = service.getTopSellers(PeriodType.YEAR, baseDate, 2);
+
+        assertThat(leaders)
+                .extracting(SellerRankResponse::rank, SellerRankResponse::sellerId)
+                .containsExactly(tuple(1, 1L), tuple(2, 2L), tuple(2, 3L));
+    }
+
+    @Test
+    void getTopSellers_returnsEmptyListWhenNoStats() {
+        when(salesRollupRepository.findTopSellersFromDaily(any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        assertThat(service.getTopSellers(PeriodType.WEEK, LocalDate.now(), 5)).isEmpty();
+    }
+
     @Test
     void getTopSeller_throwsIfNoStats() {
-        when(transactionRepository.findTopSellersByPeriod(any(), any()))
+        when(salesRollupRepository.findTopSellersFromDaily(any(), any(), anyInt()))
                 .thenReturn(List.of());
 
         assertThatThrownBy(() -> service.getTopSeller(PeriodType.DAY, LocalDate.now()))
@@ -96,7 +160,8 @@ class SellerAnalyticsServiceImplUnitTest {
         when(p2.getSellerName()).thenReturn("Bob");
         when(p2.getTotalAmount()).thenReturn(new BigDecimal("750.00"));
 
-        when(transactionRepository.findSellersWithTotalAmountLessThan(from, to, maxTotal))
+        when(salesRollupRepository.findSellersWithTotalAmountLessThan(
+                from, to, from.toLocalDate(), to.toLocalDate(), maxTotal))
                 .thenReturn(List.of(p1, p2));
 
         List<SellerStatsResponse> result =
@@ -119,6 +184,39 @@ class SellerAnalyticsServiceImplUnitTest {
         LocalDateTime to = LocalDateTime.of(2025, 2, 1, 0, 0);
         BigDecimal maxTotal = new BigDecimal("1000.00");
 
+        when(salesRollupRepository.findSellersWithTotalAmountLessThan(
+                from, to, from.toLocalDate(), to.toLocalDate(), maxTotal))
+                .thenReturn(List.of());
+
+        List<SellerStatsResponse> result =
+                service.getSellersWithTotalLessThan(from, to, maxTotal);
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void getTopSeller_readsMonthlyRollup_forQuarter() {
+        LocalDate baseDate = LocalDate.of(2025, Month.MAY, 20);
+
+        SellerSalesProjection projection = mock(SellerSalesProjection.class);
+        when(projection.getSellerId()).thenReturn(3L);
+
+        when(salesRollupRepository.findTopSellersFromMonthly(
+                LocalDate.of(2025, Month.APRIL, 1), LocalDate.of(2025, Month.JULY, 1), 1))
+                .thenReturn(List.of(projection));
+
+        SellerStatsResponse response = service.getTopSeller(PeriodType.QUARTER, baseDate);
+
+        assertThat(response.sellerId()).isEqualTo(3L);
+        verify(salesRollupRepository, never()).findTopSellersFromDaily(any(), any(), anyInt());
+    }
+
+    @Test
+    void getSellersWithTotalLessThan_readsRawTransactions_whenRangeHasNoWholeDay() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 1, 18, 0);
+        BigDecimal maxTotal = new BigDecimal("1000.00");
+
         when(transactionRepository.findSellersWithTotalAmountLessThan(from, to, maxTotal))
                 .thenReturn(List.of());
 
@@ -126,13 +224,88 @@ class SellerAnalyticsServiceImplUnitTest {
                 service.getSellersWithTotalLessThan(from, to, maxTotal);
 
         assertThat(result).isEmpty();
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void getSellersWithTotalLessThan_roundsPartialFirstDayUp() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 10, 18, 0);
+        BigDecimal maxTotal = new BigDecimal("1000.00");
+
+        when(salesRollupRepository.findSellersWithTotalAmountLessThan(
+                from, to, LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 10), maxTotal))
+                .thenReturn(List.of());
+
+        assertThat(service.getSellersWithTotalLessThan(from, to, maxTotal)).isEmpty();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getTopSeller_servesClosedPeriodFromCache() {
+        LocalDate baseDate = LocalDate.of(2025, Month.MARCH, 10);
+
+        SellerSalesProjection projection = mock(SellerSalesProjection.class);
+        when(projection.getSellerId()).thenReturn(4L);
+
+        when(salesRollupRepository.findTopSellersFromMonthly(
+                LocalDate.of(2025, Month.MARCH, 1), LocalDate.of(2025, Month.APRIL, 1), 1))
+                .thenReturn(List.of(projection));
+
+        service.getTopSeller(PeriodType.MONTH, baseDate);
+        SellerStatsResponse cached = service.getTopSeller(PeriodType.MONTH, baseDate.plusDays(5));
+
+        assertThat(cached.sellerId()).isEqualTo(4L);
+        verify(salesRollupRepository, times(1)).findTopSellersFromMonthly(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTopSellers_readsColumnarCopy_whenRangeIsResident() {
+        LocalDate baseDate = LocalDate.of(2025, Month.MARCH, 10);
+        LocalDateTime start = LocalDateTime.of(2025, Month.MARCH, 10, 0, 0);
+
+        when(columnarSalesService.sumBySeller(start, start.plusDays(1))).thenReturn(Optional.of(Map.of(
+                1L, new BigDecimal("10.00"),
+                2L, new BigDecimal("50.00"),
+                3L, new BigDecimal("30.00"),
+                4L, new BigDecimal("30.00")
+        )));
+        List<SellerNameProjection> names = List.of(seller(3L, "Carol"), seller(2L, "Bob"), seller(4L, "Dave"));
+        when(sellerRepository.findNamesByIdIn(List.of(2L, 3L, 4L))).thenReturn(names);
+
+        List<SellerRankResponse> leaders = service.getTopSellers(PeriodType.DAY, baseDate, 2);
+
+        assertThat(leaders)
+                .extracting(SellerRankResponse::rank, SellerRankResponse::sellerId, SellerRankResponse::sellerName)
+                .containsExactly(tuple(1, 2L, "Bob"), tuple(2, 3L, "Carol"), tuple(2, 4L, "Dave"));
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void getSellersWithTotalLessThan_reloadsAfterCompletionInsideRange() {
+        LocalDateTime from = LocalDateTime.now().minusDays(3);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        BigDecimal maxTotal = new BigDecimal("1000.00");
+
+        when(salesRollupRepository.findSellersWithTotalAmountLessThan(any(), any(), any(), any(), any()))
+                .thenReturn(List.of());
+
+        service.getSellersWithTotalLessThan(from, to, maxTotal);
+        service.getSellersWithTotalLessThan(from, to, new BigDecimal("1000"));
+
+        analyticsCache.onTransactionCompleted(new TransactionCompletedEvent(
+                1L, 1L, BigDecimal.TEN, LocalDateTime.now(), PaymentType.CARD));
+
+        service.getSellersWithTotalLessThan(from, to, maxTotal);
+
+        verify(salesRollupRepository, times(2))
+                .findSellersWithTotalAmountLessThan(any(), any(), any(), any(), any());
     }
 
     @Test
     void getBestPeriodForSeller_returnsResponseAndComputesEndCorrectly_forMonth() {
         Long sellerId = 10L;
-        Seller seller = new Seller();
-        seller.setId(sellerId);
+        SellerResponse seller = new SellerResponse(sellerId, "Alice", "alice@example.com", null);
 
         SellerBestPeriodProjection projection = mock(SellerBestPeriodProjection.class);
         LocalDateTime periodStart = LocalDateTime.of(2025, 1, 1, 0, 0);
@@ -141,10 +314,10 @@ class SellerAnalyticsServiceImplUnitTest {
         when(projection.getTxCount()).thenReturn(5L);
         when(projection.getTotalAmount()).thenReturn(new BigDecimal("123.45"));
 
-        when(sellerRepository.findByIdAndDeletedFalse(sellerId))
+        when(sellerCache.findActive(sellerId))
                 .thenReturn(Optional.of(seller));
 
-        when(transactionRepository.findBestPeriodForSeller(sellerId, "month"))
+        when(salesRollupRepository.findBestPeriodFromMonthly(sellerId, "month"))
                 .thenReturn(projection);
 
         BestPeriodResponse response =
@@ -160,7 +333,7 @@ class SellerAnalyticsServiceImplUnitTest {
 
     @Test
     void getBestPeriodForSeller_throwsIfSellerNotFound() {
-        when(sellerRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.empty());
+        when(sellerCache.findActive(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.getBestPeriodForSeller(1L, PeriodType.DAY))
                 .isInstanceOf(EntityNotFoundException.class)
@@ -170,17 +343,90 @@ class SellerAnalyticsServiceImplUnitTest {
     @Test
     void getBestPeriodForSeller_throwsIfNoTransactions() {
         Long sellerId = 10L;
-        Seller seller = new Seller();
-        seller.setId(sellerId);
+        SellerResponse seller = new SellerResponse(sellerId, "Alice", "alice@example.com", null);
 
-        when(sellerRepository.findByIdAndDeletedFalse(sellerId))
+        when(sellerCache.findActive(sellerId))
                 .thenReturn(Optional.of(seller));
 
-        when(transactionRepository.findBestPeriodForSeller(eq(sellerId), anyString()))
+        when(salesRollupRepository.findBestPeriodFromDaily(eq(sellerId), anyString()))
                 .thenReturn(null);
 
         assertThatThrownBy(() -> service.getBestPeriodForSeller(sellerId, PeriodType.DAY))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("No transactions for seller: " + sellerId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBestPeriods_loadsPageInOneQueryAndReturnsCursor_forQuarter() {
+        when(salesRollupRepository.findSellerIdsWithSalesAfter(0L, 3))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(salesRollupRepository.findBestPeriodsFromMonthly(List.of(1L, 2L), "quarter"))
+                .thenReturn(List.of(
+                        bestPeriodRow(1L, LocalDateTime.of(2024, 4, 1, 0, 0), "50.00"),
+                        bestPeriodRow(2L, LocalDateTime.of(2025, 1, 1, 0, 0), "70.00")
+                ));
+
+        CursorPageResponse<BestPeriodResponse> page = service.getBestPeriods(PeriodType.QUARTER, null, null, 2);
+
+        assertThat(page.content())
+                .extracting(BestPeriodResponse::sellerId, BestPeriodResponse::periodStart,
+                        BestPeriodResponse::periodEnd, BestPeriodResponse::totalAmount)
+                .containsExactly(
+                        tuple(1L, LocalDateTime.of(2024, 4, 1, 0, 0), LocalDateTime.of(2024, 7, 1, 0, 0),
+                                new BigDecimal("50.00")),
+                        tuple(2L, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0),
+                                new BigDecimal("70.00"))
+                );
+        assertThat(page.nextCursor()).isEqualTo(KeysetCursor.after(CursorOrder.ID, null, 2L).encode());
+    }
+
+    @Test
+    void getBestPeriods_restrictsToRequestedSellersAndContinuesAfterCursor() {
+        String after = KeysetCursor.after(CursorOrder.ID, null, 5L).encode();
+        when(salesRollupRepository.findSellerIdsWithSalesAfter(List.of(3L, 7L, 9L), 5L, 11))
+                .thenReturn(List.of(7L));
+        when(salesRollupRepository.findBestPeriodsFromYearly(List.of(7L)))
+                .thenReturn(List.of(bestPeriodRow(7L, LocalDateTime.of(2023, 1, 1, 0, 0), "10.00")));
+
+        CursorPageResponse<BestPeriodResponse> page =
+                service.getBestPeriods(PeriodType.YEAR, List.of(3L, 7L, 9L), after, 10);
+
+        assertThat(page.content()).extracting(BestPeriodResponse::sellerId).containsExactly(7L);
+        assertThat(page.content().getFirst().periodEnd()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getBestPeriods_skipsRollupQueryWhenNoSellerHasSales() {
+        when(salesRollupRepository.findSellerIdsWithSalesAfter(0L, 101)).thenReturn(List.of());
+
+        CursorPageResponse<BestPeriodResponse> page = service.getBestPeriods(PeriodType.DAY, null, null, 100);
+
+        assertThat(page.content()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        verify(salesRollupRepository, never()).findBestPeriodsFromDaily(any(), anyString());
+    }
+
+    private SellerBestPeriodRowProjection bestPeriodRow(Long sellerId, LocalDateTime periodStart, String totalAmount) {
+        SellerBestPeriodRowProjection projection = mock(SellerBestPeriodRowProjection.class);
+        when(projection.getSellerId()).thenReturn(sellerId);
+        when(projection.getPeriodStart()).thenReturn(periodStart);
+        when(projection.getTxCount()).thenReturn(1L);
+        when(projection.getTotalAmount()).thenReturn(new BigDecimal(totalAmount));
+        return projection;
+    }
+
+    private SellerSalesProjection rankedProjection(Long sellerId, String totalAmount) {
+        SellerSalesProjection projection = mock(SellerSalesProjection.class);
+        when(projection.getSellerId()).thenReturn(sellerId);
+        when(projection.getTotalAmount()).thenReturn(new BigDecimal(totalAmount));
+        return projection;
+    }
+
+    private SellerNameProjection seller(Long id, String name) {
+        SellerNameProjection seller = mock(SellerNameProjection.class);
+        when(seller.getId()).thenReturn(id);
+        when(seller.getName()).thenReturn(name);
+        return seller;
+    }
+}
@@ -9,16 +9,24 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.cache.SellerCache;
+import jakarta.validation.ValidationException;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
 import org.nikolait.crmsystem.dto.SellerCreateRequest;
 import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.SellerSummaryResponse;
 import org.nikolait.crmsystem.dto.SellerUpdateRequest;
+import org.nikolait.crmsystem.event.SellerChangedEvent;
 import org.nikolait.crmsystem.mapper.SellerMapper;
 import org.nikolait.crmsystem.model.Seller;
 import org.nikolait.crmsystem.repository.SellerRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +43,12 @@ class SellerServiceImplUnitTest {
     @Mock
     private SellerMapper sellerMapper;
 
+    @Mock
+    private SellerCache sellerCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SellerServiceImpl sellerService;
 
@@ -66,37 +80,117 @@ class SellerServiceImplUnitTest {
         assertEquals("John", page.getContent().getFirst().name());
     }
 
+    // --------------------------------------------
+    //            getAllAfter()
+    // --------------------------------------------
+    @Test
+    void getAllAfter_returnsPageAndNextCursor_whenMoreSellersExist() {
+        Seller first = new Seller();
+        first.setId(1L);
+        Seller second = new Seller();
+        second.setId(2L);
+        Seller third = new Seller();
+        third.setId(3L);
+
+        when(sellerRepository.findActiveAfter(0L, Limit.of(3)))
+                .thenReturn(List.of(first, second, third));
+        when(sellerMapper.toResponse(any(Seller.class)))
+                .thenAnswer(inv -> new SellerResponse(inv.<Seller>getArgument(0).getId(), "n", "c", null));
+
+        CursorPageResponse<SellerResponse> page = sellerService.getAllAfter(null, 2);
+
+        assertEquals(2, page.content().size());
+        assertEquals(2L, page.content().getLast().id());
+        assertNotNull(page.nextCursor());
+
+        when(sellerRepository.findActiveAfter(2L, Limit.of(3)))
+                .thenReturn(List.of(third));
+
+        CursorPageResponse<SellerResponse> next = sellerService.getAllAfter(page.nextCursor(), 2);
+
+        assertEquals(1, next.content().size());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void getAllAfter_throwsValidationException_whenCursorMalformed() {
+        assertThrows(ValidationException.class,
+                () -> sellerService.getAllAfter("not-a-cursor", 10));
+
+        verifyNoInteractions(sellerRepository);
+    }
+
     // --------------------------------------------
     //             getById()
     // --------------------------------------------
     @Test
     void getById_returnsSeller() {
-        Seller seller = new Seller();
-        seller.setId(10L);
-
         SellerResponse response = new SellerResponse(10L, "John", "info", LocalDateTime.now());
 
-        when(sellerRepository.findByIdAndDeletedFalse(10L))
-                .thenReturn(Optional.of(seller));
-
-        when(sellerMapper.toResponse(seller))
-                .thenReturn(response);
+        when(sellerCache.findActive(10L))
+                .thenReturn(Optional.of(response));
 
         SellerResponse result = sellerService.getById(10L);
 
         assertEquals(10L, result.id());
         assertEquals("John", result.name());
+        verifyNoInteractions(sellerRepository);
     }
 
     @Test
     void getById_throwsException_whenNotFound() {
-        when(sellerRepository.findByIdAndDeletedFalse(99L))
+        when(sellerCache.findActive(99L))
                 .thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> sellerService.getById(99L));
     }
 
+    // --------------------------------------------
+    //             getSummary()
+    // --------------------------------------------
+    @Test
+    void getSummary_readsSellerWithoutCache() {
+        Seller seller = new Seller();
+        seller.setId(10L);
+        SellerSummaryResponse response = new SellerSummaryResponse(
+                10L, "John", 2, new BigDecimal("30.00"), null, null);
+
+        when(sellerRepository.findByIdAndDeletedFalse(10L)).thenReturn(Optional.of(seller));
+        when(sellerMapper.toSummaryResponse(seller)).thenReturn(response);
+
+        assertSame(response, sellerService.getSummary(10L));
+        verifyNoInteractions(sellerCache);
+    }
+
+    @Test
+    void getSummary_throwsException_whenNotFound() {
+        when(sellerRepository.findByIdAndDeletedFalse(99L))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> sellerService.getSummary(99L));
+    }
+
+    // --------------------------------------------
+    //           getSummaryVersion()
+    // --------------------------------------------
+    @Test
+    void getSummaryVersion_readsVersionWithoutLoadingSeller() {
+        when(sellerRepository.findSummaryVersionById(10L)).thenReturn(Optional.of("5d41402abc4b2a76"));
+
+        assertEquals("5d41402abc4b2a76", sellerService.getSummaryVersion(10L));
+        verify(sellerRepository, never()).findByIdAndDeletedFalse(any());
+    }
+
+    @Test
+    void getSummaryVersion_throwsException_whenNotFound() {
+        when(sellerRepository.findSummaryVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> sellerService.getSummaryVersion(99L));
+    }
+
     // --------------------------------------------
     //              create()
     // --------------------------------------------
@@ -117,6 +211,7 @@ class SellerServiceImplUnitTest {
         SellerResponse result = sellerService.create(req);
 
         assertEquals(1L, result.id());
+        verify(eventPublisher).publishEvent(new SellerChangedEvent(1L));
     }
 
     // --------------------------------------------
@@ -140,6 +235,7 @@ class SellerServiceImplUnitTest {
         SellerResponse result = sellerService.update(5L, req);
 
         verify(sellerMapper).patchFromRequest(req, existing);
+        verify(eventPublisher).publishEvent(new SellerChangedEvent(5L));
 
         assertEquals("NewName", result.name());
     }
@@ -172,6 +268,7 @@ class SellerServiceImplUnitTest {
         verify(sellerRepository).save(captor.capture());
 
         assertTrue(captor.getValue().isDeleted());
+        verify(eventPublisher).publishEvent(new SellerChangedEvent(7L));
     }
 
     @Test
@@ -0,0 +1,80 @@
+package org.nikolait.crmsystem.service.impl;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.dto.TransactionExportFilter;
+import org.nikolait.crmsystem.dto.TransactionExportRow;
+import org.nikolait.crmsystem.dto.enums.ExportFormat;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.repository.TransactionRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceImplUnitTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 9, 0);
+    private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2025, 1, 1, 10, 30);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private TransactionExportServiceImpl service;
+
+    private final TransactionExportFilter filter =
+            new TransactionExportFilter(7L, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        JsonMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        service = new TransactionExportServiceImpl(transactionRepository, objectMapper);
+
+        when(transactionRepository.streamForExport(7L, null, null, null))
+                .thenReturn(Stream.of(
+                        new TransactionExportRow(1L, 7L, 1050L, PaymentType.CARD,
+                                COMPLETED_AT, TransactionStatus.COMPLETED, CREATED_AT),
+                        new TransactionExportRow(2L, 7L, 300L, PaymentType.CASH,
+                                null, TransactionStatus.PENDING, CREATED_AT)
+                ));
+    }
+
+    @Test
+    void export_writesOneJsonObjectPerLine_forNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(filter, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,\"sellerId\":7,\"amount\":10.50");
+        assertThat(lines[1]).contains("\"transactionDate\":null", "\"status\":\"PENDING\"");
+    }
+
+    @Test
+    void export_writesHeaderAndRows_forCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(filter, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,sellerId,amount,paymentType,transactionDate,status,createdAt
+                1,7,10.50,CARD,2025-01-01T10:30,COMPLETED,2025-01-01T09:00
+                2,7,3.00,CASH,,PENDING,2025-01-01T09:00
+                """);
+    }
+}
@@ -0,0 +1,271 @@
+package org.nikolait.crmsystem.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.config.TransactionIngestionProperties;
+import org.nikolait.crmsystem.dto.SellerResponse;
+import org.nikolait.crmsystem.dto.TransactionCreateRequest;
+import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.exception.IngestionQueueFullException;
+import org.nikolait.crmsystem.exception.InvalidSellerException;
+import org.nikolait.crmsystem.mapper.TransactionMapper;
+import org.nikolait.crmsystem.model.Transaction;
+import org.nikolait.crmsystem.model.enums.PaymentType;
+import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestionServiceImplUnitTest {
+
+    private static final TransactionCreateRequest REQUEST =
+            new TransactionCreateRequest(1L, new BigDecimal("12.50"), PaymentType.CARD);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private SellerCache sellerCache;
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    private Path dir;
+
+    private Path journal;
+
+    private Path deadLetter;
+
+    @BeforeEach
+    void setUp() {
+        journal = dir.resolve("transactions.journal");
+        deadLetter = dir.resolve("transactions.dead-letter");
+
+        lenient().when(sellerCache.findActive(1L))
+                .thenReturn(Optional.of(new SellerResponse(1L, "Seller", "info", LocalDateTime.now())));
+        lenient().when(transactionMapper.ToEntity(any(TransactionCreateRequest.class)))
+                .thenAnswer(inv -> {
+                    TransactionCreateRequest request = inv.getArgument(0);
+                    Transaction transaction = new Transaction();
+                    transaction.setAmount(request.amount());
+                    transaction.setPaymentType(request.paymentType());
+                    return transaction;
+                });
+        lenient().when(transactionMapper.toResponse(any(Transaction.class)))
+                .thenAnswer(inv -> {
+                    Transaction t = inv.getArgument(0);
+                    return new TransactionResponse(t.getId(), t.getSeller().getId(), t.getAmount(),
+                            t.getPaymentType(), null, t.getStatus(), t.getCreatedAt());
+                });
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<org.springframework.transaction.TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    // --------------------------------------------
+    //            enqueuePending()
+    // --------------------------------------------
+    @Test
+    void enqueuePending_assignsIdsFromAllocatedBlockAndJournals() throws IOException {
+        when(transactionRepository.allocateIds(2)).thenReturn(List.of(10L, 11L), List.of(12L, 13L));
+        TransactionIngestionServiceImpl service = service(3, 2);
+
+        List<Long> ids = List.of(
+                service.enqueuePending(REQUEST).id(),
+                service.enqueuePending(REQUEST).id(),
+                service.enqueuePending(REQUEST).id()
+        );
+
+        assertEquals(List.of(10L, 11L, 12L), ids);
+        verify(transactionRepository, times(2)).allocateIds(2);
+        assertEquals(3, Files.readAllLines(journal).size());
+        verify(transactionRepository, never()).insertAllocated(anyList());
+    }
+
+    @Test
+    void enqueuePending_returnsPendingTransaction() {
+        when(transactionRepository.allocateIds(anyInt())).thenReturn(List.of(10L));
+
+        TransactionResponse response = service(2, 1).enqueuePending(REQUEST);
+
+        assertEquals(TransactionStatus.PENDING, response.status());
+        assertEquals(1L, response.sellerId());
+        assertNotNull(response.createdAt());
+    }
+
+    @Test
+    void enqueuePending_throwsException_whenSellerNotFound() {
+        when(sellerCache.findActive(1L)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidSellerException.class, () -> service(2, 1).enqueuePending(REQUEST));
+
+        verify(transactionRepository, never()).allocateIds(anyInt());
+    }
+
+    @Test
+    void enqueuePending_throwsException_whenQueueFull() {
+        when(transactionRepository.allocateIds(anyInt())).thenReturn(List.of(10L, 11L, 12L));
+        TransactionIngestionServiceImpl service = service(2, 3);
+        service.enqueuePending(REQUEST);
+        service.enqueuePending(REQUEST);
+
+        assertThrows(IngestionQueueFullException.class, () -> service.enqueuePending(REQUEST));
+    }
+
+    // --------------------------------------------
+    //                flush()
+    // --------------------------------------------
+    @Test
+    void flush_writesQueueInBatchesAndTruncatesJournal() throws IOException {
+        when(transactionRepository.allocateIds(anyInt())).thenReturn(List.of(10L, 11L, 12L));
+        TransactionIngestionServiceImpl service = service(3, 3);
+        service.enqueuePending(REQUEST);
+        service.enqueuePending(REQUEST);
+        service.enqueuePending(REQUEST);
+
+        List<List<Long>> batches = new ArrayList<>();
+        when(transactionRepository.insertAllocated(anyList())).thenAnswer(inv -> {
+            List<Transaction> batch = inv.getArgument(0);
+            batches.add(batch.stream().map(Transaction::getId).toList());
+            return batch.size();
+        });
+
+        assertEquals(3, service.flush());
+
+        assertEquals(List.of(List.of(10L, 11L), List.of(12L)), batches);
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    void flush_keepsBatchForRetry_whenWriteFails() throws IOException {
+        when(transactionRepository.allocateIds(anyInt())).thenReturn(List.of(10L));
+        TransactionIngestionServiceImpl service = service(2, 1);
+        service.enqueuePending(REQUEST);
+
+        when(transactionRepository.insertAllocated(anyList()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        assertThrows(IllegalStateException.class, service::flush);
+        assertEquals(1, Files.readAllLines(journal).size());
+
+        assertEquals(1, service.flush());
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    void flush_deadLettersRejectedTransaction_afterMaxAttempts() throws IOException {
+        when(transactionRepository.allocateIds(anyInt())).thenReturn(List.of(10L, 11L));
+        TransactionIngestionServiceImpl service = service(2, 2);
+        service.enqueuePending(REQUEST);
+        service.enqueuePending(REQUEST);
+
+        List<Long> written = new ArrayList<>();
+        when(transactionRepository.insertAllocated(anyList())).thenAnswer(inv -> {
+            List<Transaction> batch = inv.getArgument(0);
+            if (batch.stream().anyMatch(t -> t.getId() == 10L)) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            batch.forEach(t -> written.add(t.getId()));
+            return batch.size();
+        });
+
+        assertThrows(DataIntegrityViolationException.class, service::flush);
+        assertThrows(DataIntegrityViolationException.class, service::flush);
+        assertEquals(1, service.flush());
+
+        assertEquals(List.of(11L), written);
+        List<String> deadLettered = Files.readAllLines(deadLetter);
+        assertEquals(1, deadLettered.size());
+        assertTrue(deadLettered.getFirst().startsWith("10,"));
+        assertEquals(0, Files.size(journal));
+        assertEquals(0, service.flush());
+    }
+
+    @Test
+    void flush_neverDeadLetters_whenDatabaseIsUnavailable() throws IOException {
+        when(transactionRepository.allocateIds(anyInt())).thenReturn(List.of(10L));
+        TransactionIngestionServiceImpl service = service(2, 1);
+        service.enqueuePending(REQUEST);
+
+        when(transactionRepository.insertAllocated(anyList()))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            assertThrows(QueryTimeoutException.class, service::flush);
+        }
+
+        assertEquals(0, Files.size(deadLetter));
+        assertEquals(1, Files.readAllLines(journal).size());
+    }
+
+    // --------------------------------------------
+    //             replayJournal()
+    // --------------------------------------------
+    @Test
+    void replayJournal_insertsTransactionsLeftByPreviousRun() throws IOException {
+        Files.writeString(journal, """
+                10,1,12.50,CARD,2025-01-01T10:00
+                11,2,7.00,CASH,2025-01-01T10:01
+                12,2,3.""");
+        when(transactionRepository.insertAllocated(anyList())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+
+        assertEquals(2, service(2, 1).replayJournal());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).insertAllocated(captor.capture());
+        Transaction second = captor.getValue().get(1);
+        assertEquals(11L, second.getId());
+        assertEquals(2L, second.getSeller().getId());
+        assertEquals(new BigDecimal("7.00"), second.getAmount());
+        assertEquals(PaymentType.CASH, second.getPaymentType());
+        assertEquals(TransactionStatus.PENDING, second.getStatus());
+        assertEquals(0, Files.size(journal));
+    }
+
+    private TransactionIngestionServiceImpl service(int queueCapacity, int idBlockSize) {
+        TransactionIngestionProperties properties = new TransactionIngestionProperties(
+                true, queueCapacity, idBlockSize, 2, Duration.ofMillis(200), 3, journal, false, deadLetter
+        );
+        return new TransactionIngestionServiceImpl(
+                transactionRepository,
+                sellerCache,
+                transactionMapper,
+                transactionTemplate,
+                properties,
+                new SimpleMeterRegistry()
+        );
+    }
+}
@@ -0,0 +1,51 @@
+package org.nikolait.crmsystem.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.config.TransactionPartitionProperties;
+import org.nikolait.crmsystem.repository.TransactionPartitionRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionServiceImplUnitTest {
+
+    @Mock
+    private TransactionPartitionRepository transactionPartitionRepository;
+
+    @Spy
+    private TransactionPartitionProperties partitionProperties = new TransactionPartitionProperties(2);
+
+    @InjectMocks
+    private TransactionPartitionServiceImpl service;
+
+    @Test
+    void createPartitions_requestsEveryMonthAndCountsCreated() {
+        when(transactionPartitionRepository.createMonthlyPartition(LocalDate.of(2024, 11, 1))).thenReturn(false);
+        when(transactionPartitionRepository.createMonthlyPartition(LocalDate.of(2024, 12, 1))).thenReturn(true);
+        when(transactionPartitionRepository.createMonthlyPartition(LocalDate.of(2025, 1, 1))).thenReturn(true);
+
+        int created = service.createPartitions(YearMonth.of(2024, 11), YearMonth.of(2025, 1));
+
+        assertThat(created).isEqualTo(2);
+    }
+
+    @Test
+    void createUpcomingPartitions_coversCurrentMonthAndMonthsAhead() {
+        when(transactionPartitionRepository.createMonthlyPartition(any())).thenReturn(true);
+
+        int created = service.createUpcomingPartitions();
+
+        assertThat(created).isEqualTo(3);
+        verify(transactionPartitionRepository).createMonthlyPartition(YearMonth.now().atDay(1));
+        verify(transactionPartitionRepository).createMonthlyPartition(YearMonth.now().plusMonths(2).atDay(1));
+    }
+}
@@ -1,13 +1,31 @@
 package org.nikolait.crmsystem.service.impl;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.nikolait.crmsystem.cache.SellerCache;
+import org.nikolait.crmsystem.config.TransactionBatchProperties;
+import org.nikolait.crmsystem.config.TransactionCompletionProperties;
+import org.nikolait.crmsystem.dto.CursorPageResponse;
+import org.nikolait.crmsystem.dto.TransactionBatchResponse;
+import org.nikolait.crmsystem.dto.TransactionCompletionItemResponse;
+import org.nikolait.crmsystem.dto.TransactionCompletionResponse;
 import org.nikolait.crmsystem.dto.TransactionCreateRequest;
+import org.nikolait.crmsystem.dto.SellerResponse;
 import org.nikolait.crmsystem.dto.TransactionResponse;
+import org.nikolait.crmsystem.dto.enums.BatchItemStatus;
+import org.nikolait.crmsystem.dto.enums.CompletionOutcome;
+import org.nikolait.crmsystem.dto.enums.CursorOrder;
+import org.nikolait.crmsystem.event.TransactionBatchCompletedEvent;
+import org.nikolait.crmsystem.event.TransactionCompletedEvent;
 import org.nikolait.crmsystem.exception.InvalidSellerException;
 import org.nikolait.crmsystem.exception.InvalidTransactionException;
 import org.nikolait.crmsystem.mapper.TransactionMapper;
@@ -15,16 +33,26 @@ import org.nikolait.crmsystem.model.Seller;
 import org.nikolait.crmsystem.model.Transaction;
 import org.nikolait.crmsystem.model.enums.PaymentType;
 import org.nikolait.crmsystem.model.enums.TransactionStatus;
+import org.nikolait.crmsystem.model.projection.TransactionStatusProjection;
+import org.nikolait.crmsystem.repository.SalesRollupRepository;
 import org.nikolait.crmsystem.repository.SellerRepository;
 import org.nikolait.crmsystem.repository.TransactionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,9 +66,30 @@ class TransactionServiceImplUnitTest {
     @Mock
     private SellerRepository sellerRepository;
 
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private SellerCache sellerCache;
+
     @Mock
     private TransactionMapper transactionMapper;
 
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private TransactionBatchProperties batchProperties = new TransactionBatchProperties(3, 500);
+
+    @Spy
+    private TransactionCompletionProperties completionProperties = new TransactionCompletionProperties(5, 2);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -96,6 +145,63 @@ class TransactionServiceImplUnitTest {
         verify(transactionMapper).toResponse(tx);
     }
 
+    // --------------------------------------------
+    //             getAllAfter()
+    // --------------------------------------------
+    @Test
+    void getAllAfter_byTransactionDate_continuesFromLastDateAndId() {
+        LocalDateTime date = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+        Transaction first = new Transaction();
+        first.setId(5L);
+        first.setTransactionDate(date);
+        Transaction second = new Transaction();
+        second.setId(3L);
+        second.setTransactionDate(date.plusHours(1));
+
+        when(transactionRepository.findAllBySellerIdAndTransactionDateAfter(
+                eq(7L), any(LocalDateTime.class), eq(0L), eq(2)))
+                .thenReturn(List.of(first, second));
+
+        CursorPageResponse<TransactionResponse> page =
+                transactionService.getAllAfter(7L, null, 1, CursorOrder.TRANSACTION_DATE);
+
+        assertEquals(1, page.content().size());
+        assertNotNull(page.nextCursor());
+
+        when(transactionRepository.findAllBySellerIdAndTransactionDateAfter(7L, date, 5L, 2))
+                .thenReturn(List.of(second));
+
+        CursorPageResponse<TransactionResponse> next =
+                transactionService.getAllAfter(7L, page.nextCursor(), 1, CursorOrder.TRANSACTION_DATE);
+
+        assertEquals(1, next.content().size());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void getAllAfter_byId_usesIdKeyset() {
+        when(transactionRepository.findAllAfter(0L, Limit.of(11))).thenReturn(List.of());
+
+        CursorPageResponse<TransactionResponse> page =
+                transactionService.getAllAfter(null, null, 10, CursorOrder.ID);
+
+        assertTrue(page.content().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getAllAfter_throwsValidationException_whenCursorIssuedForOtherOrder() {
+        Transaction tx = new Transaction();
+        tx.setId(1L);
+        when(transactionRepository.findAllAfter(0L, Limit.of(2))).thenReturn(List.of(tx, tx));
+
+        String idCursor = transactionService.getAllAfter(null, null, 1, CursorOrder.ID).nextCursor();
+
+        assertThrows(ValidationException.class,
+                () -> transactionService.getAllAfter(null, idCursor, 1, CursorOrder.TRANSACTION_DATE));
+    }
+
     // --------------------------------------------
     //               getById()
     // --------------------------------------------
@@ -131,11 +237,34 @@ class TransactionServiceImplUnitTest {
         verifyNoInteractions(transactionMapper);
     }
 
+    // --------------------------------------------
+    //               getStatus()
+    // --------------------------------------------
+    @Test
+    void getStatus_returnsStatusWithoutLoadingEntity() {
+        when(transactionRepository.findStatusById(10L)).thenReturn(Optional.of(TransactionStatus.COMPLETED));
+
+        assertEquals(TransactionStatus.COMPLETED, transactionService.getStatus(10L));
+
+        verify(transactionRepository, never()).findById(any());
+        verifyNoInteractions(transactionMapper);
+    }
+
+    @Test
+    void getStatus_throwsException_whenNotFound() {
+        when(transactionRepository.findStatusById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> transactionService.getStatus(99L));
+    }
+
     // --------------------------------------------
     //          createPending()
     // --------------------------------------------
     @Test
     void createPending_createsPendingTransaction_whenSellerExists() {
+        runTransactionCallbacks();
+
         TransactionCreateRequest request = new TransactionCreateRequest(
                 7L,
                 new BigDecimal("150.00"),
@@ -159,8 +288,9 @@ class TransactionServiceImplUnitTest {
                 TransactionStatus.PENDING, null
         );
 
-        when(sellerRepository.findByIdAndDeletedFalse(7L))
-                .thenReturn(Optional.of(seller));
+        when(sellerCache.findActive(7L))
+                .thenReturn(Optional.of(new SellerResponse(7L, "Seller", "seller@example.com", null)));
+        when(sellerRepository.getReferenceById(7L)).thenReturn(seller);
         when(transactionMapper.ToEntity(request)).thenReturn(tx);
         when(transactionRepository.save(tx)).thenReturn(saved);
         when(transactionMapper.toResponse(saved)).thenReturn(response);
@@ -174,7 +304,8 @@ class TransactionServiceImplUnitTest {
         assertSame(seller, tx.getSeller());
         assertEquals(TransactionStatus.PENDING, tx.getStatus());
 
-        verify(sellerRepository).findByIdAndDeletedFalse(7L);
+        verify(sellerCache).findActive(7L);
+        verify(sellerRepository, never()).findByIdAndDeletedFalse(any());
         verify(transactionMapper).ToEntity(request);
         verify(transactionRepository).save(tx);
         verify(transactionMapper).toResponse(saved);
@@ -188,14 +319,103 @@ class TransactionServiceImplUnitTest {
                 PaymentType.TRANSFER
         );
 
-        when(sellerRepository.findByIdAndDeletedFalse(7L))
+        when(sellerCache.findActive(7L))
                 .thenReturn(Optional.empty());
 
         assertThrows(InvalidSellerException.class,
                 () -> transactionService.createPending(request));
 
-        verify(sellerRepository).findByIdAndDeletedFalse(7L);
-        verifyNoInteractions(transactionMapper, transactionRepository);
+        verify(sellerCache).findActive(7L);
+        verifyNoInteractions(transactionMapper, transactionRepository, sellerRepository, transactionTemplate);
+    }
+
+    // --------------------------------------------
+    //          createPendingBatch()
+    // --------------------------------------------
+    @Test
+    @SuppressWarnings("unchecked")
+    void createPendingBatch_createsValidItemsAndRejectsOthers() {
+        TransactionCreateRequest valid = new TransactionCreateRequest(
+                7L, new BigDecimal("150.00"), PaymentType.TRANSFER
+        );
+        TransactionCreateRequest invalid = new TransactionCreateRequest(
+                7L, new BigDecimal("-1.00"), PaymentType.CARD
+        );
+        TransactionCreateRequest unknownSeller = new TransactionCreateRequest(
+                8L, new BigDecimal("10.00"), PaymentType.CASH
+        );
+
+        ConstraintViolation<TransactionCreateRequest> violation = mock(ConstraintViolation.class);
+        Path path = mock(Path.class);
+        when(path.toString()).thenReturn("amount");
+        when(violation.getPropertyPath()).thenReturn(path);
+        when(violation.getMessage()).thenReturn("must be greater than or equal to 0.01");
+
+        when(validator.validate(valid)).thenReturn(Set.of());
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+        when(validator.validate(unknownSeller)).thenReturn(Set.of());
+
+        Seller seller = new Seller();
+        seller.setId(7L);
+        when(sellerRepository.findAllByIdInAndDeletedFalse(Set.of(7L, 8L)))
+                .thenReturn(List.of(seller));
+
+        Transaction tx = new Transaction();
+        when(transactionMapper.ToEntity(valid)).thenReturn(tx);
+
+        TransactionResponse response = new TransactionResponse(
+                1L, 7L, new BigDecimal("150.00"),
+                PaymentType.TRANSFER, null,
+                TransactionStatus.PENDING, LocalDateTime.now()
+        );
+        when(transactionMapper.toResponse(tx)).thenReturn(response);
+
+        TransactionBatchResponse result = transactionService.createPendingBatch(
+                List.of(valid, invalid, unknownSeller)
+        );
+
+        assertEquals(1, result.created());
+        assertEquals(2, result.rejected());
+        assertEquals(3, result.items().size());
+
+        assertEquals(BatchItemStatus.CREATED, result.items().get(0).status());
+        assertSame(response, result.items().get(0).transaction());
+
+        assertEquals(BatchItemStatus.REJECTED, result.items().get(1).status());
+        assertEquals("amount: must be greater than or equal to 0.01", result.items().get(1).error());
+
+        assertEquals(BatchItemStatus.REJECTED, result.items().get(2).status());
+        assertEquals("Seller not found: 8", result.items().get(2).error());
+
+        assertSame(seller, tx.getSeller());
+        assertEquals(TransactionStatus.PENDING, tx.getStatus());
+
+        verify(sellerRepository).findAllByIdInAndDeletedFalse(Set.of(7L, 8L));
+        verify(transactionRepository).insertPending(List.of(tx));
+    }
+
+    @Test
+    void createPendingBatch_rejectsNullItems() {
+        TransactionBatchResponse result = transactionService.createPendingBatch(Arrays.asList(null, null));
+
+        assertEquals(0, result.created());
+        assertEquals(2, result.rejected());
+        assertEquals("Transaction must not be null", result.items().getFirst().error());
+
+        verifyNoInteractions(sellerRepository, validator);
+        verify(transactionRepository).insertPending(List.of());
+    }
+
+    @Test
+    void createPendingBatch_throwsValidationException_whenBatchTooLarge() {
+        TransactionCreateRequest request = new TransactionCreateRequest(
+                7L, new BigDecimal("1.00"), PaymentType.CASH
+        );
+
+        assertThrows(ValidationException.class,
+                () -> transactionService.createPendingBatch(List.of(request, request, request, request)));
+
+        verifyNoInteractions(sellerRepository, transactionRepository, transactionMapper);
     }
 
     // --------------------------------------------
@@ -203,6 +423,8 @@ class TransactionServiceImplUnitTest {
     // --------------------------------------------
     @Test
     void complete_returnsExistingResponse_whenAlreadyCompleted() {
+        runTransactionCallbacks();
+
         Transaction tx = new Transaction();
         tx.setId(10L);
         tx.setStatus(TransactionStatus.COMPLETED);
@@ -213,6 +435,7 @@ class TransactionServiceImplUnitTest {
                 TransactionStatus.COMPLETED, LocalDateTime.now()
         );
 
+        when(transactionRepository.completePending(eq(10L), any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(transactionRepository.findById(10L)).thenReturn(Optional.of(tx));
         when(transactionMapper.toResponse(tx)).thenReturn(response);
 
@@ -222,58 +445,60 @@ class TransactionServiceImplUnitTest {
         verify(transactionRepository).findById(10L);
         verify(transactionMapper).toResponse(tx);
         verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(salesRollupRepository, eventPublisher);
     }
 
     @Test
-    void complete_completesPendingTransaction() {
-        Transaction tx = new Transaction();
-        tx.setId(10L);
-        tx.setStatus(TransactionStatus.PENDING);
+    void complete_completesPendingTransactionInSingleUpdate() {
+        runTransactionCallbacks();
 
-        Transaction saved = new Transaction();
-        saved.setId(10L);
-        saved.setStatus(TransactionStatus.COMPLETED);
-        saved.setTransactionDate(LocalDateTime.now());
-
-        TransactionResponse response = new TransactionResponse(
+        LocalDateTime transactionDate = LocalDateTime.now();
+        TransactionResponse completed = new TransactionResponse(
                 10L, 1L, new BigDecimal("100.00"),
-                PaymentType.CASH, saved.getTransactionDate(),
+                PaymentType.CASH, transactionDate,
                 TransactionStatus.COMPLETED, LocalDateTime.now()
         );
 
-        when(transactionRepository.findById(10L)).thenReturn(Optional.of(tx));
-        when(transactionRepository.save(tx)).thenReturn(saved);
-        when(transactionMapper.toResponse(saved)).thenReturn(response);
+        when(transactionRepository.completePending(eq(10L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(completed));
 
         TransactionResponse result = transactionService.complete(10L);
 
-        assertEquals(TransactionStatus.COMPLETED, tx.getStatus());
-        assertNotNull(tx.getTransactionDate());
-        assertEquals(TransactionStatus.COMPLETED, result.status());
-
-        verify(transactionRepository).findById(10L);
-        verify(transactionRepository).save(tx);
-        verify(transactionMapper).toResponse(saved);
+        assertSame(completed, result);
+        verify(transactionRepository, never()).findById(any());
+        verify(transactionRepository, never()).save(any());
+        verify(salesRollupRepository).addCompletedTransaction(
+                1L, transactionDate, new BigDecimal("100.00")
+        );
+        verify(eventPublisher).publishEvent(new TransactionCompletedEvent(
+                10L, 1L, new BigDecimal("100.00"), transactionDate, PaymentType.CASH
+        ));
+        verifyNoInteractions(transactionMapper);
     }
 
     @Test
     void complete_throwsInvalidTransactionException_whenStatusIsNotPendingOrCompleted() {
+        runTransactionCallbacks();
+
         Transaction tx = new Transaction();
         tx.setId(10L);
         tx.setStatus(TransactionStatus.CANCELED); // пример «левого» статуса
 
+        when(transactionRepository.completePending(eq(10L), any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(transactionRepository.findById(10L)).thenReturn(Optional.of(tx));
 
         assertThrows(InvalidTransactionException.class,
                 () -> transactionService.complete(10L));
 
         verify(transactionRepository).findById(10L);
-        verify(transactionRepository, never()).save(any());
-        verifyNoInteractions(transactionMapper);
+        verifyNoInteractions(transactionMapper, salesRollupRepository, eventPublisher);
     }
 
     @Test
     void complete_throwsEntityNotFound_whenTransactionMissing() {
+        runTransactionCallbacks();
+
+        when(transactionRepository.completePending(eq(77L), any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(transactionRepository.findById(77L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
@@ -282,4 +507,200 @@ class TransactionServiceImplUnitTest {
         verify(transactionRepository).findById(77L);
         verifyNoInteractions(transactionMapper);
     }
-}
\ No newline at end of file
+
+    @Test
+    void complete_resolvesLikeUpdatedNothing_whenConcurrentCompletionWins() {
+        runTransactionCallbacks();
+
+        Transaction tx = new Transaction();
+        tx.setId(10L);
+        tx.setStatus(TransactionStatus.COMPLETED);
+        TransactionResponse response = new TransactionResponse(
+                10L, 1L, new BigDecimal("100.00"),
+                PaymentType.CASH, LocalDateTime.now(),
+                TransactionStatus.COMPLETED, LocalDateTime.now()
+        );
+
+        when(transactionRepository.completePending(eq(10L), any(LocalDateTime.class)))
+                .thenThrow(new CannotAcquireLockException("tuple to be locked was already moved"));
+        when(transactionRepository.findById(10L)).thenReturn(Optional.of(tx));
+        when(transactionMapper.toResponse(tx)).thenReturn(response);
+
+        assertSame(response, transactionService.complete(10L));
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verifyNoInteractions(salesRollupRepository, eventPublisher);
+    }
+
+    // --------------------------------------------
+    //            completeAll()
+    // --------------------------------------------
+    @Test
+    void completeAll_reportsOutcomePerDistinctIdAcrossChunks() {
+        runTransactionCallbacks();
+
+        TransactionResponse completed = new TransactionResponse(
+                1L, 7L, new BigDecimal("10.00"),
+                PaymentType.CARD, LocalDateTime.now(),
+                TransactionStatus.COMPLETED, LocalDateTime.now()
+        );
+        TransactionStatusProjection canceled = mock(TransactionStatusProjection.class);
+        when(canceled.getId()).thenReturn(2L);
+        when(canceled.getStatus()).thenReturn(TransactionStatus.CANCELED);
+
+        when(transactionRepository.completePending(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(completed));
+        when(transactionRepository.findStatusesByIdIn(List.of(2L))).thenReturn(List.of(canceled));
+        when(transactionRepository.completePending(eq(List.of(3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(transactionRepository.findStatusesByIdIn(List.of(3L))).thenReturn(List.of());
+
+        TransactionCompletionResponse response = transactionService.completeAll(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(1, response.completed());
+        assertEquals(1, response.rejected());
+        assertEquals(1, response.notFound());
+        assertEquals(
+                List.of(CompletionOutcome.COMPLETED, CompletionOutcome.REJECTED, CompletionOutcome.NOT_FOUND),
+                response.items().stream().map(TransactionCompletionItemResponse::outcome).toList()
+        );
+
+        verify(salesRollupRepository, times(1)).addCompletedTransactions(any(LocalDateTime.class), eq(List.of(completed)));
+        verify(eventPublisher, times(1)).publishEvent(any(TransactionBatchCompletedEvent.class));
+    }
+
+    @Test
+    void completeAll_reportsAlreadyCompleted() {
+        runTransactionCallbacks();
+
+        TransactionStatusProjection done = mock(TransactionStatusProjection.class);
+        when(done.getId()).thenReturn(4L);
+        when(done.getStatus()).thenReturn(TransactionStatus.COMPLETED);
+
+        when(transactionRepository.completePending(eq(List.of(4L)), any(LocalDateTime.class))).thenReturn(List.of());
+        when(transactionRepository.findStatusesByIdIn(List.of(4L))).thenReturn(List.of(done));
+
+        TransactionCompletionResponse response = transactionService.completeAll(List.of(4L));
+
+        assertEquals(1, response.alreadyCompleted());
+        verifyNoInteractions(salesRollupRepository, eventPublisher);
+    }
+
+    @Test
+    void completeAll_splitsChunk_whenItLosesToConcurrentCompletion() {
+        runTransactionCallbacks();
+
+        TransactionResponse completed = new TransactionResponse(
+                1L, 7L, new BigDecimal("10.00"),
+                PaymentType.CARD, LocalDateTime.now(),
+                TransactionStatus.COMPLETED, LocalDateTime.now()
+        );
+        TransactionStatusProjection done = mock(TransactionStatusProjection.class);
+        when(done.getId()).thenReturn(2L);
+        when(done.getStatus()).thenReturn(TransactionStatus.COMPLETED);
+
+        when(transactionRepository.completePending(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenThrow(new CannotAcquireLockException("tuple to be locked was already moved"));
+        when(transactionRepository.completePending(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(completed));
+        when(transactionRepository.completePending(eq(List.of(2L)), any(LocalDateTime.class)))
+                .thenThrow(new CannotAcquireLockException("tuple to be locked was already moved"))
+                .thenReturn(List.of());
+        when(transactionRepository.findStatusesByIdIn(List.of(2L))).thenReturn(List.of(done));
+
+        TransactionCompletionResponse response = transactionService.completeAll(List.of(1L, 2L));
+
+        assertEquals(1, response.completed());
+        assertEquals(1, response.alreadyCompleted());
+        assertEquals(
+                List.of(CompletionOutcome.COMPLETED, CompletionOutcome.ALREADY_COMPLETED),
+                response.items().stream().map(TransactionCompletionItemResponse::outcome).toList()
+        );
+        verify(salesRollupRepository, times(1)).addCompletedTransactions(any(LocalDateTime.class), eq(List.of(completed)));
+    }
+
+    @Test
+    void completeAll_throwsValidationException_whenTooManyIds() {
+        assertThrows(ValidationException.class,
+                () -> transactionService.completeAll(List.of(1L, 2L, 3L, 4L, 5L, 6L)));
+
+        verifyNoInteractions(transactionRepository, transactionTemplate);
+    }
+
+    // --------------------------------------------
+    //            completeAllBySeller()
+    // --------------------------------------------
+    @Test
+    void completeAllBySeller_completesInChunksUntilNothingIsLeft() {
+        runTransactionCallbacks();
+
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+        when(transactionRepository.completePendingBySeller(eq(7L), eq(from), eq(to), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(completedResponse(1L), completedResponse(2L)))
+                .thenReturn(List.of(completedResponse(3L)))
+                .thenReturn(List.of());
+
+        TransactionCompletionResponse response = transactionService.completeAllBySeller(7L, from, to);
+
+        assertEquals(3, response.completed());
+        assertEquals(List.of(1L, 2L, 3L), response.items().stream().map(TransactionCompletionItemResponse::id).toList());
+        verify(salesRollupRepository, times(2)).addCompletedTransactions(any(LocalDateTime.class), anyList());
+    }
+
+    @Test
+    void completeAllBySeller_continuesAfterShortChunk_whenRowsWereTakenConcurrently() {
+        runTransactionCallbacks();
+
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+        when(transactionRepository.completePendingBySeller(eq(7L), eq(from), eq(to), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(completedResponse(1L)))
+                .thenReturn(List.of(completedResponse(3L), completedResponse(4L)))
+                .thenReturn(List.of());
+
+        TransactionCompletionResponse response = transactionService.completeAllBySeller(7L, from, to);
+
+        assertEquals(List.of(1L, 3L, 4L), response.items().stream().map(TransactionCompletionItemResponse::id).toList());
+        verify(transactionRepository, times(3))
+                .completePendingBySeller(eq(7L), eq(from), eq(to), any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    void completeAllBySeller_retriesChunk_whenItLosesToConcurrentCompletion() {
+        runTransactionCallbacks();
+
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+        when(transactionRepository.completePendingBySeller(eq(7L), eq(from), eq(to), any(LocalDateTime.class), eq(2)))
+                .thenThrow(new CannotAcquireLockException("tuple to be locked was already moved"))
+                .thenReturn(List.of(completedResponse(3L)))
+                .thenReturn(List.of());
+
+        TransactionCompletionResponse response = transactionService.completeAllBySeller(7L, from, to);
+
+        assertEquals(1, response.completed());
+        verify(transactionRepository, times(3))
+                .completePendingBySeller(eq(7L), eq(from), eq(to), any(LocalDateTime.class), eq(2));
+    }
+
+    private TransactionResponse completedResponse(Long id) {
+        return new TransactionResponse(
+                id, 7L, BigDecimal.ONE,
+                PaymentType.CASH, LocalDateTime.now(),
+                TransactionStatus.COMPLETED, LocalDateTime.now()
+        );
+    }
+
+    private void runTransactionCallbacks() {
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<org.springframework.transaction.TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+    }
+}